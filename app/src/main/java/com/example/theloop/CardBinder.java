@@ -0,0 +1,95 @@
+package com.example.theloop;
+
+import android.view.View;
+import android.widget.TextView;
+
+import com.example.theloop.ui.CalendarCardState;
+import com.example.theloop.ui.HeadlinesCardState;
+import com.example.theloop.ui.WeatherCardState;
+
+/**
+ * Copies prepared card states into view holders. Nothing here formats text or looks up resources;
+ * that is done by {@link com.example.theloop.ui.CardStateFactory} before the state reaches the UI
+ * thread.
+ */
+final class CardBinder {
+
+    interface Listener {
+        void onArticleClicked(String url);
+
+        void onEventClicked(long eventId);
+    }
+
+    private CardBinder() {}
+
+    static void bindWeather(DashboardAdapter.WeatherViewHolder holder, WeatherCardState state) {
+        holder.temp.setText(state.temperature);
+        holder.conditions.setText(state.conditions);
+        holder.icon.setImageResource(state.iconRes);
+        holder.highLow.setText(state.highLow);
+
+        for (int i = 0; i < holder.forecastViews.length; i++) {
+            DashboardAdapter.WeatherViewHolder.ForecastDayViewHolder dayHolder = holder.forecastViews[i];
+            if (i < state.days.length) {
+                WeatherCardState.Day day = state.days[i];
+                dayHolder.parent.setVisibility(View.VISIBLE);
+                dayHolder.day.setText(day.label);
+                dayHolder.icon.setImageResource(day.iconRes);
+                dayHolder.high.setText(day.high);
+                dayHolder.low.setText(day.low);
+            } else {
+                dayHolder.parent.setVisibility(View.GONE);
+            }
+        }
+    }
+
+    static void bindCalendar(DashboardAdapter.CalendarViewHolder holder, CalendarCardState state, Listener listener) {
+        holder.errorText.setVisibility(View.GONE);
+        if (state.isEmpty()) {
+            holder.noEventsText.setVisibility(View.VISIBLE);
+            holder.eventsContainer.setVisibility(View.GONE);
+            return;
+        }
+        holder.noEventsText.setVisibility(View.GONE);
+        holder.eventsContainer.setVisibility(View.VISIBLE);
+        for (int i = 0; i < holder.eventViews.length; i++) {
+            DashboardAdapter.CalendarViewHolder.CalendarEventItemViewHolder itemHolder = holder.eventViews[i];
+            if (i < state.rows.length) {
+                CalendarCardState.Row row = state.rows[i];
+                itemHolder.parent.setVisibility(View.VISIBLE);
+                itemHolder.title.setText(row.title);
+                itemHolder.time.setText(row.time);
+                setOptionalText(itemHolder.location, row.location);
+                setOptionalText(itemHolder.owner, row.owner);
+                itemHolder.parent.setOnClickListener(v -> listener.onEventClicked(row.eventId));
+            } else {
+                itemHolder.parent.setVisibility(View.GONE);
+            }
+        }
+    }
+
+    static void bindHeadlines(DashboardAdapter.HeadlinesViewHolder holder, HeadlinesCardState state, Listener listener) {
+        holder.errorText.setVisibility(state.isEmpty() ? View.VISIBLE : View.GONE);
+        for (int i = 0; i < holder.headlineViews.length; i++) {
+            DashboardAdapter.HeadlinesViewHolder.HeadlineItemViewHolder itemHolder = holder.headlineViews[i];
+            if (i < state.rows.length) {
+                HeadlinesCardState.Row row = state.rows[i];
+                itemHolder.parent.setVisibility(View.VISIBLE);
+                itemHolder.title.setText(row.title);
+                itemHolder.source.setText(row.source);
+                itemHolder.parent.setOnClickListener(v -> listener.onArticleClicked(row.url));
+            } else {
+                itemHolder.parent.setVisibility(View.GONE);
+            }
+        }
+    }
+
+    private static void setOptionalText(TextView view, CharSequence text) {
+        if (text != null) {
+            view.setText(text);
+            view.setVisibility(View.VISIBLE);
+        } else {
+            view.setVisibility(View.GONE);
+        }
+    }
+}
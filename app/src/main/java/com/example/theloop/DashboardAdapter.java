@@ -10,11 +10,16 @@ import android.widget.ProgressBar;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.theloop.diagnostics.Telemetry;
 import com.google.android.material.chip.ChipGroup;
 
-public class DashboardAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+import java.util.List;
+
+public class DashboardAdapter extends ListAdapter<DashboardItem, RecyclerView.ViewHolder> {
 
     static final int TYPE_HEADER = 0;
     static final int TYPE_WEATHER = 1;
@@ -25,48 +30,52 @@ public class DashboardAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
     static final int TYPE_UK_NEWS = 6;
     static final int TYPE_FOOTER = 7;
 
-    // Callbacks for data binding
+    // Callbacks for data binding. {@code changes} is a mask of the item's CHANGED_* flags, or
+    // DashboardItem.CHANGED_ALL for a full bind.
     public interface Binder {
-        void bindHeader(HeaderViewHolder holder);
-        void bindWeather(WeatherViewHolder holder);
-        void bindHeadlines(HeadlinesViewHolder holder);
-        void bindUkNews(HeadlinesViewHolder holder);
-        void bindCalendar(CalendarViewHolder holder);
-        void bindFunFact(FunFactViewHolder holder);
-        void bindHealth(HealthViewHolder holder);
+        void bindHeader(HeaderViewHolder holder, DashboardItem.HeaderItem item, int changes);
+        void bindWeather(WeatherViewHolder holder, DashboardItem.WeatherItem item, int changes);
+        void bindHeadlines(HeadlinesViewHolder holder, DashboardItem.HeadlinesItem item, int changes);
+        void bindUkNews(HeadlinesViewHolder holder, DashboardItem.HeadlinesItem item, int changes);
+        void bindCalendar(CalendarViewHolder holder, DashboardItem.CalendarItem item, int changes);
+        void bindFunFact(FunFactViewHolder holder, DashboardItem.FunFactItem item, int changes);
+        void bindHealth(HealthViewHolder holder, DashboardItem.HealthItem item, int changes);
         void bindFooter(FooterViewHolder holder);
     }
 
+    private static final DiffUtil.ItemCallback<DashboardItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<DashboardItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull DashboardItem oldItem, @NonNull DashboardItem newItem) {
+            return oldItem.getStableId() == newItem.getStableId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull DashboardItem oldItem, @NonNull DashboardItem newItem) {
+            return newItem.changesFrom(oldItem) == 0;
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull DashboardItem oldItem, @NonNull DashboardItem newItem) {
+            return newItem.changesFrom(oldItem);
+        }
+    };
+
     private final Binder binder;
-    private final String[] sectionOrder; // E.g., {"headlines", "calendar", "fun_fact", "health"}
 
-    public DashboardAdapter(Binder binder, String[] sectionOrder) {
+    public DashboardAdapter(Binder binder) {
+        super(DIFF_CALLBACK);
         this.binder = binder;
-        this.sectionOrder = sectionOrder;
+        setHasStableIds(true);
     }
 
     @Override
     public int getItemViewType(int position) {
-        if (position == 0) return TYPE_HEADER;
-        if (position == 1) return TYPE_WEATHER;
-
-        if (position == getItemCount() - 1) return TYPE_FOOTER;
-
-        // Remaining positions map to sectionOrder
-        String section = sectionOrder[position - 2];
-        return switch (section) {
-            case MainActivity.SECTION_HEADLINES -> TYPE_HEADLINES;
-            case MainActivity.SECTION_UK_NEWS -> TYPE_UK_NEWS;
-            case MainActivity.SECTION_CALENDAR -> TYPE_CALENDAR;
-            case MainActivity.SECTION_FUN_FACT -> TYPE_FUN_FACT;
-            case MainActivity.SECTION_HEALTH -> TYPE_HEALTH;
-            default -> -1; // Should not happen
-        };
+        return getItem(position).viewType;
     }
 
     @Override
-    public int getItemCount() {
-        return 2 + sectionOrder.length + 1; // Header + Weather + Sections + Footer
+    public long getItemId(int position) {
+        return getItem(position).getStableId();
     }
 
     @NonNull
@@ -88,22 +97,41 @@ public class DashboardAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        bind(holder, getItem(position), DashboardItem.CHANGED_ALL);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        // Several diffs may have been dispatched before this bind; rebind the union of their changes.
+        int changes = 0;
+        for (Object payload : payloads) {
+            changes |= payload instanceof Integer mask ? mask : DashboardItem.CHANGED_ALL;
+        }
+        bind(holder, getItem(position), changes);
+    }
+
+    private void bind(RecyclerView.ViewHolder holder, DashboardItem item, int changes) {
+        Telemetry.recordBind(holder.getItemViewType());
         if (holder instanceof HeaderViewHolder headerHolder) {
-            binder.bindHeader(headerHolder);
+            binder.bindHeader(headerHolder, (DashboardItem.HeaderItem) item, changes);
         } else if (holder instanceof WeatherViewHolder weatherHolder) {
-            binder.bindWeather(weatherHolder);
+            binder.bindWeather(weatherHolder, (DashboardItem.WeatherItem) item, changes);
         } else if (holder instanceof HeadlinesViewHolder headlinesHolder) {
             if (holder.getItemViewType() == TYPE_UK_NEWS) {
-                binder.bindUkNews(headlinesHolder);
+                binder.bindUkNews(headlinesHolder, (DashboardItem.HeadlinesItem) item, changes);
             } else {
-                binder.bindHeadlines(headlinesHolder);
+                binder.bindHeadlines(headlinesHolder, (DashboardItem.HeadlinesItem) item, changes);
             }
         } else if (holder instanceof CalendarViewHolder calendarHolder) {
-            binder.bindCalendar(calendarHolder);
+            binder.bindCalendar(calendarHolder, (DashboardItem.CalendarItem) item, changes);
         } else if (holder instanceof FunFactViewHolder funFactHolder) {
-            binder.bindFunFact(funFactHolder);
+            binder.bindFunFact(funFactHolder, (DashboardItem.FunFactItem) item, changes);
         } else if (holder instanceof HealthViewHolder healthHolder) {
-            binder.bindHealth(healthHolder);
+            binder.bindHealth(healthHolder, (DashboardItem.HealthItem) item, changes);
         } else if (holder instanceof FooterViewHolder footerHolder) {
             binder.bindFooter(footerHolder);
         } else {
@@ -259,6 +287,7 @@ public class DashboardAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 
     static class HealthViewHolder extends RecyclerView.ViewHolder {
         final TextView stepsCount;
+        final TextView stepsTrend;
         final TextView permissionButton;
         final TextView errorText;
         final LinearLayout contentLayout;
@@ -266,6 +295,7 @@ public class DashboardAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
         HealthViewHolder(View v) {
             super(v);
             stepsCount = v.findViewById(R.id.health_steps_count);
+            stepsTrend = v.findViewById(R.id.health_steps_trend);
             permissionButton = v.findViewById(R.id.health_permission_button);
             errorText = v.findViewById(R.id.health_error_text);
             contentLayout = v.findViewById(R.id.health_content_layout);
@@ -0,0 +1,182 @@
+package com.example.theloop;
+
+import com.example.theloop.ui.CalendarCardState;
+import com.example.theloop.ui.NewsCardState;
+import com.example.theloop.ui.WeatherCardState;
+
+import java.util.Objects;
+
+/**
+ * Immutable UI state of one dashboard card. {@link DashboardAdapter} diffs successive lists of
+ * items and rebinds only the parts of a card reported by {@link #changesFrom(DashboardItem)}.
+ */
+abstract class DashboardItem {
+
+    /** Passed to binders for a full bind. */
+    static final int CHANGED_ALL = ~0;
+
+    final int viewType;
+
+    DashboardItem(int viewType) {
+        this.viewType = viewType;
+    }
+
+    /** Each card type appears once, so the view type doubles as a stable ID. */
+    long getStableId() {
+        return viewType;
+    }
+
+    /**
+     * Returns a bit mask of the parts that differ from {@code old}, an item with the same stable
+     * ID, or 0 if nothing visible changed.
+     */
+    abstract int changesFrom(DashboardItem old);
+
+    static final class HeaderItem extends DashboardItem {
+        static final int CHANGED_GREETING = 1;
+        static final int CHANGED_SUMMARY = 1 << 1;
+
+        final String greeting;
+        final String summary;
+
+        HeaderItem(String greeting, String summary) {
+            super(DashboardAdapter.TYPE_HEADER);
+            this.greeting = greeting;
+            this.summary = summary;
+        }
+
+        @Override
+        int changesFrom(DashboardItem old) {
+            HeaderItem o = (HeaderItem) old;
+            int changes = 0;
+            if (!Objects.equals(greeting, o.greeting)) changes |= CHANGED_GREETING;
+            if (!Objects.equals(summary, o.summary)) changes |= CHANGED_SUMMARY;
+            return changes;
+        }
+    }
+
+    static final class WeatherItem extends DashboardItem {
+        static final int CHANGED_CONTENT = 1;
+        static final int CHANGED_LOCATION = 1 << 1;
+
+        final WeatherCardState state;
+        final boolean error;
+        final String locationName;
+
+        WeatherItem(WeatherCardState state, boolean error, String locationName) {
+            super(DashboardAdapter.TYPE_WEATHER);
+            this.state = state;
+            this.error = error;
+            this.locationName = locationName;
+        }
+
+        @Override
+        int changesFrom(DashboardItem old) {
+            WeatherItem o = (WeatherItem) old;
+            int changes = 0;
+            // Card states are never mutated, so identity tells whether the data changed.
+            if (state != o.state || error != o.error) {
+                changes |= CHANGED_CONTENT;
+            }
+            if (!Objects.equals(locationName, o.locationName)) changes |= CHANGED_LOCATION;
+            return changes;
+        }
+    }
+
+    /** State of the top headlines card or, with {@link DashboardAdapter#TYPE_UK_NEWS}, the UK card. */
+    static final class HeadlinesItem extends DashboardItem {
+        static final int CHANGED_CONTENT = 1;
+
+        final NewsCardState news;
+        final boolean error;
+
+        HeadlinesItem(int viewType, NewsCardState news, boolean error) {
+            super(viewType);
+            this.news = news;
+            this.error = error;
+        }
+
+        @Override
+        int changesFrom(DashboardItem old) {
+            HeadlinesItem o = (HeadlinesItem) old;
+            return news != o.news || error != o.error ? CHANGED_CONTENT : 0;
+        }
+    }
+
+    static final class CalendarItem extends DashboardItem {
+        static final int CHANGED_CONTENT = 1;
+
+        final boolean permissionGranted;
+        final boolean error;
+        final CalendarCardState state;
+
+        CalendarItem(boolean permissionGranted, boolean error, CalendarCardState state) {
+            super(DashboardAdapter.TYPE_CALENDAR);
+            this.permissionGranted = permissionGranted;
+            this.error = error;
+            this.state = state;
+        }
+
+        @Override
+        int changesFrom(DashboardItem old) {
+            CalendarItem o = (CalendarItem) old;
+            return permissionGranted != o.permissionGranted || error != o.error || state != o.state
+                    ? CHANGED_CONTENT : 0;
+        }
+    }
+
+    static final class FunFactItem extends DashboardItem {
+        static final int CHANGED_CONTENT = 1;
+
+        final String text;
+
+        FunFactItem(String text) {
+            super(DashboardAdapter.TYPE_FUN_FACT);
+            this.text = text;
+        }
+
+        @Override
+        int changesFrom(DashboardItem old) {
+            return Objects.equals(text, ((FunFactItem) old).text) ? 0 : CHANGED_CONTENT;
+        }
+    }
+
+    static final class HealthItem extends DashboardItem {
+        static final int CHANGED_CONTENT = 1;
+
+        final boolean available;
+        final long steps;
+        // Average daily steps over the trend window before today, or -1 if unknown.
+        final long stepsAverage;
+        final boolean permissionDenied;
+
+        HealthItem(boolean available, long steps, long stepsAverage, boolean permissionDenied) {
+            super(DashboardAdapter.TYPE_HEALTH);
+            this.available = available;
+            this.steps = steps;
+            this.stepsAverage = stepsAverage;
+            this.permissionDenied = permissionDenied;
+        }
+
+        @Override
+        int changesFrom(DashboardItem old) {
+            HealthItem o = (HealthItem) old;
+            return available != o.available || steps != o.steps || stepsAverage != o.stepsAverage
+                    || permissionDenied != o.permissionDenied
+                    ? CHANGED_CONTENT : 0;
+        }
+    }
+
+    static final class FooterItem extends DashboardItem {
+        static final FooterItem INSTANCE = new FooterItem();
+
+        private FooterItem() {
+            super(DashboardAdapter.TYPE_FOOTER);
+        }
+
+        @Override
+        int changesFrom(DashboardItem old) {
+            return 0;
+        }
+    }
+}
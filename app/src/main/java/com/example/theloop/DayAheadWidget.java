@@ -2,51 +2,48 @@ package com.example.theloop;
 
 import android.appwidget.AppWidgetManager;
 import android.appwidget.AppWidgetProvider;
+import android.content.ComponentName;
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.widget.RemoteViews;
 
-import com.example.theloop.models.WeatherResponse;
-import com.example.theloop.utils.AppConstants;
+import com.example.theloop.data.WidgetSnapshot;
 import com.example.theloop.utils.AppUtils;
-import com.google.gson.Gson;
-
-import java.util.Locale;
 
 public class DayAheadWidget extends AppWidgetProvider {
 
-    private static final Gson gson = new Gson();
-
-    static void updateAppWidget(Context context, AppWidgetManager appWidgetManager,
-                                int appWidgetId) {
-
-        SharedPreferences prefs = context.getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE);
-        String summary = prefs.getString(AppConstants.KEY_SUMMARY_CACHE, context.getString(R.string.widget_default_summary));
-        String weatherJson = prefs.getString(AppConstants.WEATHER_CACHE_KEY, null);
+    /**
+     * Pushes {@code snapshot} to every widget instance. With {@code textOnly} only the text views
+     * are sent, via partiallyUpdateAppWidget, and the rest of each widget is left as it is.
+     */
+    public static void pushUpdate(Context context, WidgetSnapshot snapshot, boolean textOnly) {
+        AppWidgetManager appWidgetManager = AppWidgetManager.getInstance(context);
+        int[] appWidgetIds = appWidgetManager.getAppWidgetIds(new ComponentName(context, DayAheadWidget.class));
+        if (appWidgetIds.length == 0) return;
+
+        RemoteViews views = buildViews(context, snapshot, textOnly);
+        if (textOnly) {
+            appWidgetManager.partiallyUpdateAppWidget(appWidgetIds, views);
+        } else {
+            appWidgetManager.updateAppWidget(appWidgetIds, views);
+        }
+    }
 
+    static RemoteViews buildViews(Context context, WidgetSnapshot snapshot, boolean textOnly) {
         RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.widget_day_ahead);
-        views.setTextViewText(R.id.widget_summary, summary);
-
-        if (weatherJson != null) {
-            try {
-                WeatherResponse weather = gson.fromJson(weatherJson, WeatherResponse.class);
-                if (weather != null && weather.getCurrent() != null) {
-                    views.setTextViewText(R.id.widget_temp, String.format(Locale.getDefault(), "%.0f°", weather.getCurrent().getTemperature()));
-                    views.setImageViewResource(R.id.widget_weather_icon, AppUtils.getWeatherIconResource(weather.getCurrent().getWeatherCode()));
-                }
-            } catch (com.google.gson.JsonSyntaxException e) {
-                android.util.Log.e("DayAheadWidget", "Error parsing weather JSON from cache", e);
-            }
+        views.setTextViewText(R.id.widget_summary,
+                snapshot.summary != null ? snapshot.summary : context.getString(R.string.widget_default_summary));
+        if (snapshot.temperature != null) {
+            views.setTextViewText(R.id.widget_temp, snapshot.temperature);
         }
-
-        appWidgetManager.updateAppWidget(appWidgetId, views);
+        if (!textOnly && snapshot.weatherCode != WidgetSnapshot.NO_WEATHER) {
+            views.setImageViewResource(R.id.widget_weather_icon, AppUtils.getWeatherIconResource(snapshot.weatherCode));
+        }
+        return views;
     }
 
     @Override
     public void onUpdate(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
-        // There may be multiple widgets active, so update all of them
-        for (int appWidgetId : appWidgetIds) {
-            updateAppWidget(context, appWidgetManager, appWidgetId);
-        }
+        // One snapshot read and one RemoteViews for all widget instances.
+        appWidgetManager.updateAppWidget(appWidgetIds, buildViews(context, WidgetSnapshot.read(context), false));
     }
 }
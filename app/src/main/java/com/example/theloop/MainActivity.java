@@ -1,8 +1,6 @@
 package com.example.theloop;
 
 import android.Manifest;
-import android.appwidget.AppWidgetManager;
-import android.content.ComponentName;
 import android.content.ContentResolver;
 import android.content.ContentUris;
 import android.content.Context;
@@ -18,6 +16,8 @@ import android.net.ConnectivityManager;
 import android.net.NetworkInfo;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.provider.CalendarContract;
 import android.speech.tts.TextToSpeech;
 import android.text.TextUtils;
@@ -25,6 +25,7 @@ import android.util.Log;
 import android.view.HapticFeedbackConstants;
 import android.view.LayoutInflater;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.view.animation.Animation;
 import android.view.animation.AnimationUtils;
 import android.widget.EditText;
@@ -46,52 +47,47 @@ import androidx.health.connect.client.request.AggregateRequest;
 import androidx.health.connect.client.time.TimeRangeFilter;
 import androidx.health.connect.client.PermissionController;
 import androidx.lifecycle.ViewModelProvider;
-import androidx.work.ExistingPeriodicWorkPolicy;
-import androidx.work.PeriodicWorkRequest;
-import androidx.work.WorkManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.example.theloop.models.Article;
-import com.example.theloop.models.CalendarEvent;
+import com.example.theloop.data.DashboardRepository;
+import com.example.theloop.diagnostics.StartupMetrics;
 import com.example.theloop.models.NewsResponse;
-import com.example.theloop.models.WeatherResponse;
+import com.example.theloop.ui.CalendarCardState;
+import com.example.theloop.ui.HeadlinesCardState;
+import com.example.theloop.ui.NewsCardState;
+import com.example.theloop.ui.WeatherCardState;
 import com.example.theloop.utils.AppConstants;
-import com.example.theloop.utils.AppUtils;
 import com.example.theloop.health.HealthConnectHelper;
+import com.example.theloop.health.HealthSeries;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
-import com.google.gson.Gson;
 
-import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import kotlin.jvm.JvmClassMappingKt;
 
-public class MainActivity extends AppCompatActivity implements DashboardAdapter.Binder, TextToSpeech.OnInitListener {
+public class MainActivity extends AppCompatActivity implements DashboardAdapter.Binder, CardBinder.Listener, TextToSpeech.OnInitListener {
 
     private static final String TAG = "MainActivity";
     private static final int CALENDAR_PERMISSION_REQUEST_CODE = 100;
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 101;
     private static final int HEALTH_PERMISSION_REQUEST_CODE = 102;
 
+    // How long the first frame may wait for the cached snapshot before drawing without it.
+    static final long FIRST_FRAME_TIMEOUT_MS = 400;
+
     public static final String SECTION_HEADLINES = "headlines";
     public static final String SECTION_UK_NEWS = "uk_news";
     public static final String SECTION_CALENDAR = "calendar";
     public static final String SECTION_FUN_FACT = "fun_fact";
     public static final String SECTION_HEALTH = "health";
 
-    private static final int POSITION_HEADER = 0;
-    private static final int POSITION_WEATHER = 1;
-
     // UK News moved to front (after weather, before headlines)
     private static final String DEFAULT_SECTION_ORDER = SECTION_UK_NEWS + "," + SECTION_HEADLINES + "," + SECTION_CALENDAR + "," + SECTION_FUN_FACT + "," + SECTION_HEALTH;
 
@@ -103,7 +99,7 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
     private MainViewModel viewModel;
     private FusedLocationProviderClient fusedLocationProviderClient;
     private int selectedNewsCategory = R.id.chip_us;
-    private NewsResponse cachedNewsResponse;
+    private NewsCardState newsCard;
     private Runnable onLocationPermissionGranted;
     private DashboardAdapter adapter;
     private RecyclerView recyclerView;
@@ -122,9 +118,7 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
                             fetchHealthData();
                         } else {
                             healthPermissionDenied = true;
-                            if (adapter != null) {
-                                adapter.notifyItemChanged(findPositionForSection(SECTION_HEALTH));
-                            }
+                            render();
                         }
                     });
 
@@ -132,12 +126,8 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
             registerForActivityResult(new androidx.activity.result.contract.ActivityResultContracts.RequestPermission(), isGranted -> {
                 if (isGranted) {
                     viewModel.loadCalendarData();
-                } else {
-                    int calendarPosition = findPositionForSection(SECTION_CALENDAR);
-                    if (calendarPosition != -1) {
-                        adapter.notifyItemChanged(calendarPosition);
-                    }
                 }
+                render();
             });
 
     private final androidx.activity.result.ActivityResultLauncher<String> requestLocationPermissionLauncher =
@@ -155,25 +145,31 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
             });
 
     private String cachedLocationName;
-    private WeatherResponse latestWeather;
-    private List<String> cachedForecastDates;
-    private List<CalendarEvent> latestEvents;
+    private String unknownLocationText;
+    private WeatherCardState weatherCard;
+    private CalendarCardState calendarCard;
     private int totalEventCount = 0;
     private boolean calendarQueryError = false;
     private String generatedSummary;
     private String funFactText;
     private long stepsToday = -1;
+    private long stepsAverage = -1;
     private boolean healthPermissionDenied = false;
 
-    // Cache fields for performance
-    private Map<String, Integer> sectionPositions;
+    private String[] sections;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable startupGateTimeout = () -> openStartupGate(false);
+    private boolean startupGateOpen = false;
+    private boolean renderingCachedContent = false;
     private String currentTempUnit;
     private String currentUserName;
-    private List<String> ukSources;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        // Read the cached snapshot while the layout is inflated, so the first dashboard frame can
+        // show it.
+        DashboardRepository.getInstance(this).preload();
         setContentView(R.layout.activity_main);
 
         viewModel = new ViewModelProvider(this).get(MainViewModel.class);
@@ -191,7 +187,7 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
         // Initialize cached values
         currentTempUnit = prefs.getString(AppConstants.KEY_TEMP_UNIT, AppConstants.DEFAULT_TEMP_UNIT);
         currentUserName = prefs.getString(AppConstants.KEY_USER_NAME, "");
-        ukSources = new ArrayList<>(Arrays.asList(getResources().getStringArray(R.array.uk_news_sources)));
+        unknownLocationText = getString(R.string.unknown_location);
 
         initHealthConnect();
         textToSpeech = new TextToSpeech(this, this);
@@ -200,24 +196,14 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
 
         viewModel.getLocationName().observe(this, name -> {
             cachedLocationName = name;
-            if (adapter != null) adapter.notifyItemChanged(POSITION_WEATHER);
+            render();
         });
 
         setupRecyclerView();
+        holdFirstFrameUntilCachedContent();
         refreshData();
 
-        androidx.work.Constraints constraints = new androidx.work.Constraints.Builder()
-                .setRequiredNetworkType(androidx.work.NetworkType.CONNECTED)
-                .setRequiresBatteryNotLow(true)
-                .build();
-
-        PeriodicWorkRequest widgetWorkRequest = new PeriodicWorkRequest.Builder(WidgetUpdateWorker.class, 30, java.util.concurrent.TimeUnit.MINUTES)
-                .setConstraints(constraints)
-                .build();
-        WorkManager.getInstance(this).enqueueUniquePeriodicWork(
-                "widget_update",
-                ExistingPeriodicWorkPolicy.KEEP,
-                widgetWorkRequest);
+        RefreshScheduler.ensureScheduled(this);
     }
 
     @Override
@@ -228,49 +214,30 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
         String newUnit = prefs.getString(AppConstants.KEY_TEMP_UNIT, AppConstants.DEFAULT_TEMP_UNIT);
         if (!newUnit.equals(currentTempUnit)) {
             currentTempUnit = newUnit;
-            if (latestWeather != null) {
-                // Trigger re-bind
-                if (adapter != null) adapter.notifyItemChanged(POSITION_WEATHER);
-                // Also re-fetch to get correct unit data from API if needed,
-                // but API call is needed only if we want server-side conversion or if we just convert locally.
-                // Current implementation fetches with unit parameter.
-                fetchLocationAndThenWeatherData();
-            }
+            viewModel.onTemperatureUnitChanged();
         }
     }
 
     private void observeViewModel() {
-        viewModel.getLatestWeather().observe(this, weather -> {
-            latestWeather = weather;
-            if (weather != null && weather.getDaily() != null) {
-                cachedForecastDates = AppUtils.formatForecastDates(weather.getDaily().getTime());
-            } else {
-                cachedForecastDates = null;
-            }
-            if (adapter != null) adapter.notifyItemChanged(POSITION_WEATHER);
+        viewModel.getWeatherCard().observe(this, state -> {
+            weatherCard = state;
+            render();
         });
 
-        viewModel.getCachedNewsResponse().observe(this, news -> {
+        viewModel.getNewsCard().observe(this, state -> {
             isFetchingNews = false;
-            cachedNewsResponse = news;
-            if (adapter != null) {
-                adapter.notifyItemChanged(findPositionForSection(SECTION_HEADLINES));
-                adapter.notifyItemChanged(findPositionForSection(SECTION_UK_NEWS));
-            }
+            newsCard = state;
+            render();
         });
 
         viewModel.getFunFactText().observe(this, fact -> {
             funFactText = fact;
-            if (adapter != null) {
-                adapter.notifyItemChanged(findPositionForSection(SECTION_FUN_FACT));
-            }
+            render();
         });
 
-        viewModel.getCalendarEvents().observe(this, events -> {
-            latestEvents = events;
-            if (adapter != null) {
-                adapter.notifyItemChanged(findPositionForSection(SECTION_CALENDAR));
-            }
+        viewModel.getCalendarCard().observe(this, state -> {
+            calendarCard = state;
+            render();
         });
 
         viewModel.getTotalEventCount().observe(this, count -> {
@@ -279,29 +246,23 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
 
         viewModel.getCalendarQueryError().observe(this, isError -> {
             calendarQueryError = isError;
-            if (adapter != null) {
-                adapter.notifyItemChanged(findPositionForSection(SECTION_CALENDAR));
-            }
+            render();
         });
 
         viewModel.getSummary().observe(this, summary -> {
             generatedSummary = summary;
-            if (adapter != null) adapter.notifyItemChanged(POSITION_HEADER);
-            updateWidget();
+            render();
         });
 
         viewModel.getWeatherError().observe(this, error -> {
             weatherError = error;
-            if (error && adapter != null) adapter.notifyItemChanged(POSITION_WEATHER);
+            render();
         });
 
         viewModel.getNewsError().observe(this, error -> {
             isFetchingNews = false;
             newsError = error;
-            if (error && adapter != null) {
-                adapter.notifyItemChanged(findPositionForSection(SECTION_HEADLINES));
-                adapter.notifyItemChanged(findPositionForSection(SECTION_UK_NEWS));
-            }
+            render();
         });
     }
 
@@ -325,29 +286,88 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
             prefs.edit().putString(AppConstants.KEY_SECTION_ORDER, order).apply();
         }
 
-        String[] sections = order.split(",");
+        sections = order.split(",");
+
+        adapter = new DashboardAdapter(this);
+        recyclerView.setAdapter(adapter);
+    }
+
+    /**
+     * Keeps the first frame from drawing until the cached snapshot has been rendered, or
+     * FIRST_FRAME_TIMEOUT_MS has passed, so a start with a warm cache shows the last known day
+     * instead of spinners. The network refresh carries on behind it.
+     */
+    private void holdFirstFrameUntilCachedContent() {
+        View content = findViewById(android.R.id.content);
+        content.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                if (!startupGateOpen) return false;
+                content.getViewTreeObserver().removeOnPreDrawListener(this);
+                return true;
+            }
+        });
+        mainHandler.postDelayed(startupGateTimeout, FIRST_FRAME_TIMEOUT_MS);
+        viewModel.getInitialContentLoaded().observe(this, loaded -> {
+            if (loaded) openStartupGate(true);
+        });
+    }
 
-        // OPTIMIZATION: Cache positions to avoid repeated array searches and string splitting
-        sectionPositions = new HashMap<>();
-        for (int i = 0; i < sections.length; i++) {
-            sectionPositions.put(sections[i], i + 2); // +2 for Header and Weather
+    private void openStartupGate(boolean cachedContentLoaded) {
+        if (startupGateOpen) return;
+        startupGateOpen = true;
+        mainHandler.removeCallbacks(startupGateTimeout);
+        // The first list is applied synchronously, so the frame released here already has it.
+        renderingCachedContent = cachedContentLoaded;
+        render();
+        renderingCachedContent = false;
+    }
+
+    /**
+     * Rebuilds the card list from the current state and hands it to the adapter, which diffs it
+     * against the previous list and rebinds only the cards, and parts of cards, that changed.
+     */
+    private void render() {
+        // Until the startup gate opens nothing is drawn; the first list then goes in without a diff.
+        if (adapter == null || !startupGateOpen) return;
+        List<DashboardItem> items = new ArrayList<>(sections.length + 3);
+        items.add(new DashboardItem.HeaderItem(getGreeting(), generatedSummary));
+        items.add(new DashboardItem.WeatherItem(weatherCard, weatherError,
+                cachedLocationName != null ? cachedLocationName : unknownLocationText));
+        for (String section : sections) {
+            switch (section) {
+                case SECTION_HEADLINES -> items.add(new DashboardItem.HeadlinesItem(DashboardAdapter.TYPE_HEADLINES, newsCard, newsError));
+                case SECTION_UK_NEWS -> items.add(new DashboardItem.HeadlinesItem(DashboardAdapter.TYPE_UK_NEWS, newsCard, newsError));
+                case SECTION_CALENDAR -> items.add(new DashboardItem.CalendarItem(hasCalendarPermission(), calendarQueryError, calendarCard));
+                case SECTION_FUN_FACT -> items.add(new DashboardItem.FunFactItem(funFactText));
+                case SECTION_HEALTH -> items.add(new DashboardItem.HealthItem(healthConnectClient != null, stepsToday, stepsAverage, healthPermissionDenied));
+                default -> Log.w(TAG, "Unknown dashboard section: " + section);
+            }
         }
+        items.add(DashboardItem.FooterItem.INSTANCE);
+        adapter.submitList(items);
 
-        adapter = new DashboardAdapter(this, sections);
-        recyclerView.setAdapter(adapter);
+        if ((generatedSummary != null || weatherCard != null) && StartupMetrics.markFirstContent(renderingCachedContent)) {
+            reportFullyDrawn();
+        }
     }
 
     private void refreshData() {
+        // Weather, news, calendar and the fun fact refresh as one cycle with a single summary;
+        // the cycle's weather waits for the location resolved below.
+        viewModel.refresh(hasCalendarPermission());
         fetchLocationAndThenWeatherData();
-        fetchNewsDataForSummary();
-        loadCalendarDataForSummary();
-        fetchFunFact();
         fetchHealthData();
     }
 
+    private boolean hasCalendarPermission() {
+        return ContextCompat.checkSelfPermission(this, Manifest.permission.READ_CALENDAR) == PackageManager.PERMISSION_GRANTED;
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        mainHandler.removeCallbacks(startupGateTimeout);
         if (textToSpeech != null) {
             textToSpeech.stop();
             textToSpeech.shutdown();
@@ -377,51 +397,71 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
     }
 
     @Override
-    public void bindHeader(DashboardAdapter.HeaderViewHolder holder) {
-        holder.greeting.setText(getGreeting());
-        if (generatedSummary != null) {
-            holder.summary.setText(generatedSummary);
-        } else {
-            holder.summary.setText(getString(R.string.checking_your_day));
+    public void bindHeader(DashboardAdapter.HeaderViewHolder holder, DashboardItem.HeaderItem item, int changes) {
+        if ((changes & DashboardItem.HeaderItem.CHANGED_GREETING) != 0) {
+            holder.greeting.setText(item.greeting);
+        }
+        if ((changes & DashboardItem.HeaderItem.CHANGED_SUMMARY) != 0) {
+            if (item.summary != null) {
+                holder.summary.setText(item.summary);
+            } else {
+                holder.summary.setText(getString(R.string.checking_your_day));
+            }
+        }
+        if (changes == DashboardItem.CHANGED_ALL) {
+            holder.playButton.setOnClickListener(v -> speakSummary());
         }
-        holder.playButton.setOnClickListener(v -> speakSummary());
     }
 
     @Override
-    public void bindWeather(DashboardAdapter.WeatherViewHolder holder) {
-        holder.settingsIcon.setOnClickListener(v -> startActivity(new Intent(this, SettingsActivity.class)));
+    public void bindWeather(DashboardAdapter.WeatherViewHolder holder, DashboardItem.WeatherItem item, int changes) {
+        if (changes == DashboardItem.CHANGED_ALL) {
+            holder.settingsIcon.setOnClickListener(v -> startActivity(new Intent(this, SettingsActivity.class)));
+        }
 
-        if (latestWeather != null) {
-            holder.progressBar.setVisibility(View.GONE);
-            holder.errorText.setVisibility(View.GONE);
-            holder.contentLayout.setVisibility(View.VISIBLE);
-            populateWeatherCard(holder, latestWeather);
-            updateLocationName(holder);
-        } else if (weatherError) {
-            holder.progressBar.setVisibility(View.GONE);
-            holder.contentLayout.setVisibility(View.GONE);
-            holder.errorText.setVisibility(View.VISIBLE);
-        } else {
-             loadWeatherFromCache(holder);
+        if ((changes & DashboardItem.WeatherItem.CHANGED_CONTENT) != 0) {
+            if (item.state != null) {
+                holder.progressBar.setVisibility(View.GONE);
+                holder.errorText.setVisibility(View.GONE);
+                holder.contentLayout.setVisibility(View.VISIBLE);
+                CardBinder.bindWeather(holder, item.state);
+            } else if (item.error) {
+                holder.progressBar.setVisibility(View.GONE);
+                holder.contentLayout.setVisibility(View.GONE);
+                holder.errorText.setVisibility(View.VISIBLE);
+            } else {
+                // The view model has already published any cached weather; wait for the network.
+                holder.progressBar.setVisibility(View.VISIBLE);
+                holder.errorText.setVisibility(View.GONE);
+                holder.contentLayout.setVisibility(View.GONE);
+            }
+        }
+
+        // A geocoder result only touches the location label.
+        if (item.state != null
+                && (changes & (DashboardItem.WeatherItem.CHANGED_CONTENT | DashboardItem.WeatherItem.CHANGED_LOCATION)) != 0) {
+            updateLocationName(holder, item.locationName);
         }
     }
 
     @Override
-    public void bindHeadlines(DashboardAdapter.HeadlinesViewHolder holder) {
-        if (holder.cardTitle != null) holder.cardTitle.setText("Top Headlines");
-        holder.chipGroup.setVisibility(View.VISIBLE);
-        holder.chipGroup.setOnCheckedChangeListener((group, checkedId) -> {
-            if (checkedId == View.NO_ID) return;
-            selectedNewsCategory = checkedId;
-            if (cachedNewsResponse != null) {
-                displayNewsForCategory(holder, cachedNewsResponse);
-            } else {
-                fetchNewsData(holder);
-            }
-        });
+    public void bindHeadlines(DashboardAdapter.HeadlinesViewHolder holder, DashboardItem.HeadlinesItem item, int changes) {
+        if (changes == DashboardItem.CHANGED_ALL) {
+            if (holder.cardTitle != null) holder.cardTitle.setText("Top Headlines");
+            holder.chipGroup.setVisibility(View.VISIBLE);
+            holder.chipGroup.setOnCheckedChangeListener((group, checkedId) -> {
+                if (checkedId == View.NO_ID) return;
+                selectedNewsCategory = checkedId;
+                if (newsCard != null) {
+                    displayNewsForCategory(holder, newsCard);
+                } else {
+                    fetchNewsData(holder);
+                }
+            });
+        }
 
-        if (cachedNewsResponse == null) {
-            if (newsError) {
+        if (item.news == null) {
+            if (item.error) {
                 holder.progressBar.setVisibility(View.GONE);
                 holder.errorText.setVisibility(View.VISIBLE);
             } else {
@@ -432,17 +472,19 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
         } else {
             holder.progressBar.setVisibility(View.GONE);
             holder.errorText.setVisibility(View.GONE);
-            displayNewsForCategory(holder, cachedNewsResponse);
+            displayNewsForCategory(holder, item.news);
         }
     }
 
     @Override
-    public void bindUkNews(DashboardAdapter.HeadlinesViewHolder holder) {
-        if (holder.cardTitle != null) holder.cardTitle.setText("UK News");
-        holder.chipGroup.setVisibility(View.GONE);
+    public void bindUkNews(DashboardAdapter.HeadlinesViewHolder holder, DashboardItem.HeadlinesItem item, int changes) {
+        if (changes == DashboardItem.CHANGED_ALL) {
+            if (holder.cardTitle != null) holder.cardTitle.setText("UK News");
+            holder.chipGroup.setVisibility(View.GONE);
+        }
 
-        if (cachedNewsResponse == null) {
-            if (newsError) {
+        if (item.news == null) {
+            if (item.error) {
                 holder.progressBar.setVisibility(View.GONE);
                 holder.errorText.setVisibility(View.VISIBLE);
             } else {
@@ -454,13 +496,13 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
         } else {
             holder.progressBar.setVisibility(View.GONE);
             holder.errorText.setVisibility(View.GONE);
-            displayUkNews(holder, cachedNewsResponse);
+            CardBinder.bindHeadlines(holder, item.news.getUkNews(), this);
         }
     }
 
     @Override
-    public void bindCalendar(DashboardAdapter.CalendarViewHolder holder) {
-        if (ContextCompat.checkSelfPermission(this, Manifest.permission.READ_CALENDAR) != PackageManager.PERMISSION_GRANTED) {
+    public void bindCalendar(DashboardAdapter.CalendarViewHolder holder, DashboardItem.CalendarItem item, int changes) {
+        if (!item.permissionGranted) {
             holder.permissionDeniedText.setVisibility(View.VISIBLE);
             holder.eventsContainer.setVisibility(View.GONE);
             holder.errorText.setVisibility(View.GONE);
@@ -470,30 +512,33 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
             );
         } else {
             holder.permissionDeniedText.setVisibility(View.GONE);
-            if (calendarQueryError) {
+            if (item.error) {
                 holder.errorText.setVisibility(View.VISIBLE);
                 holder.eventsContainer.setVisibility(View.GONE);
                 holder.noEventsText.setVisibility(View.GONE);
-            } else if (latestEvents != null) {
-                 populateCalendarCard(holder, latestEvents);
+            } else if (item.state != null) {
+                 CardBinder.bindCalendar(holder, item.state, this);
             } else {
-                loadCalendarDataForSummary();
+                // Still loading as part of the refresh cycle.
+                holder.errorText.setVisibility(View.GONE);
+                holder.noEventsText.setVisibility(View.GONE);
+                holder.eventsContainer.setVisibility(View.GONE);
             }
         }
     }
 
     @Override
-    public void bindFunFact(DashboardAdapter.FunFactViewHolder holder) {
-        if (funFactText != null) {
-            holder.funFactText.setText(funFactText);
+    public void bindFunFact(DashboardAdapter.FunFactViewHolder holder, DashboardItem.FunFactItem item, int changes) {
+        if (item.text != null) {
+            holder.funFactText.setText(item.text);
         } else {
             holder.funFactText.setText(getString(R.string.loading_fun_fact));
         }
     }
 
     @Override
-    public void bindHealth(DashboardAdapter.HealthViewHolder holder) {
-        if (healthConnectClient == null) {
+    public void bindHealth(DashboardAdapter.HealthViewHolder holder, DashboardItem.HealthItem item, int changes) {
+        if (!item.available) {
             holder.errorText.setText(getString(R.string.health_connect_not_available));
             holder.errorText.setVisibility(View.VISIBLE);
             holder.contentLayout.setVisibility(View.GONE);
@@ -501,12 +546,18 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
             return;
         }
 
-        if (stepsToday >= 0) {
+        if (item.steps >= 0) {
             holder.contentLayout.setVisibility(View.VISIBLE);
-            holder.stepsCount.setText(String.valueOf(stepsToday));
+            holder.stepsCount.setText(String.valueOf(item.steps));
+            if (item.stepsAverage >= 0) {
+                holder.stepsTrend.setText(getString(R.string.health_steps_trend, item.stepsAverage, HealthConnectHelper.TREND_DAYS - 1));
+                holder.stepsTrend.setVisibility(View.VISIBLE);
+            } else {
+                holder.stepsTrend.setVisibility(View.GONE);
+            }
             holder.permissionButton.setVisibility(View.GONE);
             holder.errorText.setVisibility(View.GONE);
-        } else if (healthPermissionDenied) {
+        } else if (item.permissionDenied) {
              holder.contentLayout.setVisibility(View.GONE);
              holder.permissionButton.setVisibility(View.VISIBLE);
              holder.permissionButton.setText(getString(R.string.health_permission_denied_button));
@@ -554,7 +605,7 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
                              viewModel.fetchLocationName(location);
                         } else {
                              cachedLocationName = getString(R.string.unknown_location);
-                             if (adapter != null) adapter.notifyItemChanged(POSITION_WEATHER);
+                             render();
                         }
 
                         fetchWeatherData(location.getLatitude(), location.getLongitude());
@@ -575,72 +626,12 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
     }
 
     private void fetchWeatherData(double latitude, double longitude) {
-        if (!isNetworkAvailable()) {
-            viewModel.loadWeatherFromCache();
-            return;
-        }
-        viewModel.fetchWeatherData(latitude, longitude);
-    }
-
-    private void loadWeatherFromCache(DashboardAdapter.WeatherViewHolder holder) {
-        if (latestWeather == null) {
-             viewModel.loadWeatherFromCache();
-        }
+        viewModel.onLocationResolved(latitude, longitude, isNetworkAvailable());
     }
 
-    private void populateWeatherCard(DashboardAdapter.WeatherViewHolder holder, WeatherResponse weather) {
-        String unit = currentTempUnit;
-        String tempSymbol = unit.equals("celsius") ? "°C" : "°F";
-
-        // OPTIMIZATION: Use Math.round() and concatenation instead of String.format() for performance
-        holder.temp.setText(Math.round(weather.getCurrent().getTemperature()) + tempSymbol);
-        holder.conditions.setText(getString(AppUtils.getWeatherDescription(weather.getCurrent().getWeatherCode())));
-        holder.icon.setImageResource(AppUtils.getWeatherIconResource(weather.getCurrent().getWeatherCode()));
-
-        com.example.theloop.models.DailyWeather daily = weather.getDaily();
-        if (daily != null && daily.getTime() != null) {
-            int minSize = Math.min(daily.getTime().size(),
-                Math.min(daily.getTemperatureMax().size(), daily.getWeatherCode().size()));
-            int daysToShow = Math.min(holder.forecastViews.length, minSize);
-
-             if (minSize > 0) {
-                double maxTemp = daily.getTemperatureMax().get(0);
-                double minTemp = daily.getTemperatureMin().get(0);
-                holder.highLow.setText(getString(R.string.weather_high_prefix) + Math.round(maxTemp) + tempSymbol + " " + getString(R.string.weather_low_prefix) + Math.round(minTemp) + tempSymbol);
-            }
-
-            for (int i = 0; i < holder.forecastViews.length; i++) {
-                DashboardAdapter.WeatherViewHolder.ForecastDayViewHolder dailyHolder = holder.forecastViews[i];
-                if (i < daysToShow) {
-                    dailyHolder.parent.setVisibility(View.VISIBLE);
-                    TextView dayText = dailyHolder.day;
-                    ImageView icon = dailyHolder.icon;
-                    TextView high = dailyHolder.high;
-                    TextView low = dailyHolder.low;
-
-                    if (cachedForecastDates != null && i < cachedForecastDates.size()) {
-                        dayText.setText(cachedForecastDates.get(i));
-                    } else {
-                        dayText.setText("-");
-                    }
-
-                    icon.setImageResource(AppUtils.getWeatherIconResource(daily.getWeatherCode().get(i)));
-                    high.setText(Math.round(daily.getTemperatureMax().get(i)) + tempSymbol);
-                    low.setText(Math.round(daily.getTemperatureMin().get(i)) + tempSymbol);
-                } else {
-                    dailyHolder.parent.setVisibility(View.GONE);
-                }
-            }
-        }
-    }
-
-    private void updateLocationName(DashboardAdapter.WeatherViewHolder holder) {
+    private void updateLocationName(DashboardAdapter.WeatherViewHolder holder, String locationName) {
         if (holder == null || holder.location == null) return;
-        if (cachedLocationName != null) {
-            holder.location.setText(cachedLocationName);
-        } else {
-            holder.location.setText(R.string.unknown_location);
-        }
+        holder.location.setText(locationName);
     }
 
 
@@ -651,152 +642,57 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
         viewModel.fetchNewsData();
     }
 
-    private void fetchNewsDataForSummary() {
-        viewModel.fetchNewsData();
-    }
-
-    private void displayNewsForCategory(DashboardAdapter.HeadlinesViewHolder holder, NewsResponse response) {
+    private void displayNewsForCategory(DashboardAdapter.HeadlinesViewHolder holder, NewsCardState news) {
         if (holder == null) return;
-        List<Article> articles = switch (selectedNewsCategory) {
-            case R.id.chip_business -> response.getBusiness();
-            case R.id.chip_entertainment -> response.getEntertainment();
-            case R.id.chip_health -> response.getHealth();
-            case R.id.chip_science -> response.getScience();
-            case R.id.chip_sports -> response.getSports();
-            case R.id.chip_technology -> response.getTechnology();
-            case R.id.chip_world -> response.getWorld();
-            default -> response.getUs();
+        NewsResponse.Category category = switch (selectedNewsCategory) {
+            case R.id.chip_business -> NewsResponse.Category.BUSINESS;
+            case R.id.chip_entertainment -> NewsResponse.Category.ENTERTAINMENT;
+            case R.id.chip_health -> NewsResponse.Category.HEALTH;
+            case R.id.chip_science -> NewsResponse.Category.SCIENCE;
+            case R.id.chip_sports -> NewsResponse.Category.SPORTS;
+            case R.id.chip_technology -> NewsResponse.Category.TECHNOLOGY;
+            case R.id.chip_world -> NewsResponse.Category.WORLD;
+            default -> NewsResponse.Category.US;
         };
-        populateHeadlines(holder, articles);
-    }
-
-    private void displayUkNews(DashboardAdapter.HeadlinesViewHolder holder, NewsResponse response) {
-        if (holder == null) return;
-
-        List<Article> allArticles = new ArrayList<>();
-        if (response.getWorld() != null) allArticles.addAll(response.getWorld());
-        if (response.getBusiness() != null) allArticles.addAll(response.getBusiness());
-        if (response.getSports() != null) allArticles.addAll(response.getSports());
-
-        List<Article> ukArticles = new ArrayList<>();
-        for (Article a : allArticles) {
-            for (String source : ukSources) {
-                if (a.getSource() != null && a.getSource().contains(source)) {
-                    ukArticles.add(a);
-                    break;
-                }
-            }
-        }
-
-        if (ukArticles.isEmpty() && response.getWorld() != null) {
-            ukArticles = response.getWorld();
+        HeadlinesCardState headlines = news.get(category);
+        if (headlines == null) {
+            // Not decoded with the rest of the feed; the view model republishes once it is.
+            holder.progressBar.setVisibility(View.VISIBLE);
+            viewModel.loadNewsCategory(category);
+            return;
         }
-
-        populateHeadlines(holder, ukArticles);
+        holder.progressBar.setVisibility(View.GONE);
+        CardBinder.bindHeadlines(holder, headlines, this);
     }
 
-    private void populateHeadlines(DashboardAdapter.HeadlinesViewHolder holder, List<Article> articles) {
-        if (articles != null && !articles.isEmpty()) {
-            holder.errorText.setVisibility(View.GONE);
-            for (int i = 0; i < holder.headlineViews.length; i++) {
-                DashboardAdapter.HeadlinesViewHolder.HeadlineItemViewHolder itemHolder = holder.headlineViews[i];
-                if (i < articles.size()) {
-                    Article article = articles.get(i);
-                    itemHolder.parent.setVisibility(View.VISIBLE);
-                    TextView title = itemHolder.title;
-                    TextView sourceTextView = itemHolder.source;
-                    title.setText(article.getTitle());
-                    sourceTextView.setText(article.getSource());
-                    itemHolder.parent.setOnClickListener(v -> {
-                        if (article.getUrl() != null) {
-                            try {
-                                startActivity(new Intent(Intent.ACTION_VIEW, Uri.parse(article.getUrl())));
-                            } catch (android.content.ActivityNotFoundException e) {
-                                Toast.makeText(this, "No browser found to open link.", Toast.LENGTH_SHORT).show();
-                                Log.e(TAG, "Failed to open article link", e);
-                            }
-                        } else {
-                            Toast.makeText(this, "Article link unavailable.", Toast.LENGTH_SHORT).show();
-                        }
-                    });
-                } else {
-                    itemHolder.parent.setVisibility(View.GONE);
-                }
+    @Override
+    public void onArticleClicked(String url) {
+        if (url != null) {
+            try {
+                startActivity(new Intent(Intent.ACTION_VIEW, Uri.parse(url)));
+            } catch (android.content.ActivityNotFoundException e) {
+                Toast.makeText(this, "No browser found to open link.", Toast.LENGTH_SHORT).show();
+                Log.e(TAG, "Failed to open article link", e);
             }
         } else {
-            holder.errorText.setVisibility(View.VISIBLE);
-            // Hide all items
-             for (DashboardAdapter.HeadlinesViewHolder.HeadlineItemViewHolder itemHolder : holder.headlineViews) {
-                 itemHolder.parent.setVisibility(View.GONE);
-             }
-        }
-    }
-
-    private void loadCalendarDataForSummary() {
-        if (ContextCompat.checkSelfPermission(this, Manifest.permission.READ_CALENDAR) != PackageManager.PERMISSION_GRANTED) {
-            return;
+            Toast.makeText(this, "Article link unavailable.", Toast.LENGTH_SHORT).show();
         }
-        viewModel.loadCalendarData();
     }
 
-    private void populateCalendarCard(DashboardAdapter.CalendarViewHolder holder, List<CalendarEvent> events) {
-        holder.errorText.setVisibility(View.GONE);
-        if (events.isEmpty()) {
-            holder.noEventsText.setVisibility(View.VISIBLE);
-            holder.eventsContainer.setVisibility(View.GONE);
-        } else {
-            holder.noEventsText.setVisibility(View.GONE);
-            holder.eventsContainer.setVisibility(View.VISIBLE);
-            for (int i = 0; i < holder.eventViews.length; i++) {
-                DashboardAdapter.CalendarViewHolder.CalendarEventItemViewHolder itemHolder = holder.eventViews[i];
-                if (i < events.size()) {
-                    CalendarEvent event = events.get(i);
-                    itemHolder.parent.setVisibility(View.VISIBLE);
-                    TextView title = itemHolder.title;
-                    TextView time = itemHolder.time;
-                    TextView loc = itemHolder.location;
-                    TextView owner = itemHolder.owner;
-
-                    title.setText(event.getTitle());
-                    time.setText(AppUtils.formatEventTime(this, event.getStartTime(), event.getEndTime()));
-
-                    if (!TextUtils.isEmpty(event.getLocation())) {
-                        loc.setText(event.getLocation());
-                        loc.setVisibility(View.VISIBLE);
-                    } else loc.setVisibility(View.GONE);
-
-                    if (!TextUtils.isEmpty(event.getOwnerName())) {
-                         owner.setText(event.getOwnerName());
-                         owner.setVisibility(View.VISIBLE);
-                    } else {
-                         owner.setVisibility(View.GONE);
-                    }
-
-                    itemHolder.parent.setOnClickListener(v -> {
-                        Uri uri = ContentUris.withAppendedId(CalendarContract.Events.CONTENT_URI, event.getId());
-                        Intent intent = new Intent(Intent.ACTION_VIEW).setData(uri);
-                        try {
-                            startActivity(intent);
-                        } catch (android.content.ActivityNotFoundException e) {
-                            Log.e(TAG, "Cannot open calendar event", e);
-                            Toast.makeText(MainActivity.this, "No app found to open calendar event.", Toast.LENGTH_SHORT).show();
-                        }
-                    });
-                } else {
-                    itemHolder.parent.setVisibility(View.GONE);
-                }
-            }
+    @Override
+    public void onEventClicked(long eventId) {
+        Uri uri = ContentUris.withAppendedId(CalendarContract.Events.CONTENT_URI, eventId);
+        Intent intent = new Intent(Intent.ACTION_VIEW).setData(uri);
+        try {
+            startActivity(intent);
+        } catch (android.content.ActivityNotFoundException e) {
+            Log.e(TAG, "Cannot open calendar event", e);
+            Toast.makeText(MainActivity.this, "No app found to open calendar event.", Toast.LENGTH_SHORT).show();
         }
     }
 
-    private void fetchFunFact() {
-        viewModel.fetchFunFact();
-    }
-
     private void checkHealthPermissionsAndFetch() {
-         Set<String> permissions = new HashSet<>();
-         permissions.add(HealthPermission.getReadPermission(JvmClassMappingKt.getKotlinClass(StepsRecord.class)));
-         healthPermissionLauncher.launch(permissions);
+         healthPermissionLauncher.launch(HealthConnectHelper.READ_PERMISSIONS);
     }
 
     private void fetchHealthData() {
@@ -806,40 +702,28 @@ public class MainActivity extends AppCompatActivity implements DashboardAdapter.
             @Override
             public void onStepsFetched(long steps) {
                 stepsToday = steps;
-                adapter.notifyItemChanged(findPositionForSection(SECTION_HEALTH));
+                render();
             }
 
             @Override
             public void onError(Exception e) {
                 Log.e(TAG, "Health error", e);
-                adapter.notifyItemChanged(findPositionForSection(SECTION_HEALTH));
+                render();
             }
         });
-    }
-
-    private void updateWidget() {
-        Intent intent = new Intent(this, DayAheadWidget.class);
-        intent.setAction(AppWidgetManager.ACTION_APPWIDGET_UPDATE);
-        int[] ids = AppWidgetManager.getInstance(getApplication()).getAppWidgetIds(new ComponentName(getApplication(), DayAheadWidget.class));
-        intent.putExtra(AppWidgetManager.EXTRA_APPWIDGET_IDS, ids);
-        sendBroadcast(intent);
-    }
 
-    private int findPositionForSection(String section) {
-        if (sectionPositions != null) {
-            Integer position = sectionPositions.get(section);
-            if (position != null) {
-                return position;
+        healthConnectHelper.fetchDailyTrends(new HealthConnectHelper.TrendsCallback() {
+            @Override
+            public void onTrendsFetched(HealthSeries daily) {
+                stepsAverage = daily.averageStepsBeforeLast();
+                render();
             }
-        }
 
-        // Fallback for edge cases (e.g. before setupRecyclerView or if map missing)
-        String order = getSharedPreferences(AppConstants.PREFS_NAME, MODE_PRIVATE).getString(AppConstants.KEY_SECTION_ORDER, DEFAULT_SECTION_ORDER);
-        String[] sections = order.split(",");
-        for (int i=0; i<sections.length; i++) {
-            if (sections[i].equals(section)) return i + 2;
-        }
-        return -1;
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Health trends error", e);
+            }
+        });
     }
 
     private String getTimeBasedGreeting() {
@@ -3,38 +3,47 @@ package com.example.theloop
 import android.app.Application
 import android.content.Context
 import android.content.SharedPreferences
-import android.database.Cursor
 import android.location.Address
 import android.location.Geocoder
 import android.location.Location
-import android.net.Uri
-import android.provider.CalendarContract
 import android.util.Log
 import androidx.lifecycle.AndroidViewModel
 import androidx.lifecycle.LiveData
 import androidx.lifecycle.MutableLiveData
 import androidx.lifecycle.viewModelScope
+import com.example.theloop.data.CalendarSource
+import com.example.theloop.data.DashboardRepository
+import com.example.theloop.data.DashboardSnapshot
+import com.example.theloop.data.GeocodeCache
+import com.example.theloop.data.NewsDigest
+import com.example.theloop.diagnostics.RefreshStats
 import com.example.theloop.models.CalendarEvent
-import com.example.theloop.models.FunFactResponse
 import com.example.theloop.models.NewsResponse
 import com.example.theloop.models.WeatherResponse
-import com.example.theloop.network.FunFactApiService
 import com.example.theloop.network.FunFactRetrofitClient
-import com.example.theloop.network.NewsApiService
-import com.example.theloop.network.NewsRetrofitClient
-import com.example.theloop.network.RetrofitClient
-import com.example.theloop.network.WeatherApiService
+import com.example.theloop.ui.CalendarCardState
+import com.example.theloop.ui.CardStateFactory
+import com.example.theloop.ui.NewsCardState
+import com.example.theloop.ui.WeatherCardState
 import com.example.theloop.utils.AppConstants
-import com.google.gson.Gson
+import com.example.theloop.utils.UnitConverter
+import com.example.theloop.utils.Geohash
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CompletableDeferred
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
 import kotlinx.coroutines.launch
-import retrofit2.Response
+import kotlinx.coroutines.supervisorScope
+import kotlinx.coroutines.withContext
+import kotlinx.coroutines.withTimeoutOrNull
 import java.util.Calendar
 
 class MainViewModel(application: Application) : AndroidViewModel(application) {
 
     private val TAG = "MainViewModel"
-    private val gson = Gson()
+    private val repository = DashboardRepository.getInstance(application)
+    private val geocodeCache = GeocodeCache.getInstance(application)
 
     private val _latestWeather = MutableLiveData<WeatherResponse>()
     val latestWeather: LiveData<WeatherResponse> = _latestWeather
@@ -42,6 +51,9 @@ class MainViewModel(application: Application) : AndroidViewModel(application) {
     private val _cachedNewsResponse = MutableLiveData<NewsResponse>()
     val cachedNewsResponse: LiveData<NewsResponse> = _cachedNewsResponse
 
+    private val _newsDigest = MutableLiveData<NewsDigest>()
+    val newsDigest: LiveData<NewsDigest> = _newsDigest
+
     private val _funFactText = MutableLiveData<String>()
     val funFactText: LiveData<String> = _funFactText
 
@@ -63,174 +75,297 @@ class MainViewModel(application: Application) : AndroidViewModel(application) {
     private val _newsError = MutableLiveData(false)
     val newsError: LiveData<Boolean> = _newsError
 
-    private val _summary = androidx.lifecycle.MediatorLiveData<String>()
+    private val _summary = MutableLiveData<String>()
     val summary: LiveData<String> = _summary
 
-    private val CALENDAR_PROJECTION = arrayOf(
-        CalendarContract.Events._ID, CalendarContract.Events.TITLE, CalendarContract.Events.DTSTART,
-        CalendarContract.Events.DTEND, CalendarContract.Events.EVENT_LOCATION, CalendarContract.Events.CALENDAR_DISPLAY_NAME
-    )
+    // Card states are built on Dispatchers.Default so that binding only assigns prepared values.
+    private val _weatherCard = MutableLiveData<WeatherCardState>()
+    val weatherCard: LiveData<WeatherCardState> = _weatherCard
+
+    private val _newsCard = MutableLiveData<NewsCardState>()
+    val newsCard: LiveData<NewsCardState> = _newsCard
+
+    private val _calendarCard = MutableLiveData<CalendarCardState>()
+    val calendarCard: LiveData<CalendarCardState> = _calendarCard
+
+    private val _initialContentLoaded = MutableLiveData(false)
+    /** Becomes true once whatever was cached on disk has been turned into card states. */
+    val initialContentLoaded: LiveData<Boolean> = _initialContentLoaded
+
+    private var weatherCardJob: Job? = null
+    private var newsCardJob: Job? = null
+
+    // Refresh cycle state; only touched on the main thread.
+    private var refreshJob: Job? = null
+    private var pendingLocation: CompletableDeferred<Coordinates>? = null
+    private var summaryHeld = false
+    private var cycleActive = false
+    private var summaryDebounceJob: Job? = null
 
+    private class Coordinates(val latitude: Double, val longitude: Double, val online: Boolean)
+
+
+    private val calendarSource = CalendarSource(application, viewModelScope)
+
+    /**
+     * Publishes the place name for [location]. Names are cached per geohash cell, so the Geocoder
+     * only runs when the user has moved to a cell it has not named before.
+     */
     fun fetchLocationName(location: Location) {
-        val geocoder = Geocoder(getApplication(), java.util.Locale.getDefault())
-        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.TIRAMISU) {
-            geocoder.getFromLocation(location.latitude, location.longitude, 1) { addresses ->
-                processGeocoderAddresses(addresses)
+        val cell = Geohash.encode(location.latitude, location.longitude, GeocodeCache.CELL_PRECISION)
+        viewModelScope.launch(Dispatchers.IO) {
+            val cached = geocodeCache.get(cell)
+            if (cached != null) {
+                _locationName.postValue(cached)
+                return@launch
             }
-        } else {
-            viewModelScope.launch(Dispatchers.IO) {
+
+            val geocoder = Geocoder(getApplication(), java.util.Locale.getDefault())
+            if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.TIRAMISU) {
+                geocoder.getFromLocation(location.latitude, location.longitude, 1) { addresses ->
+                    processGeocoderAddresses(cell, addresses)
+                }
+            } else {
                 try {
                     val addresses = geocoder.getFromLocation(location.latitude, location.longitude, 1)
-                    processGeocoderAddresses(addresses)
+                    processGeocoderAddresses(cell, addresses)
                 } catch (e: Exception) {
                     Log.e(TAG, "Failed to get location name from geocoder", e)
-                    processGeocoderAddresses(null)
+                    processGeocoderAddresses(cell, null)
                 }
             }
         }
     }
 
-    private fun processGeocoderAddresses(addresses: List<Address>?) {
+    // The Tiramisu listener may run on any thread, so this only posts values.
+    private fun processGeocoderAddresses(cell: String, addresses: List<Address>?) {
         val unknown = getApplication<Application>().getString(R.string.unknown_location)
-        if (!addresses.isNullOrEmpty()) {
-            val address = addresses[0]
-            val city = address.locality
-            val district = address.subAdminArea
-            val sb = StringBuilder()
-            if (!city.isNullOrEmpty()) sb.append(city)
-            else if (!district.isNullOrEmpty()) sb.append(district)
-            else sb.append(unknown)
-            _locationName.postValue(sb.toString())
+        val address = addresses?.firstOrNull()
+        val name = address?.locality?.takeIf { it.isNotEmpty() }
+            ?: address?.subAdminArea?.takeIf { it.isNotEmpty() }
+        if (name != null) {
+            geocodeCache.put(cell, name)
+            _locationName.postValue(name)
         } else {
             _locationName.postValue(unknown)
         }
     }
 
     init {
-        val updateSummary = {
-            val weather = _latestWeather.value
-            val events = _calendarEvents.value
-            val totalEvents = _totalEventCount.value ?: 0
-            val news = _cachedNewsResponse.value
-            val calendarError = _calendarQueryError.value ?: false
-            val userName = getApplication<Application>().getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE)
-                .getString(AppConstants.KEY_USER_NAME, "User") ?: "User"
-
-            val topHeadline = news?.us?.firstOrNull()
-
-            if (weather != null) {
-                val summaryText = com.example.theloop.utils.SummaryUtils.generateSummary(
-                    getApplication(),
-                    weather,
-                    events,
-                    totalEvents,
-                    topHeadline,
-                    userName,
-                    calendarError
-                )
-                _summary.postValue(summaryText)
-                saveSummaryToCache(summaryText)
-            }
+        viewModelScope.launch {
+            // Cache first: publish what is on disk (usually already preloaded by MainActivity)
+            // before anything is fetched, so the first frame can show it.
+            repository.warmUp()
+            applySnapshot(repository.snapshot.value)
+            weatherCardJob?.join()
+            newsCardJob?.join()
+            _initialContentLoaded.value = true
+
+            repository.snapshot.collect { applySnapshot(it) }
         }
-
-        _summary.addSource(_latestWeather) { updateSummary() }
-        _summary.addSource(_calendarEvents) { updateSummary() }
-        _summary.addSource(_cachedNewsResponse) { updateSummary() }
-        _summary.addSource(_totalEventCount) { updateSummary() }
     }
 
-    fun fetchWeatherData(latitude: Double, longitude: Double) {
-        val prefs = getApplication<Application>().getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE)
-        val unit = prefs.getString(AppConstants.KEY_TEMP_UNIT, null) ?: getApplication<Application>().resources.getStringArray(R.array.temp_units_values)[0]
+    private fun applySnapshot(snapshot: DashboardSnapshot) {
+        var summaryInputsChanged = false
+        if (snapshot.weather != null && snapshot.weather !== _latestWeather.value) {
+            _latestWeather.value = snapshot.weather
+            refreshWeatherCard()
+            summaryInputsChanged = true
+        }
+        if (snapshot.news != null && snapshot.news !== _cachedNewsResponse.value) {
+            _cachedNewsResponse.value = snapshot.news
+            summaryInputsChanged = true
+        }
+        if (snapshot.newsDigest != null && snapshot.newsDigest !== _newsDigest.value) {
+            _newsDigest.value = snapshot.newsDigest
+            buildNewsCard(snapshot.newsDigest)
+        }
+        if (snapshot.summary != null && snapshot.summary != _summary.value) {
+            _summary.value = snapshot.summary
+        }
+        if (summaryInputsChanged) onSummaryInputChanged()
+    }
 
-        viewModelScope.launch {
+    /**
+     * Starts a refresh cycle: weather, news, calendar and the fun fact are fetched concurrently,
+     * and the summary is computed once, when they have all arrived or [REFRESH_DEADLINE_MS] has
+     * passed. Feeds arriving after the deadline update it with a debounce, and the summary is
+     * persisted once, at the end of the cycle. A new cycle cancels one still running.
+     *
+     * Weather waits for [onLocationResolved]; the caller resolves the location after this call.
+     */
+    fun refresh(includeCalendar: Boolean) {
+        refreshJob?.cancel()
+        summaryDebounceJob?.cancel()
+        val location = CompletableDeferred<Coordinates>()
+        pendingLocation = location
+        refreshJob = viewModelScope.launch {
+            RefreshStats.markCycleStart()
+            summaryHeld = true
+            cycleActive = true
             try {
-                val apiService = RetrofitClient.getClient().create(WeatherApiService::class.java)
-                val response = apiService.getWeather(latitude, longitude, "temperature_2m,weather_code", "weather_code,temperature_2m_max,temperature_2m_min", unit, "auto")
-                if (response.isSuccessful && response.body() != null) {
-                    _weatherError.postValue(false)
-                    _latestWeather.postValue(response.body())
-                    saveToCache(AppConstants.WEATHER_CACHE_KEY, response.body())
-                } else {
-                    Log.e(TAG, "Weather API response not successful: " + response.code())
-                    loadWeatherFromCache()
+                val feeds = launch {
+                    supervisorScope {
+                        launch { refreshWeather(location) }
+                        launch { refreshNews() }
+                        if (includeCalendar) launch { refreshCalendar() }
+                        launch { refreshFunFact() }
+                    }
+                }
+                val allArrived = withTimeoutOrNull(REFRESH_DEADLINE_MS) { feeds.join() } != null
+                summaryHeld = false
+                if (!allArrived) {
+                    // Show what we have; late feeds update the summary through the debounce.
+                    publishSummary(persist = false)
+                    feeds.join()
+                    summaryDebounceJob?.cancel()
+                }
+                publishSummary(persist = true)
+                RefreshStats.markCycleEnd()
+            } finally {
+                // A cycle cancelled by a newer one must not clear the newer one's state.
+                if (refreshJob === coroutineContext[Job]) {
+                    summaryHeld = false
+                    cycleActive = false
                 }
-            } catch (e: Exception) {
-                Log.e(TAG, "Weather failed", e)
-                loadWeatherFromCache()
             }
         }
     }
 
-    fun loadWeatherFromCache() {
-        val prefs = getApplication<Application>().getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE)
-        val cachedJson = prefs.getString(AppConstants.WEATHER_CACHE_KEY, null)
-        if (cachedJson != null) {
-            try {
-                val weather = gson.fromJson(cachedJson, WeatherResponse::class.java)
-                _latestWeather.postValue(weather)
-                _weatherError.postValue(false)
-            } catch (e: Exception) {
-                Log.e(TAG, "Failed to load weather from cache", e)
-                _weatherError.postValue(true)
+    /**
+     * Supplies the coordinates for the current cycle's weather. Outside a cycle, e.g. after the
+     * temperature unit changed, it fetches the weather on its own.
+     */
+    fun onLocationResolved(latitude: Double, longitude: Double, online: Boolean) {
+        val coordinates = Coordinates(latitude, longitude, online)
+        val pending = pendingLocation
+        if (pending != null && pending.complete(coordinates)) return
+        viewModelScope.launch { fetchWeather(coordinates) }
+    }
+
+    private suspend fun refreshWeather(location: CompletableDeferred<Coordinates>) {
+        val coordinates = withTimeoutOrNull(LOCATION_TIMEOUT_MS) { location.await() }
+        if (coordinates == null) {
+            Log.w(TAG, "No location for this refresh; using cached weather")
+            _weatherError.value = repository.getCachedWeather() == null
+            return
+        }
+        fetchWeather(coordinates)
+    }
+
+    private suspend fun fetchWeather(coordinates: Coordinates) {
+        if (!coordinates.online) {
+            _weatherError.value = repository.getCachedWeather() == null
+            return
+        }
+        val result = repository.getWeather(coordinates.latitude, coordinates.longitude)
+        _weatherError.value = result.value == null
+    }
+
+    private suspend fun refreshNews() {
+        _newsError.value = repository.getNews().value == null
+    }
+
+    /**
+     * Called when weather, news or calendar data changed. Inside a cycle, before its deadline,
+     * the cycle computes the summary itself; otherwise the change is debounced so a burst of
+     * arrivals costs a single computation.
+     */
+    private fun onSummaryInputChanged() {
+        if (summaryHeld) return
+        summaryDebounceJob?.cancel()
+        summaryDebounceJob = viewModelScope.launch {
+            delay(SUMMARY_DEBOUNCE_MS)
+            // Within a cycle the final computation persists; outside one each update does.
+            publishSummary(persist = !cycleActive)
+        }
+    }
+
+    private suspend fun publishSummary(persist: Boolean) {
+        // The repository publishes the result through its snapshot, collected above.
+        repository.updateSummary(
+            _calendarEvents.value,
+            _totalEventCount.value ?: 0,
+            _calendarQueryError.value ?: false,
+            persist
+        )
+    }
+
+    /**
+     * Rebuilds the weather card from the latest weather, e.g. after the temperature unit changed.
+     * A newer build replaces one still in flight, so states are published in order.
+     */
+    fun refreshWeatherCard() {
+        val weather = _latestWeather.value ?: return
+        val unit = currentTempUnit()
+        weatherCardJob?.cancel()
+        weatherCardJob = viewModelScope.launch {
+            _weatherCard.value = withContext(Dispatchers.Default) {
+                CardStateFactory.weather(getApplication(), weather, unit)
             }
-        } else {
-            _weatherError.postValue(true)
         }
     }
 
+    /**
+     * Re-renders everything that shows a temperature after the unit changed. Weather is stored in
+     * Celsius, so this converts locally and needs no request.
+     */
+    fun onTemperatureUnitChanged() {
+        refreshWeatherCard()
+        if (!cycleActive) viewModelScope.launch { publishSummary(persist = true) }
+    }
+
+    private fun buildNewsCard(digest: NewsDigest) {
+        newsCardJob?.cancel()
+        newsCardJob = viewModelScope.launch {
+            _newsCard.value = withContext(Dispatchers.Default) { CardStateFactory.news(digest) }
+        }
+    }
+
+    private fun currentTempUnit(): UnitConverter.TemperatureUnit {
+        val prefs = getApplication<Application>().getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE)
+        return UnitConverter.TemperatureUnit.fromPreference(prefs.getString(AppConstants.KEY_TEMP_UNIT, null))
+    }
+
     fun fetchNewsData() {
+        viewModelScope.launch { refreshNews() }
+    }
+
+    fun loadNewsFromCache() {
         viewModelScope.launch {
-            try {
-                val apiService = NewsRetrofitClient.getClient().create(NewsApiService::class.java)
-                val response = apiService.getNewsFeed()
-                if (response.isSuccessful && response.body() != null) {
-                    _newsError.postValue(false)
-                    _cachedNewsResponse.postValue(response.body())
-                    saveToCache(AppConstants.NEWS_CACHE_KEY, response.body())
-                } else {
-                    Log.e(TAG, "News API response not successful: " + response.code())
-                    loadNewsFromCache()
-                }
-            } catch (e: Exception) {
-                Log.e(TAG, "News API call failed.", e)
-                loadNewsFromCache()
-            }
+            _newsError.postValue(repository.getCachedNews() == null)
         }
     }
 
-    fun loadNewsFromCache() {
-        val prefs = getApplication<Application>().getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE)
-        val cachedJson = prefs.getString(AppConstants.NEWS_CACHE_KEY, null)
-        if (cachedJson != null) {
-            try {
-                val news = gson.fromJson(cachedJson, NewsResponse::class.java)
-                _cachedNewsResponse.postValue(news)
-                _newsError.postValue(false)
-            } catch (e: Exception) {
-                Log.e(TAG, "Failed to load news from cache", e)
-                _newsError.postValue(true)
-            }
-        } else {
-            _newsError.postValue(true)
+    /**
+     * Decodes a category the dashboard skipped when the feed was parsed, e.g. after a headline
+     * chip selects it. The news is republished once it is available.
+     */
+    fun loadNewsCategory(category: NewsResponse.Category) {
+        viewModelScope.launch {
+            repository.loadNewsCategory(category)
         }
     }
 
     fun fetchFunFact() {
-        viewModelScope.launch {
-            try {
-                val api = FunFactRetrofitClient.client.create(FunFactApiService::class.java)
-                val response = api.getRandomFact("en")
-                val fact = response.body()?.text
-                if (response.isSuccessful && fact != null) {
-                    //noinspection NullSafeMutableLiveData
-                    _funFactText.postValue(fact)
-                } else {
-                    loadFallbackFunFact()
-                }
-            } catch (e: Exception) {
+        viewModelScope.launch { refreshFunFact() }
+    }
+
+    private suspend fun refreshFunFact() {
+        try {
+            val api = FunFactRetrofitClient.getService(getApplication())
+            val response = api.getRandomFact("en")
+            val fact = response.body()?.text
+            if (response.isSuccessful && fact != null) {
+                //noinspection NullSafeMutableLiveData
+                _funFactText.postValue(fact)
+            } else {
                 loadFallbackFunFact()
             }
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            loadFallbackFunFact()
         }
     }
 
@@ -245,65 +380,33 @@ class MainViewModel(application: Application) : AndroidViewModel(application) {
     }
 
     fun loadCalendarData() {
-        viewModelScope.launch(Dispatchers.IO) {
-            _calendarQueryError.postValue(false)
-            val events = ArrayList<CalendarEvent>()
-            try {
-                val contentResolver = getApplication<Application>().contentResolver
-                val uri = CalendarContract.Events.CONTENT_URI
-                val now = System.currentTimeMillis()
-                val cal = Calendar.getInstance()
-                cal.timeInMillis = now
-                cal.add(Calendar.HOUR_OF_DAY, 24)
-                val end = cal.timeInMillis
-
-                val selection = CalendarContract.Events.DTSTART + " >= ? AND " + CalendarContract.Events.DTSTART + " <= ?"
-                val selectionArgs = arrayOf(now.toString(), end.toString())
-                val sort = CalendarContract.Events.DTSTART + " ASC"
-
-                contentResolver.query(uri, CALENDAR_PROJECTION, selection, selectionArgs, sort)?.use { cursor ->
-                    _totalEventCount.postValue(cursor.count)
-                    val idIdx = cursor.getColumnIndexOrThrow(CalendarContract.Events._ID)
-                    val titleIdx = cursor.getColumnIndexOrThrow(CalendarContract.Events.TITLE)
-                    val startIdx = cursor.getColumnIndexOrThrow(CalendarContract.Events.DTSTART)
-                    val endIdx = cursor.getColumnIndexOrThrow(CalendarContract.Events.DTEND)
-                    val locIdx = cursor.getColumnIndexOrThrow(CalendarContract.Events.EVENT_LOCATION)
-                    val ownerIdx = cursor.getColumnIndexOrThrow(CalendarContract.Events.CALENDAR_DISPLAY_NAME)
-
-                    while (cursor.moveToNext() && events.size < 3) {
-                        events.add(CalendarEvent(
-                            cursor.getLong(idIdx),
-                            cursor.getString(titleIdx),
-                            cursor.getLong(startIdx),
-                            cursor.getLong(endIdx),
-                            cursor.getString(locIdx),
-                            cursor.getString(ownerIdx)
-                        ))
-                    }
-                } ?: run {
-                    _totalEventCount.postValue(0)
-                }
-                _calendarEvents.postValue(events)
-            } catch (e: Exception) {
-                Log.e(TAG, "Cal error", e)
-                _calendarQueryError.postValue(true)
-                _calendarEvents.postValue(emptyList())
-            }
-        }
-    }
-
-    fun saveSummaryToCache(summary: String) {
-        getApplication<Application>().getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE)
-            .edit().putString(AppConstants.KEY_SUMMARY_CACHE, summary).apply()
+        viewModelScope.launch { refreshCalendar() }
     }
 
-    private fun saveToCache(key: String, data: Any?) {
-        getApplication<Application>().getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE)
-            .edit().putString(key, gson.toJson(data)).apply()
+    private suspend fun refreshCalendar() {
+        val result = calendarSource.load()
+        val card = withContext(Dispatchers.Default) { CardStateFactory.calendar(getApplication(), result.events) }
+        _totalEventCount.value = result.totalCount
+        _calendarQueryError.value = result.error
+        _calendarCard.value = card
+        _calendarEvents.value = result.events
+        if (!result.error) RefreshScheduler.noteUpcomingEvents(getApplication(), result.events)
+        onSummaryInputChanged()
+        // Reading succeeded, so the permission is there; from now on changes push reloads.
+        if (!result.error) calendarSource.startObserving { viewModelScope.launch { refreshCalendar() } }
     }
 
     override fun onCleared() {
         super.onCleared()
+        calendarSource.stopObserving()
         // Coroutines are cancelled by viewModelScope
     }
+
+    companion object {
+        // How long a refresh waits for every feed before showing a summary from what it has.
+        private const val REFRESH_DEADLINE_MS = 3_000L
+        private const val SUMMARY_DEBOUNCE_MS = 300L
+        // Weather falls back to the cache if the activity has not resolved a location by then.
+        private const val LOCATION_TIMEOUT_MS = 10_000L
+    }
 }
@@ -19,6 +19,7 @@ import androidx.core.content.ContextCompat
 import androidx.health.connect.client.HealthConnectClient
 import androidx.health.connect.client.permission.HealthPermission
 import androidx.health.connect.client.records.StepsRecord
+import com.example.theloop.health.HealthConnectHelper
 import com.example.theloop.utils.AppConstants
 import com.google.android.material.textfield.TextInputEditText
 
@@ -132,10 +133,7 @@ class OnboardingActivity : AppCompatActivity() {
 
         findViewById<Button>(R.id.btn_grant_health).setOnClickListener {
             if (HealthConnectClient.getSdkStatus(this) == HealthConnectClient.SDK_AVAILABLE) {
-                val permissions = setOf(
-                    HealthPermission.getReadPermission(StepsRecord::class)
-                )
-                healthPermissionLauncher.launch(permissions)
+                healthPermissionLauncher.launch(HealthConnectHelper.READ_PERMISSIONS)
             } else {
                 Toast.makeText(this, "Health Connect not available", Toast.LENGTH_SHORT).show()
                  try {
@@ -0,0 +1,172 @@
+package com.example.theloop
+
+import android.content.Context
+import android.util.Log
+import androidx.annotation.VisibleForTesting
+import androidx.work.Constraints
+import androidx.work.ExistingWorkPolicy
+import androidx.work.NetworkType
+import androidx.work.OneTimeWorkRequest
+import androidx.work.WorkManager
+import com.example.theloop.models.CalendarEvent
+import java.time.LocalTime
+import java.time.ZoneOffset
+import java.time.ZonedDateTime
+import java.util.concurrent.TimeUnit
+
+/**
+ * Schedules [WidgetUpdateWorker] as a chain of one-time requests instead of a fixed period. Each
+ * run picks the delay to the next one from cached state: sooner ahead of upcoming calendar events
+ * and after Open-Meteo publishes a new model run, further apart while refreshes keep finding the
+ * same forecast, and not at all overnight.
+ */
+object RefreshScheduler {
+
+    private const val TAG = "RefreshScheduler"
+
+    const val WORK_NAME = "widget_refresh"
+
+    // The fixed 30-minute periodic request older versions enqueued.
+    @VisibleForTesting
+    const val LEGACY_WORK_NAME = "widget_update"
+
+    private const val PREFS_NAME = "TheLoopRefresh"
+    private const val KEY_EVENT_STARTS = "event_starts"
+    private const val KEY_UNCHANGED_STREAK = "unchanged_streak"
+
+    private val BASE_DELAY_MS = TimeUnit.MINUTES.toMillis(30)
+    private val MIN_DELAY_MS = TimeUnit.MINUTES.toMillis(15)
+    private val MAX_DELAY_MS = TimeUnit.HOURS.toMillis(3)
+    private val NIGHT_MAX_DELAY_MS = TimeUnit.HOURS.toMillis(8)
+    // Each unchanged refresh doubles the daytime delay, up to this many times.
+    private const val MAX_BACKOFF_STEPS = 3
+
+    // Refresh this long before an event starts, so the widget is current when the user looks.
+    private val EVENT_LEAD_MS = TimeUnit.MINUTES.toMillis(45)
+
+    private val NIGHT_START = LocalTime.of(23, 0)
+    private val NIGHT_END = LocalTime.of(6, 0)
+
+    // Open-Meteo's global models run every six hours; a run is usually served about two hours later.
+    private val MODEL_RUN_HOURS_UTC = intArrayOf(0, 6, 12, 18)
+    private val MODEL_AVAILABILITY_LAG_MS = TimeUnit.HOURS.toMillis(2)
+
+    /**
+     * Makes sure a refresh is pending, leaving an existing one alone, and cancels the legacy
+     * periodic request.
+     */
+    @JvmStatic
+    fun ensureScheduled(context: Context) {
+        val workManager = WorkManager.getInstance(context)
+        workManager.cancelUniqueWork(LEGACY_WORK_NAME)
+        workManager.enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.KEEP, buildRequest(nextDelay(context)))
+    }
+
+    /**
+     * Called by [WidgetUpdateWorker] at the end of a run. The next request is appended to the
+     * running one, so it starts counting its delay once this run has finished.
+     *
+     * @param changed whether the run found new data, or null if it could not tell.
+     */
+    fun scheduleNext(context: Context, changed: Boolean?) {
+        val prefs = prefs(context)
+        if (changed != null) {
+            val streak = if (changed) 0 else prefs.getInt(KEY_UNCHANGED_STREAK, 0) + 1
+            prefs.edit().putInt(KEY_UNCHANGED_STREAK, streak).apply()
+        }
+        val delay = nextDelay(context)
+        Log.d(TAG, "Next widget refresh in ${TimeUnit.MILLISECONDS.toMinutes(delay)} min")
+        WorkManager.getInstance(context)
+            .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, buildRequest(delay))
+    }
+
+    /** Remembers when the next events start, for the worker to plan around without a calendar query. */
+    @JvmStatic
+    fun noteUpcomingEvents(context: Context, events: List<CalendarEvent>) {
+        val starts = events.joinToString(",") { it.startTime.toString() }
+        val prefs = prefs(context)
+        if (prefs.getString(KEY_EVENT_STARTS, "") != starts) {
+            prefs.edit().putString(KEY_EVENT_STARTS, starts).apply()
+        }
+    }
+
+    private fun nextDelay(context: Context): Long {
+        val prefs = prefs(context)
+        val eventStarts = prefs.getString(KEY_EVENT_STARTS, "")!!
+            .split(',')
+            .mapNotNull { it.toLongOrNull() }
+            .toLongArray()
+        return computeDelay(ZonedDateTime.now(), eventStarts, prefs.getInt(KEY_UNCHANGED_STREAK, 0))
+    }
+
+    /**
+     * Returns how long to wait before the next refresh.
+     *
+     * @param eventStarts start times of upcoming events, in epoch millis.
+     * @param unchangedStreak how many refreshes in a row found the same forecast.
+     */
+    @JvmStatic
+    @VisibleForTesting
+    fun computeDelay(now: ZonedDateTime, eventStarts: LongArray, unchangedStreak: Int): Long {
+        val nowMillis = now.toInstant().toEpochMilli()
+        val night = isNight(now.toLocalTime())
+
+        var delay: Long
+        val maxDelay: Long
+        if (night) {
+            // Sleep until morning; nothing on the widget matters before then.
+            delay = untilNightEnd(now) - nowMillis
+            maxDelay = NIGHT_MAX_DELAY_MS
+        } else {
+            delay = BASE_DELAY_MS shl unchangedStreak.coerceIn(0, MAX_BACKOFF_STEPS)
+            maxDelay = MAX_DELAY_MS
+            // A backed-off refresh still picks up a new model run soon after it is served.
+            val untilModel = nextModelAvailability(now) - nowMillis
+            if (untilModel < delay) delay = untilModel
+        }
+
+        for (start in eventStarts) {
+            val untilLead = start - EVENT_LEAD_MS - nowMillis
+            // An event whose lead time has passed was planned for by the previous run.
+            if (untilLead > 0 && untilLead < delay) delay = untilLead
+        }
+
+        return delay.coerceIn(MIN_DELAY_MS, maxDelay)
+    }
+
+    private fun isNight(time: LocalTime): Boolean = !time.isBefore(NIGHT_START) || time.isBefore(NIGHT_END)
+
+    private fun untilNightEnd(now: ZonedDateTime): Long {
+        var end = now.with(NIGHT_END)
+        if (!end.isAfter(now)) end = end.plusDays(1)
+        return end.toInstant().toEpochMilli()
+    }
+
+    private fun nextModelAvailability(now: ZonedDateTime): Long {
+        val nowMillis = now.toInstant().toEpochMilli()
+        val utcDay = now.withZoneSameInstant(ZoneOffset.UTC).toLocalDate()
+        // Runs from the previous UTC day can still become available today.
+        for (dayOffset in -1L..1L) {
+            val day = utcDay.plusDays(dayOffset)
+            for (hour in MODEL_RUN_HOURS_UTC) {
+                val available = day.atTime(hour, 0).toInstant(ZoneOffset.UTC).toEpochMilli() + MODEL_AVAILABILITY_LAG_MS
+                if (available > nowMillis) return available
+            }
+        }
+        return nowMillis + MAX_DELAY_MS
+    }
+
+    private fun buildRequest(delayMillis: Long): OneTimeWorkRequest {
+        val constraints = Constraints.Builder()
+            .setRequiredNetworkType(NetworkType.CONNECTED)
+            .setRequiresBatteryNotLow(true)
+            .build()
+        return OneTimeWorkRequest.Builder(WidgetUpdateWorker::class.java)
+            .setConstraints(constraints)
+            .setInitialDelay(delayMillis, TimeUnit.MILLISECONDS)
+            .build()
+    }
+
+    private fun prefs(context: Context) =
+        context.applicationContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+}
@@ -1,20 +1,45 @@
 package com.example.theloop
 
 import android.content.Context
+import android.content.Intent
 import android.content.SharedPreferences
 import android.os.Bundle
+import android.text.InputType
+import android.text.format.Formatter
 import android.view.MenuItem
 import android.view.View
+import android.widget.EditText
+import android.widget.LinearLayout
 import android.widget.RadioButton
 import android.widget.RadioGroup
 import android.widget.TextView
+import android.widget.Toast
+import androidx.appcompat.app.AlertDialog
 import androidx.appcompat.app.AppCompatActivity
 import androidx.appcompat.widget.Toolbar
+import com.example.theloop.data.DashboardRepository
+import com.example.theloop.data.SavedLocation
+import com.example.theloop.data.SavedLocations
+import com.example.theloop.diagnostics.DiagnosticsReport
+import com.example.theloop.diagnostics.RefreshStats
+import com.example.theloop.diagnostics.StartupMetrics
+import com.example.theloop.diagnostics.Telemetry
+import com.example.theloop.diagnostics.WorkStats
 import com.example.theloop.utils.AppConstants
+import com.example.theloop.utils.AppUtils
+import com.example.theloop.utils.UnitConverter
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.launch
 
 class SettingsActivity : AppCompatActivity() {
 
     private lateinit var radioGroup: RadioGroup
+    private lateinit var savedLocationsList: LinearLayout
+    private lateinit var diagnosticsText: TextView
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.Main)
 
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
@@ -29,6 +54,8 @@ class SettingsActivity : AppCompatActivity() {
         val versionText = findViewById<TextView>(R.id.version_text)
 
         setupTemperatureUnits()
+        setupSavedLocations()
+        setupDiagnostics()
 
         try {
             val pInfo = packageManager.getPackageInfo(packageName, 0)
@@ -64,6 +91,172 @@ class SettingsActivity : AppCompatActivity() {
         }
     }
 
+    private fun setupSavedLocations() {
+        savedLocationsList = findViewById(R.id.saved_locations_list)
+        findViewById<TextView>(R.id.save_current_location_button).setOnClickListener { promptSaveCurrentLocation() }
+        showSavedLocations()
+    }
+
+    private fun showSavedLocations() {
+        val locations = SavedLocations.load(this)
+        savedLocationsList.removeAllViews()
+        if (locations.isEmpty()) {
+            savedLocationsList.addView(TextView(this).apply {
+                text = getString(R.string.saved_locations_empty)
+                setPadding(0, 0, 0, resources.getDimensionPixelSize(R.dimen.saved_location_row_padding))
+            })
+            return
+        }
+
+        val rows = locations.map { location ->
+            TextView(this).apply {
+                text = location.name
+                val padding = resources.getDimensionPixelSize(R.dimen.saved_location_row_padding)
+                setPadding(0, padding, 0, padding)
+                setOnLongClickListener {
+                    confirmRemove(location)
+                    true
+                }
+            }.also { savedLocationsList.addView(it) }
+        }
+
+        // All saved places come back from one request; cached forecasts need none.
+        scope.launch {
+            val unit = UnitConverter.TemperatureUnit.fromPreference(
+                getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE).getString(AppConstants.KEY_TEMP_UNIT, null)
+            )
+            val forecasts = DashboardRepository.getInstance(this@SettingsActivity).getSavedLocationsWeather(locations)
+            forecasts.forEachIndexed { i, forecast ->
+                val current = forecast.weather?.current ?: return@forEachIndexed
+                rows[i].text = getString(
+                    R.string.saved_location_row,
+                    forecast.location.name,
+                    UnitConverter.formatTemperature(current.temperature, unit),
+                    getString(AppUtils.getWeatherDescription(current.weatherCode))
+                )
+            }
+        }
+    }
+
+    private fun setupDiagnostics() {
+        diagnosticsText = findViewById(R.id.diagnostics_text)
+        findViewById<TextView>(R.id.diagnostics_export_button).setOnClickListener { exportDiagnostics() }
+    }
+
+    override fun onResume() {
+        super.onResume()
+        // The counters keep moving while the app runs, so show them as of now.
+        diagnosticsText.text = describeDiagnostics()
+    }
+
+    private fun describeDiagnostics(): String {
+        val lines = mutableListOf<String>()
+        val firstContent = StartupMetrics.getTimeToFirstContentMillis()
+        lines += if (firstContent < 0) {
+            getString(R.string.diagnostics_startup_none)
+        } else {
+            getString(
+                R.string.diagnostics_startup,
+                firstContent,
+                getString(if (StartupMetrics.isFirstContentFromCache()) R.string.diagnostics_startup_cache else R.string.diagnostics_startup_network)
+            )
+        }
+        lines += getString(
+            R.string.diagnostics_refresh,
+            maxOf(RefreshStats.getLastCycleMillis(), 0L),
+            Telemetry.summaryMicros().getPercentile(50.0)
+        )
+        val work = WorkStats.today(this)
+        lines += getString(R.string.diagnostics_work, work.runs, work.skipped, work.notModified)
+
+        val feedNames = mapOf(
+            Telemetry.Feed.WEATHER to R.string.diagnostics_feed_weather,
+            Telemetry.Feed.NEWS to R.string.diagnostics_feed_news,
+            Telemetry.Feed.FUN_FACT to R.string.diagnostics_feed_fun_fact
+        )
+        for ((feed, name) in feedNames) {
+            val stats = Telemetry.feed(feed)
+            lines += ""
+            lines += getString(
+                R.string.diagnostics_feed_requests,
+                getString(name),
+                stats.latencyMillis.count,
+                stats.failures,
+                stats.httpCacheHits
+            )
+            lines += getString(
+                R.string.diagnostics_feed_timing,
+                stats.latencyMillis.getPercentile(50.0),
+                stats.latencyMillis.getPercentile(90.0),
+                stats.parseMicros.getPercentile(50.0),
+                Formatter.formatShortFileSize(this, stats.responseBytes.max)
+            )
+            lines += getString(
+                R.string.diagnostics_feed_cache,
+                stats.getCacheCount(Telemetry.CacheOutcome.HIT),
+                stats.getCacheCount(Telemetry.CacheOutcome.STALE),
+                stats.getCacheCount(Telemetry.CacheOutcome.MISS)
+            )
+        }
+        lines += ""
+        lines += getString(R.string.diagnostics_since_start)
+        return lines.joinToString("\n")
+    }
+
+    private fun exportDiagnostics() {
+        val send = Intent(Intent.ACTION_SEND).apply {
+            type = "application/json"
+            putExtra(Intent.EXTRA_SUBJECT, getString(R.string.diagnostics_export_subject))
+            putExtra(Intent.EXTRA_TEXT, DiagnosticsReport.toJson(this@SettingsActivity))
+        }
+        startActivity(Intent.createChooser(send, getString(R.string.diagnostics_export)))
+    }
+
+    private fun promptSaveCurrentLocation() {
+        val prefs = getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE)
+        val latitude = prefs.getString(AppConstants.KEY_LATITUDE, null)?.toDoubleOrNull()
+        val longitude = prefs.getString(AppConstants.KEY_LONGITUDE, null)?.toDoubleOrNull()
+        if (latitude == null || longitude == null) {
+            Toast.makeText(this, R.string.saved_location_no_fix, Toast.LENGTH_LONG).show()
+            return
+        }
+
+        val input = EditText(this).apply {
+            hint = getString(R.string.saved_location_name_hint)
+            inputType = InputType.TYPE_CLASS_TEXT or InputType.TYPE_TEXT_FLAG_CAP_WORDS
+        }
+        AlertDialog.Builder(this)
+            .setTitle(R.string.save_current_location)
+            .setView(input)
+            .setPositiveButton(android.R.string.ok) { _, _ ->
+                val name = input.text.toString().trim()
+                if (name.isEmpty()) return@setPositiveButton
+                if (SavedLocations.add(this, SavedLocation(name, latitude, longitude))) {
+                    showSavedLocations()
+                } else {
+                    Toast.makeText(this, getString(R.string.saved_locations_full, SavedLocations.MAX_LOCATIONS), Toast.LENGTH_LONG).show()
+                }
+            }
+            .setNegativeButton(android.R.string.cancel, null)
+            .show()
+    }
+
+    private fun confirmRemove(location: SavedLocation) {
+        AlertDialog.Builder(this)
+            .setMessage(getString(R.string.saved_location_remove, location.name))
+            .setPositiveButton(android.R.string.ok) { _, _ ->
+                SavedLocations.remove(this, location.name)
+                showSavedLocations()
+            }
+            .setNegativeButton(android.R.string.cancel, null)
+            .show()
+    }
+
+    override fun onDestroy() {
+        scope.cancel()
+        super.onDestroy()
+    }
+
     override fun onOptionsItemSelected(item: MenuItem): Boolean {
         if (item.itemId == android.R.id.home) {
             finish()
@@ -0,0 +1,15 @@
+package com.example.theloop
+
+import android.app.Application
+import android.os.Process
+import com.example.theloop.diagnostics.StartupMetrics
+
+class TheLoopApplication : Application() {
+
+    override fun onCreate() {
+        super.onCreate()
+        // The cached snapshot is preloaded by MainActivity, not here: the process also starts for
+        // widget broadcasts and workers, which read the widget snapshot and no feed JSON.
+        StartupMetrics.markProcessStart(Process.getStartUptimeMillis())
+    }
+}
@@ -4,24 +4,35 @@ import android.content.Context
 import android.util.Log
 import androidx.work.CoroutineWorker
 import androidx.work.WorkerParameters
-import com.example.theloop.models.Article
-import com.example.theloop.models.CalendarEvent
-import com.example.theloop.models.NewsResponse
-import com.example.theloop.network.RetrofitClient
-import com.example.theloop.network.WeatherApiService
+import com.example.theloop.data.DashboardRepository
+import com.example.theloop.data.DashboardRepository.FeedResult
+import com.example.theloop.diagnostics.Telemetry
+import com.example.theloop.diagnostics.WorkStats
 import com.example.theloop.utils.AppConstants
-import com.example.theloop.utils.SummaryUtils
-import com.google.gson.Gson
-import java.io.IOException
-import java.util.ArrayList
 
 class WidgetUpdateWorker(appContext: Context, workerParams: WorkerParameters) :
     CoroutineWorker(appContext, workerParams) {
 
     private val TAG = "WidgetUpdateWorker"
-    private val gson = Gson()
+
+    private enum class Outcome(val changed: Boolean?, val telemetry: Telemetry.WorkOutcome) {
+        CHANGED(true, Telemetry.WorkOutcome.CHANGED),
+        UNCHANGED(false, Telemetry.WorkOutcome.UNCHANGED),
+        FAILED(null, Telemetry.WorkOutcome.FAILED),
+        RETRY(null, Telemetry.WorkOutcome.RETRY)
+    }
 
     override suspend fun doWork(): Result {
+        val outcome = refreshWidget()
+        Telemetry.recordWork(outcome.telemetry)
+        // A retry reruns this request, which schedules the next one when it completes.
+        if (outcome == Outcome.RETRY) return Result.retry()
+        // Failed runs still report success: a failed request would fail the one chained after it.
+        RefreshScheduler.scheduleNext(applicationContext, outcome.changed)
+        return Result.success()
+    }
+
+    private suspend fun refreshWidget(): Outcome {
         Log.d(TAG, "Fetching weather for widget update...")
 
         val prefs = applicationContext.getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE)
@@ -31,7 +42,7 @@ class WidgetUpdateWorker(appContext: Context, workerParams: WorkerParameters) :
 
         if (latStr == null || lonStr == null) {
             Log.w(TAG, "No location available for widget update. Skipping weather fetch.")
-            return Result.success()
+            return Outcome.FAILED
         }
 
         val lat: Double
@@ -41,86 +52,42 @@ class WidgetUpdateWorker(appContext: Context, workerParams: WorkerParameters) :
             lon = lonStr.toDouble()
         } catch (e: NumberFormatException) {
             Log.w(TAG, "Could not parse lat/lon from SharedPreferences", e)
-            return Result.failure()
+            return Outcome.FAILED
         }
 
-        // Fetch Weather
-        try {
-            val unit = prefs.getString(AppConstants.KEY_TEMP_UNIT, null) ?: AppConstants.DEFAULT_TEMP_UNIT
-
-            val apiService = RetrofitClient.getClient().create(WeatherApiService::class.java)
-            val response = apiService.getWeather(
-                lat, lon,
-                "temperature_2m,weather_code",
-                "weather_code,temperature_2m_max,temperature_2m_min",
-                unit,
-                "auto"
+        val repository = DashboardRepository.getInstance(applicationContext)
+
+        // Don't settle for stale data here: the worker may not live long enough for a background refresh.
+        val weather = repository.getWeather(lat, lon, allowStale = false)
+
+        if (weather.source == FeedResult.Source.FALLBACK_CACHE || weather.source == FeedResult.Source.NONE) {
+            Log.w(TAG, "Widget weather fetch failed")
+            return if (weather.retryable) Outcome.RETRY else Outcome.FAILED
+        }
+
+        if (!weather.changed) {
+            // Same forecast as the widget already shows, so the summary would come out the same too.
+            Log.d(TAG, "Weather unchanged (${weather.source}); skipping summary and widget update")
+            WorkStats.recordRun(
+                applicationContext,
+                true,
+                weather.notModified || weather.source != FeedResult.Source.NETWORK
             )
+            return Outcome.UNCHANGED
+        }
 
-            if (response.isSuccessful && response.body() != null) {
-                // Save to cache
-                val json = gson.toJson(response.body())
-                prefs.edit().putString(AppConstants.WEATHER_CACHE_KEY, json).apply()
-
-                // Generate Summary
-                try {
-                    val newsJson = prefs.getString(AppConstants.NEWS_CACHE_KEY, null)
-                    var topHeadline: Article? = null
-                    if (newsJson != null) {
-                        try {
-                            val news = gson.fromJson(newsJson, NewsResponse::class.java)
-                            if (news != null && news.us != null && news.us.isNotEmpty()) {
-                                topHeadline = news.us[0]
-                            }
-                        } catch (e: Exception) {
-                            Log.e(TAG, "Failed to parse news cache", e)
-                        }
-                    }
-
-                    // Calendar logic skipped for background worker (using empty list)
-                    val events = ArrayList<CalendarEvent>()
-                    val totalEvents = 0
-                    val calendarError = false
-                    val userName = prefs.getString(AppConstants.KEY_USER_NAME, "User") ?: "User"
-
-                    val summary = SummaryUtils.generateSummary(
-                        applicationContext,
-                        response.body(),
-                        events,
-                        totalEvents,
-                        topHeadline,
-                        userName,
-                        calendarError
-                    )
-
-                    prefs.edit().putString(AppConstants.KEY_SUMMARY_CACHE, summary).apply()
-
-                } catch (e: Exception) {
-                    Log.e(TAG, "Failed to generate summary in worker", e)
-                }
-
-                // Trigger widget update explicitly
-                val intent = android.content.Intent(applicationContext, DayAheadWidget::class.java)
-                intent.setAction(android.appwidget.AppWidgetManager.ACTION_APPWIDGET_UPDATE)
-                val ids = android.appwidget.AppWidgetManager.getInstance(applicationContext)
-                    .getAppWidgetIds(android.content.ComponentName(applicationContext, DayAheadWidget::class.java))
-                intent.putExtra(android.appwidget.AppWidgetManager.EXTRA_APPWIDGET_IDS, ids)
-                applicationContext.sendBroadcast(intent)
-
-                return Result.success()
-            } else {
-                Log.w(TAG, "Widget weather fetch failed with code: " + response.code())
-                if (response.code() >= 500) {
-                    return Result.retry()
-                }
-                return Result.failure()
-            }
-        } catch (e: IOException) {
-            Log.e(TAG, "Widget update failed", e)
-            return Result.retry()
+        // The summary mentions the top headline, so load the cached news before building it.
+        repository.warmUp()
+
+        // Calendar logic skipped for background worker (using empty list).
+        // The repository pushes the new summary and weather to the widget if they changed.
+        try {
+            repository.updateSummary(emptyList(), 0, false)
         } catch (e: Exception) {
-             Log.e(TAG, "Widget update failed with unexpected exception", e)
-             return Result.failure()
+            Log.e(TAG, "Failed to generate summary in worker", e)
         }
+        WorkStats.recordRun(applicationContext, false, weather.notModified)
+
+        return Outcome.CHANGED
     }
 }
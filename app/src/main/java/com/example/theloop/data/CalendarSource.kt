@@ -0,0 +1,216 @@
+package com.example.theloop.data
+
+import android.content.ContentUris
+import android.content.Context
+import android.database.ContentObserver
+import android.net.Uri
+import android.os.Handler
+import android.os.Looper
+import android.provider.CalendarContract
+import android.util.Log
+import androidx.annotation.VisibleForTesting
+import com.example.theloop.models.CalendarEvent
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+import java.util.concurrent.TimeUnit
+
+/**
+ * Upcoming calendar events, read from [CalendarContract.Instances] so recurring events are
+ * expanded by the provider.
+ *
+ * One query fills an index covering [INDEX_SPAN_MILLIS]; requests within that span are answered
+ * by slicing the index, so time passing does not cost a query. The index keeps the first
+ * [MAX_INDEXED_EVENTS] events in full and only the start time of the rest, so counts stay exact on
+ * a crowded calendar. Once [startObserving] is called, a [ContentObserver] marks the index stale on
+ * any calendar change and reloads it after [RELOAD_DEBOUNCE_MS], so a sync touching many events
+ * triggers one query. The reload re-queries the whole span: the provider notifies on its
+ * authority without saying which events changed, so there is no delta to apply.
+ */
+class CalendarSource(context: Context, private val scope: CoroutineScope) {
+
+    class Result(val events: List<CalendarEvent>, val totalCount: Int, val error: Boolean)
+
+    private class Index(
+        val windowStart: Long,
+        val windowEnd: Long,
+        val events: List<CalendarEvent>,
+        // Start times of every event in the span, sorted; events holds only the first of them.
+        val starts: LongArray
+    ) {
+        /** True if the index spans [from, to] and holds the first [maxEvents] events starting in it. */
+        fun covers(from: Long, to: Long, maxEvents: Int): Boolean {
+            if (windowStart > from || windowEnd < to) return false
+            val first = starts.search(from, false)
+            return first + minOf(starts.search(to, true) - first, maxEvents) <= events.size
+        }
+
+        fun slice(from: Long, to: Long, maxEvents: Int): Result {
+            // Skip events that have started since the index was built.
+            val first = starts.search(from, false)
+            val count = starts.search(to, true) - first
+            val shown = minOf(count, maxEvents, events.size - first).coerceAtLeast(0)
+            return Result(events.subList(first, first + shown).toList(), count, false)
+        }
+    }
+
+    private val appContext = context.applicationContext
+    private val lock = Any()
+
+    @Volatile
+    private var index: Index? = null
+
+    // Bumped on every change so a query that raced with it does not install a stale index.
+    @Volatile
+    private var generation = 0
+    private var observing = false
+    private var reloadJob: Job? = null
+    private var onChanged: (() -> Unit)? = null
+
+    private val observer = object : ContentObserver(Handler(Looper.getMainLooper())) {
+        override fun onChange(selfChange: Boolean, uri: Uri?) {
+            generation++
+            index = null
+            reloadJob?.cancel()
+            reloadJob = scope.launch {
+                delay(RELOAD_DEBOUNCE_MS)
+                load()
+                onChanged?.invoke()
+            }
+        }
+    }
+
+    /**
+     * Returns up to [maxEvents] events starting within the next [WINDOW_MILLIS], and how many
+     * start in that window in total.
+     */
+    suspend fun load(maxEvents: Int = DEFAULT_MAX_EVENTS): Result = withContext(Dispatchers.IO) {
+        val now = System.currentTimeMillis()
+        val end = now + WINDOW_MILLIS
+        try {
+            val current = index?.takeIf { it.covers(now, end, maxEvents) }
+                ?: synchronized(lock) {
+                    index?.takeIf { it.covers(now, end, maxEvents) }
+                        ?: run {
+                            val queriedGeneration = generation
+                            query(now, now + INDEX_SPAN_MILLIS).also {
+                                if (generation == queriedGeneration) index = it
+                            }
+                        }
+                }
+            current.slice(now, end, maxEvents)
+        } catch (e: Exception) {
+            Log.e(TAG, "Calendar query failed", e)
+            Result(emptyList(), 0, true)
+        }
+    }
+
+    /**
+     * Starts reloading on calendar changes and calls [listener] on the main thread after each
+     * reload. Needs READ_CALENDAR, which registering an observer on the provider requires.
+     */
+    fun startObserving(listener: () -> Unit) {
+        onChanged = listener
+        if (observing) return
+        try {
+            appContext.contentResolver.registerContentObserver(CalendarContract.CONTENT_URI, true, observer)
+            observing = true
+        } catch (e: SecurityException) {
+            Log.w(TAG, "Cannot observe calendar changes", e)
+        }
+    }
+
+    fun stopObserving() {
+        if (observing) {
+            appContext.contentResolver.unregisterContentObserver(observer)
+            observing = false
+        }
+        reloadJob?.cancel()
+        onChanged = null
+        // Without the observer the index could go stale unnoticed.
+        generation++
+        index = null
+    }
+
+    private fun query(windowStart: Long, windowEnd: Long): Index {
+        val uri = CalendarContract.Instances.CONTENT_URI.buildUpon().also {
+            ContentUris.appendId(it, windowStart)
+            ContentUris.appendId(it, windowEnd)
+        }.build()
+        val events = ArrayList<CalendarEvent>()
+        var starts = LongArray(64)
+        var count = 0
+        appContext.contentResolver.query(
+            uri,
+            PROJECTION,
+            // The provider returns every instance overlapping the window; keep those that start in it.
+            CalendarContract.Instances.BEGIN + " >= ?",
+            arrayOf(windowStart.toString()),
+            CalendarContract.Instances.BEGIN + " ASC"
+        )?.use { cursor ->
+            while (cursor.moveToNext()) {
+                val begin = cursor.getLong(COLUMN_BEGIN)
+                if (count == starts.size) starts = starts.copyOf(count * 2)
+                starts[count++] = begin
+                // Past the cap only the start time is read, for the count.
+                if (events.size < MAX_INDEXED_EVENTS) {
+                    events.add(
+                        CalendarEvent(
+                            cursor.getLong(COLUMN_EVENT_ID),
+                            cursor.getString(COLUMN_TITLE),
+                            begin,
+                            cursor.getLong(COLUMN_END),
+                            cursor.getString(COLUMN_LOCATION),
+                            cursor.getString(COLUMN_CALENDAR_NAME)
+                        )
+                    )
+                }
+            }
+        }
+        return Index(windowStart, windowEnd, events, starts.copyOf(count))
+    }
+
+    companion object {
+        private const val TAG = "CalendarSource"
+
+        const val DEFAULT_MAX_EVENTS = 3
+
+        /** How far ahead the dashboard looks. */
+        val WINDOW_MILLIS = TimeUnit.HOURS.toMillis(24)
+
+        // The index covers a longer span than the window so it stays usable for a few hours.
+        private val INDEX_SPAN_MILLIS = TimeUnit.HOURS.toMillis(30)
+        @VisibleForTesting
+        internal const val MAX_INDEXED_EVENTS = 200
+        private const val RELOAD_DEBOUNCE_MS = 500L
+
+        private val PROJECTION = arrayOf(
+            CalendarContract.Instances.EVENT_ID,
+            CalendarContract.Instances.TITLE,
+            CalendarContract.Instances.BEGIN,
+            CalendarContract.Instances.END,
+            CalendarContract.Instances.EVENT_LOCATION,
+            CalendarContract.Instances.CALENDAR_DISPLAY_NAME
+        )
+        private const val COLUMN_EVENT_ID = 0
+        private const val COLUMN_TITLE = 1
+        private const val COLUMN_BEGIN = 2
+        private const val COLUMN_END = 3
+        private const val COLUMN_LOCATION = 4
+        private const val COLUMN_CALENDAR_NAME = 5
+
+        // Index of the first start at or after [time], or strictly after it.
+        private fun LongArray.search(time: Long, strictly: Boolean): Int {
+            var low = 0
+            var high = size
+            while (low < high) {
+                val mid = (low + high) ushr 1
+                if (this[mid] < time || (strictly && this[mid] == time)) low = mid + 1 else high = mid
+            }
+            return low
+        }
+    }
+}
@@ -0,0 +1,599 @@
+package com.example.theloop.data
+
+import android.content.Context
+import android.util.Log
+import androidx.annotation.VisibleForTesting
+import com.example.theloop.DayAheadWidget
+import com.example.theloop.R
+import com.example.theloop.diagnostics.Telemetry
+import com.example.theloop.models.CalendarEvent
+import com.example.theloop.models.NewsDecoder
+import com.example.theloop.models.NewsResponse
+import com.example.theloop.models.WeatherResponse
+import com.example.theloop.network.GsonProvider
+import com.example.theloop.network.NewsRetrofitClient
+import com.example.theloop.network.RetrofitClient
+import com.example.theloop.utils.AppConstants
+import com.example.theloop.utils.SourceMatcher
+import com.example.theloop.utils.SummaryUtils
+import com.example.theloop.utils.UnitConverter
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+import java.io.IOException
+import java.io.Reader
+import java.util.EnumSet
+import java.util.Locale
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Process-wide source of dashboard data, shared by the main screen, [com.example.theloop.WidgetUpdateWorker]
+ * and [com.example.theloop.DayAheadWidget].
+ *
+ * Concurrent requests for the same feed and key share a single network call. Each feed has a TTL
+ * within which cached data is returned as-is; older data is returned immediately while it is
+ * refreshed in the background, up to a maximum staleness (see [CachePolicy]). Everything the
+ * repository holds is published through [snapshot].
+ */
+class DashboardRepository private constructor(context: Context) {
+
+    /**
+     * @property changed false when the value is the same one the repository already held, either
+     * because it came from the cache or because a refetch returned the same visible data.
+     * @property notModified the network layer answered from the HTTP cache or with a 304.
+     */
+    data class FeedResult<T>(
+        val value: T?,
+        val source: Source,
+        val retryable: Boolean = false,
+        val changed: Boolean = source == FeedResult.Source.NETWORK,
+        val notModified: Boolean = false
+    ) {
+        enum class Source {
+            /** Fetched from the network by this call, or by the in-flight call it joined. */
+            NETWORK,
+            /** Cached and within the feed's TTL. */
+            CACHE,
+            /** Cached and past its TTL; a background refresh has been started. */
+            STALE_CACHE,
+            /** The fetch failed and the last cached value was returned instead. */
+            FALLBACK_CACHE,
+            /** The fetch failed and nothing is cached. */
+            NONE
+        }
+    }
+
+    /** A saved location's forecast, or null weather if it could not be fetched and none is cached. */
+    class LocationForecast(val location: SavedLocation, val weather: WeatherResponse?, val fetchedAt: Long)
+
+    private val appContext = context.applicationContext
+    private val prefs = appContext.getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE)
+    private val snapshotStore = SnapshotStore.getInstance(appContext)
+    private val gson = GsonProvider.get()
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+    private val inFlight = ConcurrentHashMap<String, Deferred<*>>()
+    private val weatherTiles = WeatherTileCache(snapshotStore, WeatherTileCache.FEED, gson, MAX_WEATHER_TILES)
+    // Kept apart so browsing recent places cannot evict the saved locations.
+    private val savedLocationTiles =
+        WeatherTileCache(snapshotStore, WeatherTileCache.SAVED_LOCATIONS_FEED, gson, SavedLocations.MAX_LOCATIONS)
+
+    private val _snapshot = MutableStateFlow(DashboardSnapshot())
+    val snapshot: StateFlow<DashboardSnapshot> = _snapshot.asStateFlow()
+
+    private val loadLock = Any()
+    private val widgetLock = Any()
+
+    @Volatile
+    private var weatherLoaded = false
+
+    @Volatile
+    private var newsLoaded = false
+
+    // WeatherTileCache tile the in-memory weather was fetched for.
+    @Volatile
+    private var weatherTile: String? = null
+
+    // WeatherFingerprint of the in-memory weather, to tell a refetch that changed nothing visible.
+    @Volatile
+    private var weatherFingerprint: Long? = null
+
+    // News categories decoded up front: US feeds the summary and the default chip, and World,
+    // Business and Sports feed the UK card. Chips add to this as the user selects them.
+    @Volatile
+    private var eagerNewsCategories: Set<NewsResponse.Category> = EnumSet.of(
+        NewsResponse.Category.US,
+        NewsResponse.Category.WORLD,
+        NewsResponse.Category.BUSINESS,
+        NewsResponse.Category.SPORTS
+    )
+
+    private val ukSourceMatcher by lazy {
+        SourceMatcher(appContext.resources.getStringArray(R.array.uk_news_sources).asList())
+    }
+
+    /**
+     * Returns the current snapshot, loading the cached weather and summary from disk first if
+     * this process has not read them yet. Used by callers that cannot suspend.
+     */
+    fun currentSnapshot(): DashboardSnapshot {
+        ensureWeatherLoaded()
+        return _snapshot.value
+    }
+
+    /** Loads everything cached on disk into [snapshot] without touching the network. */
+    suspend fun warmUp() = withContext(Dispatchers.IO) {
+        ensureWeatherLoaded()
+        ensureNewsLoaded()
+    }
+
+    /** Starts [warmUp] in the background and returns immediately, e.g. at process start. */
+    fun preload() {
+        scope.launch { warmUp() }
+    }
+
+    suspend fun getWeather(
+        latitude: Double,
+        longitude: Double,
+        allowStale: Boolean = true
+    ): FeedResult<WeatherResponse> {
+        val tile = WeatherTileCache.tileOf(latitude, longitude)
+        withContext(Dispatchers.IO) {
+            ensureWeatherLoaded()
+            if (weatherTile != tile) adoptTile(tile)
+        }
+        val current = _snapshot.value
+        val cached = current.weather
+        if (cached != null && weatherTile == tile) {
+            val now = System.currentTimeMillis()
+            if (CachePolicy.WEATHER.isFresh(current.weatherFetchedAt, now)) {
+                Telemetry.recordCache(Telemetry.Feed.WEATHER, Telemetry.CacheOutcome.HIT)
+                return FeedResult(cached, FeedResult.Source.CACHE)
+            }
+            if (allowStale && CachePolicy.WEATHER.isServable(current.weatherFetchedAt, now)) {
+                Telemetry.recordCache(Telemetry.Feed.WEATHER, Telemetry.CacheOutcome.STALE)
+                scope.launch { fetchWeather(latitude, longitude) }
+                return FeedResult(cached, FeedResult.Source.STALE_CACHE)
+            }
+        }
+        Telemetry.recordCache(Telemetry.Feed.WEATHER, Telemetry.CacheOutcome.MISS)
+        return fetchWeather(latitude, longitude)
+    }
+
+    /**
+     * Returns forecasts for [locations], in order. Fresh ones come from the tile cache; the rest
+     * are fetched with one batched request, whatever their number.
+     */
+    suspend fun getSavedLocationsWeather(locations: List<SavedLocation>): List<LocationForecast> =
+        withContext(Dispatchers.IO) {
+            val now = System.currentTimeMillis()
+            val tiles = locations.map { WeatherTileCache.tileOf(it.latitude, it.longitude) }
+            val cached = tiles.map { savedLocationTiles.get(it) }
+            val stale = locations.indices.filter { i ->
+                val entry = cached[i]
+                entry == null || !CachePolicy.WEATHER.isFresh(entry.fetchedAt, now)
+            }
+
+            val fetched = if (stale.isEmpty()) emptyMap() else fetchWeatherBatch(stale.map { locations[it] })
+            if (fetched.isNotEmpty()) {
+                savedLocationTiles.putAll(fetched.entries.associate { tiles[stale[it.key]] to it.value }, now)
+            }
+
+            locations.indices.map { i ->
+                val weather = fetched[stale.indexOf(i)]
+                if (weather != null) {
+                    LocationForecast(locations[i], weather, now)
+                } else {
+                    LocationForecast(locations[i], cached[i]?.weather, cached[i]?.fetchedAt ?: 0L)
+                }
+            }
+        }
+
+    /** Returns the weather for each of [locations] by index, or an empty map if the request failed. */
+    private suspend fun fetchWeatherBatch(locations: List<SavedLocation>): Map<Int, WeatherResponse> {
+        val service = RetrofitClient.getWeatherService(appContext)
+        return try {
+            if (locations.size == 1) {
+                val response = service.getWeather(
+                    locations[0].latitude, locations[0].longitude,
+                    WEATHER_CURRENT_FIELDS, WEATHER_DAILY_FIELDS, CANONICAL_TEMP_UNIT, "auto"
+                )
+                response.body()?.takeIf { response.isSuccessful }?.let { mapOf(0 to it) } ?: emptyMap()
+            } else {
+                val response = service.getWeatherBatch(
+                    locations.joinToString(",") { coordinate(it.latitude) },
+                    locations.joinToString(",") { coordinate(it.longitude) },
+                    WEATHER_CURRENT_FIELDS, WEATHER_DAILY_FIELDS, CANONICAL_TEMP_UNIT, "auto"
+                )
+                val body = response.body()
+                if (!response.isSuccessful || body == null || body.size != locations.size) {
+                    Log.e(TAG, "Batched weather response not usable: " + response.code())
+                    emptyMap()
+                } else {
+                    body.withIndex().associate { it.index to it.value }
+                }
+            }
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            Log.e(TAG, "Batched weather fetch failed", e)
+            emptyMap()
+        }
+    }
+
+    /** Returns the cached weather without going to the network. */
+    suspend fun getCachedWeather(): WeatherResponse? = withContext(Dispatchers.IO) {
+        ensureWeatherLoaded()
+        _snapshot.value.weather
+    }
+
+    suspend fun getNews(allowStale: Boolean = true): FeedResult<NewsResponse> {
+        withContext(Dispatchers.IO) { ensureNewsLoaded() }
+        val current = _snapshot.value
+        val cached = current.news
+        if (cached != null) {
+            val now = System.currentTimeMillis()
+            if (CachePolicy.NEWS.isFresh(current.newsFetchedAt, now)) {
+                Telemetry.recordCache(Telemetry.Feed.NEWS, Telemetry.CacheOutcome.HIT)
+                return FeedResult(cached, FeedResult.Source.CACHE)
+            }
+            if (allowStale && CachePolicy.NEWS.isServable(current.newsFetchedAt, now)) {
+                Telemetry.recordCache(Telemetry.Feed.NEWS, Telemetry.CacheOutcome.STALE)
+                scope.launch { fetchNews() }
+                return FeedResult(cached, FeedResult.Source.STALE_CACHE)
+            }
+        }
+        Telemetry.recordCache(Telemetry.Feed.NEWS, Telemetry.CacheOutcome.MISS)
+        return fetchNews()
+    }
+
+    /** Returns the cached news without going to the network. */
+    suspend fun getCachedNews(): NewsResponse? = withContext(Dispatchers.IO) {
+        ensureNewsLoaded()
+        _snapshot.value.news
+    }
+
+    /**
+     * Decodes a category that was skipped when the feed was parsed, e.g. after a headline chip
+     * selects it, and republishes the news with an updated digest.
+     */
+    suspend fun loadNewsCategory(category: NewsResponse.Category) {
+        val news = _snapshot.value.news ?: return
+        eagerNewsCategories = EnumSet.copyOf(eagerNewsCategories).apply { add(category) }
+        val loaded = withContext(Dispatchers.IO) {
+            try {
+                news.load(category)
+                true
+            } catch (e: Exception) {
+                Log.e(TAG, "Failed to decode news category $category", e)
+                false
+            }
+        }
+        // Republishing after a failure would rebind the card, which asks for the category again.
+        if (!loaded) return
+        val digest = withContext(Dispatchers.Default) { NewsDigest.build(news, ukSourceMatcher) }
+        // A fetch may have replaced the news in the meantime; its result stands.
+        _snapshot.update { if (it.news === news) it.copy(newsDigest = digest) else it }
+    }
+
+    /**
+     * Regenerates the day summary from the current weather and news and publishes it on the
+     * calling thread. With [persist] it is also saved for the widget and the next cold start, on
+     * the IO dispatcher; callers that update the summary several times in a row persist only the
+     * last one.
+     *
+     * @return the new summary, or null while there is no weather to summarise.
+     */
+    suspend fun updateSummary(
+        events: List<CalendarEvent>?,
+        totalEvents: Int,
+        calendarError: Boolean,
+        persist: Boolean = true
+    ): String? {
+        val current = _snapshot.value
+        val weather = current.weather ?: return null
+        val userName = prefs.getString(AppConstants.KEY_USER_NAME, "User") ?: "User"
+        val start = System.nanoTime()
+        val summary = SummaryUtils.generateSummary(
+            appContext,
+            weather,
+            events,
+            totalEvents,
+            current.news?.us?.firstOrNull(),
+            userName,
+            calendarError,
+            temperatureUnit()
+        )
+        Telemetry.recordSummary(System.nanoTime() - start)
+        _snapshot.update { it.copy(summary = summary) }
+        if (persist) {
+            // Preference writes and the widget's binder calls stay off the main thread.
+            withContext(Dispatchers.IO) {
+                prefs.edit().putString(AppConstants.KEY_SUMMARY_CACHE, summary).apply()
+                publishWidgetSnapshot()
+            }
+        }
+        return summary
+    }
+
+    private suspend fun fetchWeather(latitude: Double, longitude: Double): FeedResult<WeatherResponse> =
+        singleFlight("weather:$latitude,$longitude") {
+            try {
+                val response = RetrofitClient.getWeatherService(appContext)
+                    .getWeather(latitude, longitude, WEATHER_CURRENT_FIELDS, WEATHER_DAILY_FIELDS, CANONICAL_TEMP_UNIT, "auto")
+                val body = response.body()
+                if (response.isSuccessful && body != null) {
+                    val fetchedAt = System.currentTimeMillis()
+                    // OkHttp revalidates its cached copy with If-None-Match/If-Modified-Since; no
+                    // network response, or a 304, means the body came from that cache.
+                    val networkResponse = response.raw().networkResponse
+                    val notModified = networkResponse == null || networkResponse.code == HTTP_NOT_MODIFIED
+                    val fingerprint = WeatherFingerprint.of(body)
+                    val tile = WeatherTileCache.tileOf(latitude, longitude)
+                    val previous = _snapshot.value.weather
+                    if (previous != null && weatherTile == tile && fingerprint == weatherFingerprint) {
+                        // Nothing visible changed: keep the held object and only record the fetch time.
+                        snapshotStore.touch(SnapshotStore.FEED_WEATHER, fetchedAt)
+                        if (!weatherTiles.touch(tile, fetchedAt)) weatherTiles.put(tile, previous, fetchedAt)
+                        _snapshot.update { it.copy(weatherFetchedAt = fetchedAt) }
+                        FeedResult(previous, FeedResult.Source.NETWORK, changed = false, notModified = notModified)
+                    } else {
+                        snapshotStore.write(SnapshotStore.FEED_WEATHER, gson.toJson(body), fetchedAt)
+                        weatherTiles.put(tile, body, fetchedAt)
+                        weatherTile = tile
+                        weatherFingerprint = fingerprint
+                        _snapshot.update { it.copy(weather = body, weatherFetchedAt = fetchedAt) }
+                        publishWidgetSnapshot()
+                        FeedResult(body, FeedResult.Source.NETWORK, notModified = notModified)
+                    }
+                } else {
+                    Log.e(TAG, "Weather API response not successful: " + response.code())
+                    weatherFallback(retryable = response.code() >= 500)
+                }
+            } catch (e: CancellationException) {
+                throw e
+            } catch (e: IOException) {
+                Log.e(TAG, "Weather fetch failed", e)
+                weatherFallback(retryable = true)
+            } catch (e: Exception) {
+                Log.e(TAG, "Weather fetch failed with unexpected exception", e)
+                weatherFallback(retryable = false)
+            }
+        }
+
+    /**
+     * Makes a cached forecast for [tile] the current weather, if there is one recent enough to
+     * serve, so moving back to a recent or saved place needs no request.
+     */
+    private fun adoptTile(tile: String) {
+        val entry = listOfNotNull(weatherTiles.get(tile), savedLocationTiles.get(tile)).maxByOrNull { it.fetchedAt }
+            ?: return
+        if (!CachePolicy.WEATHER.isServable(entry.fetchedAt, System.currentTimeMillis())) return
+        synchronized(loadLock) {
+            snapshotStore.write(SnapshotStore.FEED_WEATHER, gson.toJson(entry.weather), entry.fetchedAt)
+            weatherTile = tile
+            weatherFingerprint = WeatherFingerprint.of(entry.weather)
+            _snapshot.update { it.copy(weather = entry.weather, weatherFetchedAt = entry.fetchedAt) }
+        }
+        publishWidgetSnapshot()
+    }
+
+    private fun weatherFallback(retryable: Boolean): FeedResult<WeatherResponse> {
+        val cached = _snapshot.value.weather
+        return if (cached != null) {
+            FeedResult(cached, FeedResult.Source.FALLBACK_CACHE, retryable)
+        } else {
+            FeedResult(null, FeedResult.Source.NONE, retryable)
+        }
+    }
+
+    private suspend fun fetchNews(): FeedResult<NewsResponse> = singleFlight("news") {
+        try {
+            val response = NewsRetrofitClient.getNewsService(appContext).getNewsFeed()
+            val body = response.body()
+            if (response.isSuccessful && body != null) {
+                val payload = body.use { it.bytes() }
+                val fetchedAt = System.currentTimeMillis()
+                // If the snapshot cannot be written, skipped categories are decoded from memory instead.
+                val stored = snapshotStore.write(SnapshotStore.FEED_NEWS, payload, fetchedAt)
+                val start = System.nanoTime()
+                val news = decodeNews(payload.inputStream().reader(), fetchedAt, if (stored) null else payload)
+                Telemetry.recordParse(Telemetry.Feed.NEWS, System.nanoTime() - start)
+                publishNews(news, fetchedAt)
+                FeedResult(news, FeedResult.Source.NETWORK)
+            } else {
+                Log.e(TAG, "News API response not successful: " + response.code())
+                newsFallback(retryable = response.code() >= 500)
+            }
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: IOException) {
+            Log.e(TAG, "News fetch failed", e)
+            newsFallback(retryable = true)
+        } catch (e: Exception) {
+            Log.e(TAG, "News fetch failed with unexpected exception", e)
+            newsFallback(retryable = false)
+        }
+    }
+
+    private fun newsFallback(retryable: Boolean): FeedResult<NewsResponse> {
+        val cached = _snapshot.value.news
+        return if (cached != null) {
+            FeedResult(cached, FeedResult.Source.FALLBACK_CACHE, retryable)
+        } else {
+            FeedResult(null, FeedResult.Source.NONE, retryable)
+        }
+    }
+
+    /**
+     * Publishes a response together with its [NewsDigest], built on a background dispatcher so
+     * binding the news cards never filters or merges lists.
+     */
+    private suspend fun publishNews(news: NewsResponse, fetchedAt: Long) {
+        val digest = withContext(Dispatchers.Default) { NewsDigest.build(news, ukSourceMatcher) }
+        _snapshot.update { it.copy(news = news, newsDigest = digest, newsFetchedAt = fetchedAt) }
+    }
+
+    /**
+     * Writes the values the home screen widget shows and pushes them to it if they changed. Only
+     * a text change is sent as a partial update.
+     */
+    private fun publishWidgetSnapshot() = synchronized(widgetLock) {
+        // Read under the lock, so whichever caller writes last writes the latest values.
+        val current = _snapshot.value
+        val weather = current.weather?.current
+        val widget = WidgetSnapshot(
+            current.summary,
+            weather?.let { "${UnitConverter.roundedFromCelsius(it.temperature, temperatureUnit())}°" },
+            weather?.weatherCode ?: WidgetSnapshot.NO_WEATHER
+        )
+        when (WidgetSnapshot.write(appContext, widget)) {
+            WidgetSnapshot.Change.NONE -> Unit
+            WidgetSnapshot.Change.TEXT -> DayAheadWidget.pushUpdate(appContext, widget, true)
+            WidgetSnapshot.Change.ALL -> DayAheadWidget.pushUpdate(appContext, widget, false)
+        }
+    }
+
+    private fun decodeNews(reader: Reader, fetchedAt: Long, payload: ByteArray? = null): NewsResponse {
+        // Skipped categories are decoded later from the same snapshot, as long as it has not been
+        // replaced, or from [payload] when there is no snapshot to read them from.
+        val source = if (payload != null) {
+            NewsResponse.Source { payload.inputStream().reader() }
+        } else {
+            NewsResponse.Source {
+                val snapshot = snapshotStore.read(SnapshotStore.FEED_NEWS)
+                if (snapshot == null || snapshot.fetchedAt != fetchedAt) {
+                    throw IOException("News snapshot changed")
+                }
+                snapshot.openReader()
+            }
+        }
+        return NewsDecoder.decode(reader, eagerNewsCategories, NewsDecoder.DEFAULT_MAX_ARTICLES, source)
+    }
+
+    private fun ensureWeatherLoaded() {
+        if (weatherLoaded) return
+        synchronized(loadLock) {
+            if (weatherLoaded) return
+            dropNonCanonicalWeather()
+            val snapshot = snapshotStore.read(SnapshotStore.FEED_WEATHER)
+            val weather = snapshot?.let {
+                try {
+                    it.openReader().use { reader -> gson.fromJson(reader, WeatherResponse::class.java) }
+                } catch (e: Exception) {
+                    Log.e(TAG, "Failed to load weather from cache", e)
+                    null
+                }
+            }
+            val summary = prefs.getString(AppConstants.KEY_SUMMARY_CACHE, null)
+            if (weather != null) {
+                if (_snapshot.value.weather == null) {
+                    weatherFingerprint = WeatherFingerprint.of(weather)
+                    // Open-Meteo snaps the response's coordinates to its grid, so prefer the last fix.
+                    val latitude = prefs.getString(AppConstants.KEY_LATITUDE, null)?.toDoubleOrNull() ?: weather.latitude
+                    val longitude = prefs.getString(AppConstants.KEY_LONGITUDE, null)?.toDoubleOrNull() ?: weather.longitude
+                    weatherTile = WeatherTileCache.tileOf(latitude, longitude)
+                }
+            }
+            _snapshot.update {
+                if (it.weather != null) it.copy(summary = it.summary ?: summary)
+                else it.copy(weather = weather, weatherFetchedAt = snapshot?.fetchedAt ?: 0L, summary = it.summary ?: summary)
+            }
+            weatherLoaded = true
+        }
+    }
+
+    private fun temperatureUnit() =
+        UnitConverter.TemperatureUnit.fromPreference(prefs.getString(AppConstants.KEY_TEMP_UNIT, null))
+
+    /**
+     * Older versions fetched weather in the selected unit. Anything cached while Fahrenheit was
+     * selected is deleted once, as it cannot be told apart from Celsius data.
+     */
+    private fun dropNonCanonicalWeather() {
+        if (prefs.getBoolean(AppConstants.KEY_WEATHER_CANONICAL, false)) return
+        if (prefs.getString(AppConstants.KEY_TEMP_UNIT, null) == UnitConverter.TemperatureUnit.FAHRENHEIT.preferenceValue) {
+            snapshotStore.delete(SnapshotStore.FEED_WEATHER)
+            snapshotStore.delete(WeatherTileCache.FEED)
+        }
+        prefs.edit().putBoolean(AppConstants.KEY_WEATHER_CANONICAL, true).apply()
+    }
+
+    private fun ensureNewsLoaded() {
+        if (newsLoaded) return
+        synchronized(loadLock) {
+            if (newsLoaded) return
+            if (_snapshot.value.news == null) {
+                val snapshot = snapshotStore.read(SnapshotStore.FEED_NEWS)
+                if (snapshot != null) {
+                    try {
+                        val news = snapshot.openReader().use { decodeNews(it, snapshot.fetchedAt) }
+                        val digest = NewsDigest.build(news, ukSourceMatcher)
+                        _snapshot.update {
+                            if (it.news != null) it
+                            else it.copy(news = news, newsDigest = digest, newsFetchedAt = snapshot.fetchedAt)
+                        }
+                    } catch (e: Exception) {
+                        Log.e(TAG, "Failed to load news from cache", e)
+                    }
+                }
+            }
+            newsLoaded = true
+        }
+    }
+
+    /** Runs [block] once per [key] at a time; callers arriving while it runs share its result. */
+    @Suppress("UNCHECKED_CAST")
+    private suspend fun <T> singleFlight(key: String, block: suspend () -> T): T {
+        val deferred = inFlight.computeIfAbsent(key) {
+            scope.async(start = CoroutineStart.LAZY) { block() }.also { job ->
+                job.invokeOnCompletion { inFlight.remove(key, job) }
+            }
+        } as Deferred<T>
+        return deferred.await()
+    }
+
+    companion object {
+        private const val TAG = "DashboardRepository"
+
+        const val WEATHER_CURRENT_FIELDS = "temperature_2m,weather_code"
+        const val WEATHER_DAILY_FIELDS = "weather_code,temperature_2m_max,temperature_2m_min"
+
+        // Weather is always fetched and stored in Celsius; see UnitConverter.
+        private const val CANONICAL_TEMP_UNIT = "celsius"
+
+        // Recent places whose forecasts are kept; a handful covers home, work and the commute.
+        private const val MAX_WEATHER_TILES = 8
+
+        private const val HTTP_NOT_MODIFIED = 304
+
+        // Plain decimal notation; Double.toString switches to e.g. 1.0E-4, which the API rejects.
+        private fun coordinate(value: Double): String = String.format(Locale.US, "%.4f", value)
+
+        @Volatile
+        private var instance: DashboardRepository? = null
+
+        @JvmStatic
+        fun getInstance(context: Context): DashboardRepository = instance ?: synchronized(this) {
+            instance ?: DashboardRepository(context.applicationContext).also { instance = it }
+        }
+
+        /** Drops the instance and cancels its background refreshes, so the next test starts cold. */
+        @VisibleForTesting
+        @JvmStatic
+        fun resetInstance() = synchronized(this) {
+            instance?.scope?.cancel()
+            instance = null
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.theloop.data
+
+import com.example.theloop.models.NewsResponse
+import com.example.theloop.models.WeatherResponse
+
+/**
+ * Everything [DashboardRepository] currently holds. Timestamps are epoch millis of the fetch the
+ * data came from, or 0 when unknown.
+ */
+data class DashboardSnapshot(
+    val weather: WeatherResponse? = null,
+    val weatherFetchedAt: Long = 0L,
+    val news: NewsResponse? = null,
+    val newsDigest: NewsDigest? = null,
+    val newsFetchedAt: Long = 0L,
+    val summary: String? = null
+)
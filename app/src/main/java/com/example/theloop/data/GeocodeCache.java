@@ -0,0 +1,123 @@
+package com.example.theloop.data;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reverse-geocoding results keyed by geohash cell: an in-memory LRU backed by a small file, so a
+ * location fix in a cell that has been named before never reaches the Geocoder.
+ */
+public final class GeocodeCache {
+
+    private static final String TAG = "GeocodeCache";
+    private static final String FILE_NAME = "geocode_cache.bin";
+    private static final int FORMAT_VERSION = 1;
+    private static final int DEFAULT_MAX_ENTRIES = 64;
+
+    /** Geohash precision of the cache key; cells of about 1.2 km by 0.6 km. */
+    public static final int CELL_PRECISION = 6;
+
+    private static GeocodeCache instance = null;
+
+    private final File file;
+    private final LinkedHashMap<String, String> names;
+    private boolean loaded = false;
+
+    public GeocodeCache(@NonNull File file, int maxEntries) {
+        this.file = file;
+        this.names = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public static synchronized GeocodeCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new GeocodeCache(new File(context.getApplicationContext().getFilesDir(), FILE_NAME), DEFAULT_MAX_ENTRIES);
+        }
+        return instance;
+    }
+
+    /** Returns the place name stored for {@code cell}, or null if the cell has not been named. */
+    @Nullable
+    @WorkerThread
+    public synchronized String get(@NonNull String cell) {
+        load();
+        return names.get(cell);
+    }
+
+    @WorkerThread
+    public synchronized void put(@NonNull String cell, @NonNull String name) {
+        load();
+        if (name.equals(names.put(cell, name))) {
+            return;
+        }
+        save();
+    }
+
+    private void load() {
+        if (loaded) return;
+        loaded = true;
+        if (!file.isFile()) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) return;
+            int count = in.readInt();
+            // Stored eldest first, so re-inserting restores the LRU order.
+            for (int i = 0; i < count; i++) {
+                names.put(in.readUTF(), in.readUTF());
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Discarding unreadable geocode cache", e);
+            names.clear();
+        }
+    }
+
+    private void save() {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            Log.e(TAG, "Cannot create directory " + parent);
+            return;
+        }
+
+        List<Map.Entry<String, String>> entries = new ArrayList<>(names.entrySet());
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, String> entry : entries) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to write geocode cache", e);
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            Log.e(TAG, "Failed to commit geocode cache");
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.theloop.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.theloop.network.GsonProvider;
+import com.example.theloop.utils.AppConstants;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** The user's saved locations, kept as a small JSON list in {@code TheLoopPrefs}. */
+public final class SavedLocations {
+
+    private static final String TAG = "SavedLocations";
+
+    /**
+     * Every saved location's forecast comes from one batched request and keeps a slot in the saved
+     * location tile cache, so the list stays short enough for both, and for the settings screen.
+     */
+    public static final int MAX_LOCATIONS = 5;
+
+    private static final Gson gson = GsonProvider.get();
+
+    private SavedLocations() {}
+
+    @NonNull
+    public static synchronized List<SavedLocation> load(@NonNull Context context) {
+        String json = prefs(context).getString(AppConstants.KEY_SAVED_LOCATIONS, null);
+        if (json == null) return new ArrayList<>();
+        try {
+            List<SavedLocation> locations = gson.fromJson(json, new TypeToken<List<SavedLocation>>() {}.getType());
+            return locations != null ? locations : new ArrayList<>();
+        } catch (JsonParseException e) {
+            Log.w(TAG, "Discarding unreadable saved locations", e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Adds a location, replacing one with the same name.
+     *
+     * @return false if the list is already full.
+     */
+    public static synchronized boolean add(@NonNull Context context, @NonNull SavedLocation location) {
+        List<SavedLocation> locations = load(context);
+        removeNamed(locations, location.name);
+        if (locations.size() >= MAX_LOCATIONS) return false;
+        locations.add(location);
+        store(context, locations);
+        return true;
+    }
+
+    public static synchronized void remove(@NonNull Context context, @NonNull String name) {
+        List<SavedLocation> locations = load(context);
+        if (removeNamed(locations, name)) store(context, locations);
+    }
+
+    private static boolean removeNamed(List<SavedLocation> locations, String name) {
+        for (int i = 0; i < locations.size(); i++) {
+            if (locations.get(i).name.equals(name)) {
+                locations.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void store(Context context, List<SavedLocation> locations) {
+        prefs(context).edit().putString(AppConstants.KEY_SAVED_LOCATIONS, gson.toJson(locations)).apply();
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
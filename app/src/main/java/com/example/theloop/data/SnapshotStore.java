@@ -0,0 +1,271 @@
+package com.example.theloop.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.example.theloop.utils.AppConstants;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk store for feed payloads, one file per feed.
+ *
+ * <p>Each file starts with a small header (magic, format version, fetch timestamp, CRC32 of the
+ * payload and its length) followed by the raw payload. Writes go to a temporary file that is
+ * synced and then renamed over the old one, so a reader never sees a half-written snapshot and
+ * writing one feed never touches another. Keeping the payloads out of {@code TheLoopPrefs} means
+ * reading a small setting no longer loads the news blob into memory.
+ */
+public final class SnapshotStore {
+
+    private static final String TAG = "SnapshotStore";
+
+    public static final String FEED_WEATHER = "weather";
+    public static final String FEED_NEWS = "news";
+
+    private static final String DIR_NAME = "snapshots";
+    private static final String FILE_SUFFIX = ".snap";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int MAGIC = 0x4C4F4F50; // "LOOP"
+    private static final int FORMAT_VERSION = 1;
+
+    private static SnapshotStore instance = null;
+
+    private final File dir;
+    // Settings that may still hold payloads from older versions; cleared once they are moved.
+    @Nullable
+    private SharedPreferences legacyPrefs;
+
+    public SnapshotStore(@NonNull File dir) {
+        this(dir, null);
+    }
+
+    @VisibleForTesting
+    SnapshotStore(@NonNull File dir, @Nullable SharedPreferences legacyPrefs) {
+        this.dir = dir;
+        this.legacyPrefs = legacyPrefs;
+    }
+
+    public static synchronized SnapshotStore getInstance(Context context) {
+        if (instance == null) {
+            Context appContext = context.getApplicationContext();
+            // Migration waits for the first store access, which the repository makes off the main thread.
+            instance = new SnapshotStore(new File(appContext.getFilesDir(), DIR_NAME),
+                    appContext.getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE));
+        }
+        return instance;
+    }
+
+    @VisibleForTesting
+    public static synchronized void resetInstance() {
+        instance = null;
+    }
+
+    public static final class Snapshot {
+        @NonNull
+        public final byte[] payload;
+        public final long fetchedAt;
+
+        Snapshot(@NonNull byte[] payload, long fetchedAt) {
+            this.payload = payload;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public String payloadAsString() {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+
+        public Reader openReader() {
+            return new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8);
+        }
+    }
+
+    public boolean write(@NonNull String feed, @NonNull String payload, long fetchedAt) {
+        return write(feed, payload.getBytes(StandardCharsets.UTF_8), fetchedAt);
+    }
+
+    public synchronized boolean write(@NonNull String feed, @NonNull byte[] payload, long fetchedAt) {
+        migrateIfNeeded();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            Log.e(TAG, "Cannot create snapshot directory " + dir);
+            return false;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        File temp = new File(dir, feed + TEMP_SUFFIX);
+        try (FileOutputStream fos = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(fetchedAt);
+            out.writeLong(crc.getValue());
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.flush();
+            fos.getFD().sync();
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to write snapshot " + feed, e);
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            return false;
+        }
+
+        if (!temp.renameTo(fileFor(feed))) {
+            Log.e(TAG, "Failed to commit snapshot " + feed);
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the stored snapshot, or null if there is none or it fails the version or checksum
+     * check.
+     */
+    @Nullable
+    public synchronized Snapshot read(@NonNull String feed) {
+        migrateIfNeeded();
+        File file = fileFor(feed);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                Log.w(TAG, "Ignoring snapshot with unknown format: " + feed);
+                return null;
+            }
+            long fetchedAt = in.readLong();
+            long checksum = in.readLong();
+            int length = in.readInt();
+            if (length < 0 || length > file.length()) {
+                Log.w(TAG, "Ignoring truncated snapshot: " + feed);
+                return null;
+            }
+
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if (crc.getValue() != checksum) {
+                Log.w(TAG, "Ignoring corrupt snapshot: " + feed);
+                return null;
+            }
+            return new Snapshot(payload, fetchedAt);
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to read snapshot " + feed, e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads only the header of a snapshot.
+     *
+     * @return the time the feed was fetched, or 0 if there is no usable snapshot.
+     */
+    public synchronized long getFetchedAt(@NonNull String feed) {
+        migrateIfNeeded();
+        File file = fileFor(feed);
+        if (!file.isFile()) {
+            return 0L;
+        }
+
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return 0L;
+            }
+            return in.readLong();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Updates the fetch time of an existing snapshot in place, for a refetch that returned the
+     * same data. The payload and its checksum are not rewritten.
+     *
+     * @return false if there is no usable snapshot to update.
+     */
+    public synchronized boolean touch(@NonNull String feed, long fetchedAt) {
+        migrateIfNeeded();
+        File file = fileFor(feed);
+        if (!file.isFile()) {
+            return false;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.readInt() != MAGIC || raf.readInt() != FORMAT_VERSION) {
+                return false;
+            }
+            // fetchedAt follows the magic and version ints.
+            raf.writeLong(fetchedAt);
+            return true;
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to touch snapshot " + feed, e);
+            return false;
+        }
+    }
+
+    public synchronized void delete(@NonNull String feed) {
+        migrateIfNeeded();
+        //noinspection ResultOfMethodCallIgnored
+        fileFor(feed).delete();
+    }
+
+    private File fileFor(String feed) {
+        return new File(dir, feed + FILE_SUFFIX);
+    }
+
+    /**
+     * Moves the JSON blobs older versions kept in {@code TheLoopPrefs} into snapshot files, once,
+     * on the first access to the store. The original fetch time is unknown, so migrated snapshots
+     * are stamped as already stale.
+     */
+    private void migrateIfNeeded() {
+        SharedPreferences prefs = legacyPrefs;
+        if (prefs == null) {
+            return;
+        }
+        // Cleared first: the reads and writes below come back through here.
+        legacyPrefs = null;
+
+        String weatherJson = prefs.getString(AppConstants.WEATHER_CACHE_KEY, null);
+        String newsJson = prefs.getString(AppConstants.NEWS_CACHE_KEY, null);
+        if (weatherJson == null && newsJson == null) {
+            return;
+        }
+
+        if (weatherJson != null && read(FEED_WEATHER) == null) {
+            write(FEED_WEATHER, weatherJson, 0L);
+        }
+        if (newsJson != null && read(FEED_NEWS) == null) {
+            write(FEED_NEWS, newsJson, 0L);
+        }
+        prefs.edit()
+                .remove(AppConstants.WEATHER_CACHE_KEY)
+                .remove(AppConstants.NEWS_CACHE_KEY)
+                .apply();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.theloop.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.example.theloop.models.WeatherResponse;
+import com.example.theloop.utils.Geohash;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recent forecasts keyed by location tile, so GPS jitter within a tile or a return to a recent
+ * place is answered without a request. Holds up to {@code maxEntries} tiles in LRU order and
+ * persists them as one {@link SnapshotStore} feed; freshness is up to the caller, using
+ * {@link Entry#fetchedAt}. Tiles that must not push each other out, such as the current location's
+ * and the saved locations', go in separate caches with their own feeds.
+ */
+final class WeatherTileCache {
+
+    private static final String TAG = "WeatherTileCache";
+
+    static final String FEED = "weather_tiles";
+    static final String SAVED_LOCATIONS_FEED = "weather_saved_tiles";
+
+    /** Geohash precision of a tile; cells of about 4.9 km by 4.9 km, close to Open-Meteo's grid. */
+    static final int TILE_PRECISION = 5;
+
+    static final class Entry {
+        final String tile;
+        final long fetchedAt;
+        final WeatherResponse weather;
+        // The weather as stored, so saving the file does not serialize unchanged tiles again.
+        transient String json;
+
+        Entry(String tile, long fetchedAt, WeatherResponse weather) {
+            this.tile = tile;
+            this.fetchedAt = fetchedAt;
+            this.weather = weather;
+        }
+    }
+
+    private final SnapshotStore store;
+    private final String feed;
+    private final Gson gson;
+    private final LinkedHashMap<String, Entry> entries;
+    private boolean loaded = false;
+
+    WeatherTileCache(@NonNull SnapshotStore store, @NonNull String feed, @NonNull Gson gson, int maxEntries) {
+        this.store = store;
+        this.feed = feed;
+        this.gson = gson;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    static String tileOf(double latitude, double longitude) {
+        return Geohash.encode(latitude, longitude, TILE_PRECISION);
+    }
+
+    @Nullable
+    @WorkerThread
+    synchronized Entry get(@NonNull String tile) {
+        load();
+        return entries.get(tile);
+    }
+
+    @WorkerThread
+    synchronized void put(@NonNull String tile, @NonNull WeatherResponse weather, long fetchedAt) {
+        load();
+        entries.put(tile, new Entry(tile, fetchedAt, weather));
+        save(fetchedAt);
+    }
+
+    /**
+     * Records that {@code tile} was refetched and came back unchanged. Only the in-memory time is
+     * updated; it reaches disk with the next {@link #put}, and until then a restart sees the older
+     * time, which at worst means an earlier refetch.
+     *
+     * @return false if the tile is not cached.
+     */
+    @WorkerThread
+    synchronized boolean touch(@NonNull String tile, long fetchedAt) {
+        load();
+        Entry entry = entries.get(tile);
+        if (entry == null) return false;
+        Entry touched = new Entry(tile, fetchedAt, entry.weather);
+        touched.json = entry.json;
+        entries.put(tile, touched);
+        return true;
+    }
+
+    /** Stores several tiles fetched together, writing the file once. */
+    @WorkerThread
+    synchronized void putAll(@NonNull Map<String, WeatherResponse> weatherByTile, long fetchedAt) {
+        load();
+        for (Map.Entry<String, WeatherResponse> entry : weatherByTile.entrySet()) {
+            entries.put(entry.getKey(), new Entry(entry.getKey(), fetchedAt, entry.getValue()));
+        }
+        save(fetchedAt);
+    }
+
+    private void save(long fetchedAt) {
+        // Eldest first, so loading re-inserts them in LRU order. Same layout as a serialized
+        // List<Entry>, put together from each entry's stored JSON.
+        StringBuilder json = new StringBuilder("[");
+        for (Entry entry : entries.values()) {
+            if (entry.json == null) entry.json = gson.toJson(entry.weather);
+            if (json.length() > 1) json.append(',');
+            json.append("{\"tile\":").append(gson.toJson(entry.tile))
+                    .append(",\"fetchedAt\":").append(entry.fetchedAt)
+                    .append(",\"weather\":").append(entry.json)
+                    .append('}');
+        }
+        store.write(feed, json.append(']').toString(), fetchedAt);
+    }
+
+    private void load() {
+        if (loaded) return;
+        loaded = true;
+        SnapshotStore.Snapshot snapshot = store.read(feed);
+        if (snapshot == null) return;
+
+        try (Reader reader = snapshot.openReader()) {
+            List<Entry> stored = gson.fromJson(reader, new TypeToken<List<Entry>>() {}.getType());
+            if (stored == null) return;
+            for (Entry entry : stored) {
+                if (entry != null && entry.tile != null && entry.weather != null) {
+                    entries.put(entry.tile, entry);
+                }
+            }
+        } catch (JsonParseException | IOException e) {
+            Log.w(TAG, "Discarding unreadable weather tiles", e);
+            entries.clear();
+        }
+    }
+}
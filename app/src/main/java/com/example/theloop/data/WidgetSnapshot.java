@@ -0,0 +1,93 @@
+package com.example.theloop.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.theloop.utils.AppConstants;
+
+import java.util.Objects;
+
+/**
+ * The few values DayAheadWidget shows, precomputed when the dashboard data changes and kept in
+ * a small preferences file of their own, so the widget never loads or parses the full feeds.
+ *
+ * The weather is stored as its code rather than a drawable ID, since resource IDs can change
+ * between builds.
+ */
+public final class WidgetSnapshot {
+
+    /** What a write changed compared to the stored snapshot. */
+    public enum Change {
+        NONE,
+        /** Only the summary or temperature text. */
+        TEXT,
+        /** The weather icon, or the first snapshot ever written. */
+        ALL
+    }
+
+    public static final int NO_WEATHER = -1;
+
+    private static final String PREFS_NAME = "TheLoopWidget";
+    private static final String KEY_SUMMARY = "summary";
+    private static final String KEY_TEMPERATURE = "temperature";
+    private static final String KEY_WEATHER_CODE = "weather_code";
+
+    /** Null until a summary has been generated. */
+    @Nullable
+    public final String summary;
+    /** Formatted current temperature, or null without weather. */
+    @Nullable
+    public final String temperature;
+    /** Open-Meteo weather code, or {@link #NO_WEATHER}. */
+    public final int weatherCode;
+
+    public WidgetSnapshot(@Nullable String summary, @Nullable String temperature, int weatherCode) {
+        this.summary = summary;
+        this.temperature = temperature;
+        this.weatherCode = weatherCode;
+    }
+
+    @NonNull
+    public static WidgetSnapshot read(@NonNull Context context) {
+        SharedPreferences prefs = prefs(context);
+        if (!prefs.contains(KEY_WEATHER_CODE)) {
+            // Nothing written since an upgrade; the cached summary is still a plain string.
+            String summary = context.getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE)
+                    .getString(AppConstants.KEY_SUMMARY_CACHE, null);
+            return new WidgetSnapshot(summary, null, NO_WEATHER);
+        }
+        return new WidgetSnapshot(
+                prefs.getString(KEY_SUMMARY, null),
+                prefs.getString(KEY_TEMPERATURE, null),
+                prefs.getInt(KEY_WEATHER_CODE, NO_WEATHER));
+    }
+
+    /** Stores {@code snapshot} unless it equals the stored one, and reports what changed. */
+    @NonNull
+    public static synchronized Change write(@NonNull Context context, @NonNull WidgetSnapshot snapshot) {
+        SharedPreferences prefs = prefs(context);
+        boolean exists = prefs.contains(KEY_WEATHER_CODE);
+        WidgetSnapshot stored = read(context);
+        Change change;
+        if (!exists || stored.weatherCode != snapshot.weatherCode) {
+            change = Change.ALL;
+        } else if (!Objects.equals(stored.summary, snapshot.summary) || !Objects.equals(stored.temperature, snapshot.temperature)) {
+            change = Change.TEXT;
+        } else {
+            return Change.NONE;
+        }
+        prefs.edit()
+                .putString(KEY_SUMMARY, snapshot.summary)
+                .putString(KEY_TEMPERATURE, snapshot.temperature)
+                .putInt(KEY_WEATHER_CODE, snapshot.weatherCode)
+                .apply();
+        return change;
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.theloop.diagnostics;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Everything the app knows about its own performance as one JSON document, for sharing from the
+ * settings screen: the device, startup, the last refresh, today's background runs and the
+ * {@link Telemetry} counters.
+ */
+public final class DiagnosticsReport {
+
+    private DiagnosticsReport() {}
+
+    @NonNull
+    public static String toJson(@NonNull Context context) {
+        StringWriter out = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(out)) {
+            writer.setIndent("  ");
+            writer.beginObject();
+            writer.name("generated_at").value(System.currentTimeMillis());
+
+            writer.name("device").beginObject();
+            writer.name("manufacturer").value(Build.MANUFACTURER);
+            writer.name("model").value(Build.MODEL);
+            writer.name("sdk").value(Build.VERSION.SDK_INT);
+            writer.name("app_version").value(appVersion(context));
+            writer.endObject();
+
+            writer.name("startup").beginObject();
+            writer.name("time_to_first_content_ms").value(StartupMetrics.getTimeToFirstContentMillis());
+            writer.name("from_cache").value(StartupMetrics.isFirstContentFromCache());
+            writer.endObject();
+
+            writer.name("last_refresh_cycle_ms").value(RefreshStats.getLastCycleMillis());
+
+            WorkStats.Counts today = WorkStats.today(context);
+            writer.name("work_today").beginObject();
+            writer.name("runs").value(today.runs);
+            writer.name("skipped").value(today.skipped);
+            writer.name("not_modified").value(today.notModified);
+            writer.endObject();
+
+            Telemetry.writeFields(writer);
+            writer.endObject();
+        } catch (IOException e) {
+            // A StringWriter does not throw.
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+
+    private static String appVersion(Context context) {
+        try {
+            return context.getPackageManager().getPackageInfo(context.getPackageName(), 0).versionName;
+        } catch (PackageManager.NameNotFoundException e) {
+            return null;
+        }
+    }
+}
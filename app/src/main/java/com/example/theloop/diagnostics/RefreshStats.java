@@ -0,0 +1,51 @@
+package com.example.theloop.diagnostics;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.VisibleForTesting;
+
+/**
+ * Times dashboard refresh cycles, from the start of the fetches to the persisted summary. Each
+ * completed cycle is also added to {@link Telemetry}.
+ */
+public final class RefreshStats {
+
+    private static final String TAG = "RefreshStats";
+
+    private static long cycleStart = -1;
+    private static long lastCycleMillis = -1;
+    private static int completedCycles;
+
+    private RefreshStats() {}
+
+    public static synchronized void markCycleStart() {
+        cycleStart = SystemClock.elapsedRealtime();
+    }
+
+    /** Ends the cycle started by the last {@link #markCycleStart()}; ignored without one. */
+    public static synchronized void markCycleEnd() {
+        if (cycleStart < 0) return;
+        lastCycleMillis = SystemClock.elapsedRealtime() - cycleStart;
+        cycleStart = -1;
+        completedCycles++;
+        Telemetry.recordRefreshCycle(lastCycleMillis);
+        Log.d(TAG, "Refresh cycle took " + lastCycleMillis + " ms");
+    }
+
+    /** Returns how long the last complete cycle took in millis, or -1 if none has completed. */
+    public static synchronized long getLastCycleMillis() {
+        return lastCycleMillis;
+    }
+
+    public static synchronized int getCompletedCycles() {
+        return completedCycles;
+    }
+
+    @VisibleForTesting
+    public static synchronized void reset() {
+        cycleStart = -1;
+        lastCycleMillis = -1;
+        completedCycles = 0;
+    }
+}
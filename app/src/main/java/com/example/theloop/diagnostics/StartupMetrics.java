@@ -0,0 +1,63 @@
+package com.example.theloop.diagnostics;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.VisibleForTesting;
+
+/**
+ * Records how long the app takes from process start until the dashboard first shows meaningful
+ * content (the day summary or the weather), and whether that content came from the on-disk cache
+ * or had to wait for the network.
+ */
+public final class StartupMetrics {
+
+    private static final String TAG = "StartupMetrics";
+
+    private static long processStartUptime = -1;
+    private static long timeToFirstContent = -1;
+    private static boolean firstContentFromCache;
+
+    private StartupMetrics() {}
+
+    /** Called once from Application.onCreate with the process start in uptime millis. */
+    public static synchronized void markProcessStart(long uptimeMillis) {
+        if (processStartUptime < 0) processStartUptime = uptimeMillis;
+    }
+
+    /**
+     * Records the first time the dashboard renders meaningful content. Later calls are ignored.
+     *
+     * @return true if this call recorded the metric.
+     */
+    public static synchronized boolean markFirstContent(boolean fromCache) {
+        if (timeToFirstContent >= 0) return false;
+        long now = SystemClock.uptimeMillis();
+        // Without Application.onCreate (e.g. some tests) measure from the first content itself.
+        long start = processStartUptime >= 0 ? processStartUptime : now;
+        timeToFirstContent = Math.max(0, now - start);
+        firstContentFromCache = fromCache;
+        Log.i(TAG, "Time to first content: " + timeToFirstContent + " ms (" + (fromCache ? "cache" : "network") + ")");
+        return true;
+    }
+
+    public static synchronized boolean hasFirstContent() {
+        return timeToFirstContent >= 0;
+    }
+
+    /** Returns the time to first meaningful content in millis, or -1 if it has not been shown yet. */
+    public static synchronized long getTimeToFirstContentMillis() {
+        return timeToFirstContent;
+    }
+
+    public static synchronized boolean isFirstContentFromCache() {
+        return firstContentFromCache;
+    }
+
+    @VisibleForTesting
+    public static synchronized void reset() {
+        processStartUptime = -1;
+        timeToFirstContent = -1;
+        firstContentFromCache = false;
+    }
+}
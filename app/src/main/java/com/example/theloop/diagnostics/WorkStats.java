@@ -0,0 +1,67 @@
+package com.example.theloop.diagnostics;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+
+import java.time.LocalDate;
+
+/**
+ * Daily counters for background widget refreshes: how many ran, how many were skipped because
+ * the forecast had not changed, and how many of those the server answered with 304 Not Modified
+ * or the HTTP cache answered outright. Counters reset at the start of each local day.
+ */
+public final class WorkStats {
+
+    private static final String PREFS_NAME = "TheLoopWorkStats";
+    private static final String KEY_DAY = "day";
+    private static final String KEY_RUNS = "runs";
+    private static final String KEY_SKIPPED = "skipped";
+    private static final String KEY_NOT_MODIFIED = "not_modified";
+
+    public static final class Counts {
+        public final int runs;
+        public final int skipped;
+        public final int notModified;
+
+        Counts(int runs, int skipped, int notModified) {
+            this.runs = runs;
+            this.skipped = skipped;
+            this.notModified = notModified;
+        }
+    }
+
+    private WorkStats() {}
+
+    /**
+     * @param skipped     the run found nothing new and did no summary, persistence or widget work.
+     * @param notModified the weather came back as a 304 or from the HTTP cache.
+     */
+    public static synchronized void recordRun(@NonNull Context context, boolean skipped, boolean notModified) {
+        SharedPreferences prefs = prefs(context);
+        Counts counts = today(prefs);
+        prefs.edit()
+                .putLong(KEY_DAY, LocalDate.now().toEpochDay())
+                .putInt(KEY_RUNS, counts.runs + 1)
+                .putInt(KEY_SKIPPED, counts.skipped + (skipped ? 1 : 0))
+                .putInt(KEY_NOT_MODIFIED, counts.notModified + (notModified ? 1 : 0))
+                .apply();
+    }
+
+    @NonNull
+    public static synchronized Counts today(@NonNull Context context) {
+        return today(prefs(context));
+    }
+
+    private static Counts today(SharedPreferences prefs) {
+        if (prefs.getLong(KEY_DAY, Long.MIN_VALUE) != LocalDate.now().toEpochDay()) {
+            return new Counts(0, 0, 0);
+        }
+        return new Counts(prefs.getInt(KEY_RUNS, 0), prefs.getInt(KEY_SKIPPED, 0), prefs.getInt(KEY_NOT_MODIFIED, 0));
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -2,16 +2,31 @@ package com.example.theloop.health
 
 import android.content.Context
 import androidx.health.connect.client.HealthConnectClient
+import androidx.health.connect.client.aggregate.AggregateMetric
+import androidx.health.connect.client.aggregate.AggregationResult
+import androidx.health.connect.client.permission.HealthPermission
+import androidx.health.connect.client.records.ActiveCaloriesBurnedRecord
+import androidx.health.connect.client.records.DistanceRecord
+import androidx.health.connect.client.records.HeartRateRecord
+import androidx.health.connect.client.records.SleepSessionRecord
 import androidx.health.connect.client.records.StepsRecord
-import androidx.health.connect.client.request.AggregateRequest
+import androidx.health.connect.client.request.AggregateGroupByDurationRequest
+import androidx.health.connect.client.request.AggregateGroupByPeriodRequest
 import androidx.health.connect.client.time.TimeRangeFilter
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.SupervisorJob
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
+import java.time.Duration
+import java.time.Instant
+import java.time.LocalDate
 import java.time.LocalDateTime
+import java.time.Period
+import java.time.ZoneId
 import java.time.temporal.ChronoUnit
+import java.util.concurrent.TimeUnit
 
 class HealthConnectHelper(private val context: Context) {
 
@@ -23,24 +38,55 @@ class HealthConnectHelper(private val context: Context) {
         fun onError(e: Exception)
     }
 
+    interface TrendsCallback {
+        fun onTrendsFetched(daily: HealthSeries)
+        fun onError(e: Exception)
+    }
+
+    /**
+     * Reports today's steps from the local rollup kept by [StepsSyncEngine]: first the stored
+     * count, if there is one, then again after syncing if the sync changed anything.
+     */
     fun fetchStepsToday(callback: StepsCallback) {
-        val client = HealthConnectClient.getOrCreate(context)
+        val engine = StepsSyncEngine.getInstance(context)
         scope.launch {
             try {
-                val end = LocalDateTime.now()
-                val start = end.truncatedTo(ChronoUnit.DAYS)
+                val cached = engine.stepsToday()
+                if (cached >= 0) {
+                    withContext(Dispatchers.Main) {
+                        callback.onStepsFetched(cached)
+                    }
+                }
 
-                val response = client.aggregate(
-                    AggregateRequest(
-                        metrics = setOf(StepsRecord.COUNT_TOTAL),
-                        timeRangeFilter = TimeRangeFilter.between(start, end)
-                    )
-                )
+                if (engine.sync() || cached < 0) {
+                    val steps = engine.stepsToday()
+                    withContext(Dispatchers.Main) {
+                        callback.onStepsFetched(steps)
+                    }
+                }
+            } catch (e: CancellationException) {
+                throw e
+            } catch (e: Exception) {
+                withContext(Dispatchers.Main) {
+                    callback.onError(e)
+                }
+            }
+        }
+    }
 
-                val steps = response[StepsRecord.COUNT_TOTAL] ?: 0L
+    /**
+     * Reports the last [TREND_DAYS] days as a daily [HealthSeries], served from a cache that
+     * expires after [DAILY_TTL_MS] or when the date changes.
+     */
+    fun fetchDailyTrends(callback: TrendsCallback) {
+        scope.launch {
+            try {
+                val series = dailySeries()
                 withContext(Dispatchers.Main) {
-                    callback.onStepsFetched(steps)
+                    callback.onTrendsFetched(series)
                 }
+            } catch (e: CancellationException) {
+                throw e
             } catch (e: Exception) {
                 withContext(Dispatchers.Main) {
                     callback.onError(e)
@@ -49,7 +95,117 @@ class HealthConnectHelper(private val context: Context) {
         }
     }
 
+    /**
+     * Today's metrics in hourly buckets, from one grouped request for every granted metric. Steps
+     * alone are also kept hour by hour by [StepsSyncEngine]; this covers distance, calories, heart
+     * rate and sleep as well.
+     */
+    suspend fun hourlySeriesToday(): HealthSeries {
+        val now = System.currentTimeMillis()
+        val midnight = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant()
+        cached(todayCache, now, midnight.toEpochMilli(), TODAY_TTL_MS)?.let { return it }
+
+        val end = Instant.ofEpochMilli(now)
+        val hours = Duration.between(midnight, end).toHours().toInt() + 1
+        val series = HealthSeries(LongArray(hours) { midnight.toEpochMilli() + it * HOUR_MILLIS }, now)
+        val groups = client().aggregateGroupByDuration(
+            AggregateGroupByDurationRequest(
+                metrics = grantedMetrics(),
+                timeRangeFilter = TimeRangeFilter.between(midnight, end),
+                timeRangeSlicer = Duration.ofHours(1)
+            )
+        )
+        for (group in groups) {
+            val index = ((group.startTime.toEpochMilli() - midnight.toEpochMilli()) / HOUR_MILLIS).toInt()
+            if (index in 0 until hours) series.fill(index, group.result)
+        }
+        todayCache = series
+        return series
+    }
+
+    /** The last [TREND_DAYS] days, today included, in daily buckets from one grouped request. */
+    suspend fun dailySeries(): HealthSeries {
+        val now = System.currentTimeMillis()
+        val zone = ZoneId.systemDefault()
+        val today = LocalDate.now()
+        val first = today.minusDays(TREND_DAYS - 1L)
+        val firstMillis = first.atStartOfDay(zone).toInstant().toEpochMilli()
+        cached(dailyCache, now, firstMillis, DAILY_TTL_MS)?.let { return it }
+
+        val series = HealthSeries(
+            LongArray(TREND_DAYS) { first.plusDays(it.toLong()).atStartOfDay(zone).toInstant().toEpochMilli() },
+            now
+        )
+        val groups = client().aggregateGroupByPeriod(
+            AggregateGroupByPeriodRequest(
+                metrics = grantedMetrics(),
+                timeRangeFilter = TimeRangeFilter.between(first.atStartOfDay(), LocalDateTime.now()),
+                timeRangeSlicer = Period.ofDays(1)
+            )
+        )
+        for (group in groups) {
+            val index = ChronoUnit.DAYS.between(first, group.startTime.toLocalDate()).toInt()
+            if (index in 0 until TREND_DAYS) series.fill(index, group.result)
+        }
+        dailyCache = series
+        return series
+    }
+
+    private fun client() = HealthConnectClient.getOrCreate(context)
+
+    /** Steps plus whichever other metrics the user has granted; one denied metric would fail the whole request. */
+    private suspend fun grantedMetrics(): Set<AggregateMetric<*>> {
+        val granted = client().permissionController.getGrantedPermissions()
+        val metrics = HashSet<AggregateMetric<*>>()
+        metrics.add(StepsRecord.COUNT_TOTAL)
+        if (HealthPermission.getReadPermission(DistanceRecord::class) in granted) metrics.add(DistanceRecord.DISTANCE_TOTAL)
+        if (HealthPermission.getReadPermission(ActiveCaloriesBurnedRecord::class) in granted) {
+            metrics.add(ActiveCaloriesBurnedRecord.ACTIVE_CALORIES_TOTAL)
+        }
+        if (HealthPermission.getReadPermission(HeartRateRecord::class) in granted) metrics.add(HeartRateRecord.BPM_AVG)
+        if (HealthPermission.getReadPermission(SleepSessionRecord::class) in granted) {
+            metrics.add(SleepSessionRecord.SLEEP_DURATION_TOTAL)
+        }
+        return metrics
+    }
+
+    private fun HealthSeries.fill(index: Int, result: AggregationResult) {
+        steps[index] = result[StepsRecord.COUNT_TOTAL] ?: 0L
+        distanceMeters[index] = result[DistanceRecord.DISTANCE_TOTAL]?.inMeters ?: 0.0
+        activeKcal[index] = result[ActiveCaloriesBurnedRecord.ACTIVE_CALORIES_TOTAL]?.inKilocalories ?: 0.0
+        heartRateAvg[index] = result[HeartRateRecord.BPM_AVG] ?: 0L
+        sleepMinutes[index] = result[SleepSessionRecord.SLEEP_DURATION_TOTAL]?.toMinutes() ?: 0L
+    }
+
     fun cancel() {
         job.cancel()
     }
+
+    companion object {
+        const val TREND_DAYS = 30
+        private val HOUR_MILLIS = TimeUnit.HOURS.toMillis(1)
+        private val TODAY_TTL_MS = TimeUnit.MINUTES.toMillis(15)
+        private val DAILY_TTL_MS = TimeUnit.HOURS.toMillis(3)
+
+        /** Read permissions for every metric the app shows; only steps is required. */
+        @JvmField
+        val READ_PERMISSIONS: Set<String> = setOf(
+            HealthPermission.getReadPermission(StepsRecord::class),
+            HealthPermission.getReadPermission(DistanceRecord::class),
+            HealthPermission.getReadPermission(ActiveCaloriesBurnedRecord::class),
+            HealthPermission.getReadPermission(HeartRateRecord::class),
+            HealthPermission.getReadPermission(SleepSessionRecord::class)
+        )
+
+        // Shared by every helper instance, so a recreated activity does not refetch.
+        @Volatile
+        private var todayCache: HealthSeries? = null
+
+        @Volatile
+        private var dailyCache: HealthSeries? = null
+
+        /** Returns [series] if it was fetched within [ttl] and starts at [expectedStart], i.e. is for the same day. */
+        private fun cached(series: HealthSeries?, now: Long, expectedStart: Long, ttl: Long): HealthSeries? =
+            series?.takeIf { it.bucketStarts.firstOrNull() == expectedStart && now - it.fetchedAt in 0 until ttl }
+    }
 }
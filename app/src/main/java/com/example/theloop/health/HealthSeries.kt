@@ -0,0 +1,43 @@
+package com.example.theloop.health
+
+/**
+ * Health metrics in equal time buckets, one primitive array per metric, all indexed like
+ * [bucketStarts]. Buckets without data hold 0; a metric whose permission was not granted is all 0.
+ */
+class HealthSeries(
+    /** Start of each bucket, in epoch millis. */
+    @JvmField val bucketStarts: LongArray,
+    @JvmField val steps: LongArray,
+    @JvmField val distanceMeters: DoubleArray,
+    @JvmField val activeKcal: DoubleArray,
+    /** Average heart rate in beats per minute. */
+    @JvmField val heartRateAvg: LongArray,
+    @JvmField val sleepMinutes: LongArray,
+    @JvmField val fetchedAt: Long
+) {
+
+    constructor(bucketStarts: LongArray, fetchedAt: Long) : this(
+        bucketStarts,
+        LongArray(bucketStarts.size),
+        DoubleArray(bucketStarts.size),
+        DoubleArray(bucketStarts.size),
+        LongArray(bucketStarts.size),
+        LongArray(bucketStarts.size),
+        fetchedAt
+    )
+
+    fun size(): Int = bucketStarts.size
+
+    fun totalSteps(): Long = steps.sum()
+
+    /**
+     * Average steps per bucket over all [size] - 1 buckets before the last one, which for a daily
+     * series is today and still filling up. Buckets without steps count as 0, so the average
+     * matches the period it is shown for. Returns -1 if none of those buckets has steps.
+     */
+    fun averageStepsBeforeLast(): Long {
+        var total = 0L
+        for (i in 0 until steps.size - 1) total += steps[i]
+        return if (total == 0L) -1L else total / (steps.size - 1)
+    }
+}
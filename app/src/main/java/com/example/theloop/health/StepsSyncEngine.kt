@@ -0,0 +1,324 @@
+package com.example.theloop.health
+
+import android.content.Context
+import android.util.Log
+import androidx.annotation.VisibleForTesting
+import androidx.health.connect.client.HealthConnectClient
+import androidx.health.connect.client.changes.DeletionChange
+import androidx.health.connect.client.changes.UpsertionChange
+import androidx.health.connect.client.records.StepsRecord
+import androidx.health.connect.client.request.AggregateGroupByDurationRequest
+import androidx.health.connect.client.request.ChangesTokenRequest
+import androidx.health.connect.client.request.ReadRecordsRequest
+import androidx.health.connect.client.time.TimeRangeFilter
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.IOException
+import java.time.Duration
+import java.time.Instant
+import java.time.LocalDate
+import java.time.ZoneId
+import java.util.TreeSet
+import java.util.concurrent.TimeUnit
+
+/**
+ * Keeps a local hourly rollup of step counts in step with Health Connect.
+ *
+ * A rebuild aggregates the whole retention window once and takes a changes token. After that,
+ * [sync] pulls only the [StepsRecord] upserts and deletions since the token and re-aggregates just
+ * the hours they touch, so the totals keep Health Connect's de-duplication across apps without a
+ * full aggregate on every refresh. A record index maps record ids to hours, as deletions carry
+ * only the id. Readers such as the steps card are served from the rollup.
+ *
+ * Buckets are whole UTC hours, so in time zones with a half-hour offset "today" starts at the
+ * hour boundary nearest local midnight.
+ */
+class StepsSyncEngine @VisibleForTesting internal constructor(
+    private val client: HealthConnectClient,
+    private val file: File,
+    private val clock: () -> Long
+) {
+
+    private val mutex = Mutex()
+
+    // Epoch hour of buckets[0]; buckets cover RETENTION_HOURS hours from there.
+    private var firstHour = 0L
+    private var buckets = LongArray(RETENTION_HOURS)
+    private var changesToken: String? = null
+    // Record id to the epoch hours [start, end] it spans.
+    private val recordHours = HashMap<String, LongArray>()
+    private var loaded = false
+    // Set when the buckets, token or index differ from the file.
+    private var unsaved = false
+
+    /**
+     * Brings the rollup up to date, rebuilding it when there is no usable changes token.
+     *
+     * @return true if any bucket changed.
+     */
+    suspend fun sync(): Boolean = mutex.withLock {
+        withContext(Dispatchers.IO) {
+            load()
+            val nowHour = epochHour(clock())
+            advanceTo(nowHour)
+
+            val token = changesToken
+            val changed = if (token == null) {
+                rebuild(nowHour)
+                true
+            } else {
+                applyChanges(token, nowHour)
+            }
+            if (unsaved) save()
+            changed
+        }
+    }
+
+    /** Steps since the start of today from the local rollup, or -1 if nothing has been synced yet. */
+    suspend fun stepsToday(): Long = mutex.withLock {
+        withContext(Dispatchers.IO) {
+            load()
+            if (changesToken == null) return@withContext -1L
+            val midnight = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli()
+            sum(epochHour(midnight + HOUR_MILLIS / 2), epochHour(clock()))
+        }
+    }
+
+    /** Returns the hourly counts for the epoch hours [fromHour, toHour]; hours outside the rollup are 0. */
+    suspend fun hourlySteps(fromHour: Long, toHour: Long): LongArray = mutex.withLock {
+        withContext(Dispatchers.IO) {
+            load()
+            LongArray((toHour - fromHour + 1).coerceAtLeast(0).toInt()) { bucket(fromHour + it) }
+        }
+    }
+
+    private suspend fun applyChanges(token: String, nowHour: Long): Boolean {
+        val dirty = TreeSet<Long>()
+        var next = token
+        do {
+            val response = client.getChanges(next)
+            if (response.changesTokenExpired) {
+                Log.i(TAG, "Changes token expired; rebuilding steps rollup")
+                rebuild(nowHour)
+                return true
+            }
+            for (change in response.changes) {
+                when (change) {
+                    is UpsertionChange -> {
+                        val record = change.record as? StepsRecord ?: continue
+                        recordHours.remove(record.metadata.id)?.let { markDirty(dirty, it) }
+                        val hours = longArrayOf(
+                            epochHour(record.startTime.toEpochMilli()),
+                            epochHour(record.endTime.toEpochMilli() - 1)
+                        )
+                        recordHours[record.metadata.id] = hours
+                        markDirty(dirty, hours)
+                        unsaved = true
+                    }
+                    is DeletionChange -> {
+                        // Records older than the index are outside the rollup anyway.
+                        recordHours.remove(change.recordId)?.let {
+                            markDirty(dirty, it)
+                            unsaved = true
+                        }
+                    }
+                }
+            }
+            next = response.nextChangesToken
+        } while (response.hasMore)
+        if (next != token) {
+            changesToken = next
+            unsaved = true
+        }
+
+        dirty.removeIf { it < firstHour || it > nowHour }
+        if (dirty.isEmpty()) return false
+        // Re-aggregate each run of consecutive dirty hours with one request.
+        var changed = false
+        var runStart = dirty.first()
+        var runEnd = runStart
+        for (hour in dirty.tailSet(runStart, false)) {
+            if (hour == runEnd + 1) {
+                runEnd = hour
+            } else {
+                changed = aggregateInto(runStart, runEnd) || changed
+                runStart = hour
+                runEnd = hour
+            }
+        }
+        return aggregateInto(runStart, runEnd) || changed
+    }
+
+    private suspend fun rebuild(nowHour: Long) {
+        // Take the token first so changes made during the rebuild are picked up by the next sync.
+        val token = client.getChangesToken(ChangesTokenRequest(recordTypes = setOf(StepsRecord::class)))
+        firstHour = nowHour - RETENTION_HOURS + 1
+        buckets = LongArray(RETENTION_HOURS)
+        aggregateInto(firstHour, nowHour)
+
+        recordHours.clear()
+        val range = TimeRangeFilter.between(Instant.ofEpochMilli(firstHour * HOUR_MILLIS), Instant.ofEpochMilli(clock()))
+        var pageToken: String? = null
+        do {
+            val response = client.readRecords(ReadRecordsRequest(StepsRecord::class, range, pageToken = pageToken))
+            for (record in response.records) {
+                recordHours[record.metadata.id] = longArrayOf(
+                    epochHour(record.startTime.toEpochMilli()),
+                    epochHour(record.endTime.toEpochMilli() - 1)
+                )
+            }
+            pageToken = response.pageToken
+        } while (pageToken != null)
+        changesToken = token
+        unsaved = true
+    }
+
+    /** Re-aggregates the hours [fromHour, toHour]; returns true if any of their buckets changed. */
+    private suspend fun aggregateInto(fromHour: Long, toHour: Long): Boolean {
+        val counts = LongArray((toHour - fromHour + 1).toInt())
+        val groups = client.aggregateGroupByDuration(
+            AggregateGroupByDurationRequest(
+                metrics = setOf(StepsRecord.COUNT_TOTAL),
+                timeRangeFilter = TimeRangeFilter.between(
+                    Instant.ofEpochMilli(fromHour * HOUR_MILLIS),
+                    Instant.ofEpochMilli((toHour + 1) * HOUR_MILLIS)
+                ),
+                timeRangeSlicer = Duration.ofHours(1)
+            )
+        )
+        for (group in groups) {
+            val index = epochHour(group.startTime.toEpochMilli()) - fromHour
+            if (index in counts.indices) counts[index.toInt()] = group.result[StepsRecord.COUNT_TOTAL] ?: 0L
+        }
+        var changed = false
+        for (i in counts.indices) {
+            if (setBucket(fromHour + i, counts[i])) changed = true
+        }
+        return changed
+    }
+
+    private fun markDirty(dirty: MutableSet<Long>, hours: LongArray) {
+        for (hour in hours[0]..hours[1]) dirty.add(hour)
+    }
+
+    /** Slides the window so it ends at [nowHour], dropping buckets and index entries that fall out. */
+    private fun advanceTo(nowHour: Long) {
+        val newFirst = nowHour - RETENTION_HOURS + 1
+        val shift = newFirst - firstHour
+        if (shift <= 0) return
+        if (shift >= RETENTION_HOURS) {
+            buckets.fill(0L)
+        } else {
+            System.arraycopy(buckets, shift.toInt(), buckets, 0, RETENTION_HOURS - shift.toInt())
+            buckets.fill(0L, RETENTION_HOURS - shift.toInt(), RETENTION_HOURS)
+        }
+        firstHour = newFirst
+        recordHours.values.removeIf { it[1] < newFirst }
+        unsaved = true
+    }
+
+    private fun bucket(hour: Long): Long {
+        val index = hour - firstHour
+        return if (index in 0 until RETENTION_HOURS) buckets[index.toInt()] else 0L
+    }
+
+    /** Returns true if the bucket is inside the rollup and its count changed. */
+    private fun setBucket(hour: Long, value: Long): Boolean {
+        val index = hour - firstHour
+        if (index !in 0 until RETENTION_HOURS || buckets[index.toInt()] == value) return false
+        buckets[index.toInt()] = value
+        unsaved = true
+        return true
+    }
+
+    private fun sum(fromHour: Long, toHour: Long): Long {
+        var total = 0L
+        for (hour in fromHour..toHour) total += bucket(hour)
+        return total
+    }
+
+    private fun load() {
+        if (loaded) return
+        loaded = true
+        if (!file.isFile) return
+        try {
+            DataInputStream(BufferedInputStream(FileInputStream(file))).use { input ->
+                if (input.readInt() != FORMAT_VERSION) return
+                val token = input.readUTF()
+                val first = input.readLong()
+                val counts = LongArray(RETENTION_HOURS) { input.readLong() }
+                val records = input.readInt()
+                val index = HashMap<String, LongArray>(records * 2)
+                repeat(records) { index[input.readUTF()] = longArrayOf(input.readLong(), input.readLong()) }
+                changesToken = token
+                firstHour = first
+                buckets = counts
+                recordHours.putAll(index)
+            }
+        } catch (e: IOException) {
+            Log.w(TAG, "Discarding unreadable steps rollup", e)
+        }
+    }
+
+    private fun save() {
+        val token = changesToken ?: return
+        file.parentFile?.mkdirs()
+        val temp = File(file.path + ".tmp")
+        try {
+            FileOutputStream(temp).use { fos ->
+                val out = DataOutputStream(BufferedOutputStream(fos))
+                out.writeInt(FORMAT_VERSION)
+                out.writeUTF(token)
+                out.writeLong(firstHour)
+                for (count in buckets) out.writeLong(count)
+                out.writeInt(recordHours.size)
+                for ((id, hours) in recordHours) {
+                    out.writeUTF(id)
+                    out.writeLong(hours[0])
+                    out.writeLong(hours[1])
+                }
+                out.flush()
+                fos.fd.sync()
+            }
+            if (!temp.renameTo(file)) throw IOException("rename failed")
+            unsaved = false
+        } catch (e: IOException) {
+            Log.e(TAG, "Failed to save steps rollup", e)
+            temp.delete()
+        }
+    }
+
+    companion object {
+        private const val TAG = "StepsSyncEngine"
+        private const val FORMAT_VERSION = 1
+        private const val FILE_NAME = "health/steps_hourly.bin"
+
+        private const val RETENTION_DAYS = 7
+        private const val RETENTION_HOURS = RETENTION_DAYS * 24
+        private val HOUR_MILLIS = TimeUnit.HOURS.toMillis(1)
+
+        @Volatile
+        private var instance: StepsSyncEngine? = null
+
+        @JvmStatic
+        fun getInstance(context: Context): StepsSyncEngine =
+            instance ?: synchronized(this) {
+                instance ?: StepsSyncEngine(
+                    HealthConnectClient.getOrCreate(context.applicationContext),
+                    File(context.applicationContext.filesDir, FILE_NAME),
+                    System::currentTimeMillis
+                ).also { instance = it }
+            }
+
+        private fun epochHour(millis: Long): Long = Math.floorDiv(millis, HOUR_MILLIS)
+    }
+}
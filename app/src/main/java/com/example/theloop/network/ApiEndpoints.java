@@ -0,0 +1,65 @@
+package com.example.theloop.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.example.theloop.diagnostics.Telemetry;
+
+import okhttp3.HttpUrl;
+
+/**
+ * Base URLs of the APIs the app talks to. Tests point them at local fake servers; the Retrofit
+ * clients notice the change and rebuild themselves.
+ */
+public final class ApiEndpoints {
+
+    public static final String OPEN_METEO = "https://api.open-meteo.com/";
+    public static final String OK_SURF = "https://ok.surf/api/v1/";
+    public static final String USELESS_FACTS = "https://uselessfacts.jsph.pl/";
+
+    private static volatile String weather = OPEN_METEO;
+    private static volatile String news = OK_SURF;
+    private static volatile String funFact = USELESS_FACTS;
+
+    private ApiEndpoints() {
+        // This class is not meant to be instantiated.
+    }
+
+    @NonNull
+    public static String weather() {
+        return weather;
+    }
+
+    @NonNull
+    public static String news() {
+        return news;
+    }
+
+    @NonNull
+    public static String funFact() {
+        return funFact;
+    }
+
+    /** Returns the feed a request belongs to, or null if it is not for one of these APIs. */
+    @Nullable
+    public static Telemetry.Feed feedOf(@NonNull HttpUrl url) {
+        String value = url.toString();
+        if (value.startsWith(weather)) return Telemetry.Feed.WEATHER;
+        if (value.startsWith(news)) return Telemetry.Feed.NEWS;
+        if (value.startsWith(funFact)) return Telemetry.Feed.FUN_FACT;
+        return null;
+    }
+
+    @VisibleForTesting
+    public static void override(@NonNull String weatherUrl, @NonNull String newsUrl, @NonNull String funFactUrl) {
+        weather = weatherUrl;
+        news = newsUrl;
+        funFact = funFactUrl;
+    }
+
+    @VisibleForTesting
+    public static void reset() {
+        override(OPEN_METEO, OK_SURF, USELESS_FACTS);
+    }
+}
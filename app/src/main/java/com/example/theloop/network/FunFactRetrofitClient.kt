@@ -1,15 +1,38 @@
 package com.example.theloop.network
 
+import android.content.Context
+import com.example.theloop.diagnostics.Telemetry
 import retrofit2.Retrofit
 import retrofit2.converter.gson.GsonConverterFactory
 
 object FunFactRetrofitClient {
-    private const val BASE_URL = "https://uselessfacts.jsph.pl/"
+    @Volatile
+    private var client: Retrofit? = null
 
-    val client: Retrofit by lazy {
-        Retrofit.Builder()
-            .baseUrl(BASE_URL)
-            .addConverterFactory(GsonConverterFactory.create())
-            .build()
+    @Volatile
+    private var service: FunFactApiService? = null
+
+    fun getClient(context: Context): Retrofit {
+        val url = ApiEndpoints.funFact()
+        client?.takeIf { it.baseUrl().toString() == url }?.let { return it }
+        return synchronized(this) {
+            client?.takeIf { it.baseUrl().toString() == url } ?: Retrofit.Builder()
+                .baseUrl(url)
+                .client(HttpClientProvider.getClient(context))
+                .addConverterFactory(TimedConverterFactory(Telemetry.Feed.FUN_FACT, GsonConverterFactory.create(GsonProvider.get())))
+                .build()
+                .also {
+                    client = it
+                    service = null
+                }
+        }
+    }
+
+    fun getService(context: Context): FunFactApiService {
+        val current = getClient(context)
+        service?.let { return it }
+        return synchronized(this) {
+            service ?: current.create(FunFactApiService::class.java).also { service = it }
+        }
     }
 }
@@ -0,0 +1,40 @@
+package com.example.theloop.network;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Per-host network settings for the APIs the app talks to.
+ */
+enum HostPolicy {
+    OPEN_METEO("api.open-meteo.com", 10, 15, 10 * 60),
+    OK_SURF("ok.surf", 10, 20, 15 * 60),
+    // Every call should return a new fact, so never invent freshness for it.
+    USELESS_FACTS("uselessfacts.jsph.pl", 5, 5, 0),
+    DEFAULT(null, 10, 10, 0);
+
+    @Nullable
+    final String host;
+    final int connectTimeoutSeconds;
+    final int readTimeoutSeconds;
+    /**
+     * Freshness applied to responses that arrive without any Cache-Control or Expires header.
+     * Zero leaves such responses uncached.
+     */
+    final int defaultMaxAgeSeconds;
+
+    HostPolicy(@Nullable String host, int connectTimeoutSeconds, int readTimeoutSeconds, int defaultMaxAgeSeconds) {
+        this.host = host;
+        this.connectTimeoutSeconds = connectTimeoutSeconds;
+        this.readTimeoutSeconds = readTimeoutSeconds;
+        this.defaultMaxAgeSeconds = defaultMaxAgeSeconds;
+    }
+
+    static HostPolicy forHost(String host) {
+        for (HostPolicy policy : values()) {
+            if (policy.host != null && policy.host.equalsIgnoreCase(host)) {
+                return policy;
+            }
+        }
+        return DEFAULT;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.theloop.network;
+
+import android.content.Context;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.example.theloop.diagnostics.Telemetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Holds the single OkHttpClient shared by every Retrofit client, so the weather, news and fun fact
+ * APIs reuse one connection pool and one bounded HTTP disk cache. The cache revalidates with
+ * ETag/Last-Modified and honours Cache-Control, which lets a cold start or a worker wakeup be
+ * answered with a 304 or straight from disk.
+ */
+public final class HttpClientProvider {
+
+    private static final String CACHE_DIR_NAME = "http_cache";
+    private static final long CACHE_SIZE_BYTES = 10L * 1024 * 1024;
+
+    private static OkHttpClient client = null;
+
+    private HttpClientProvider() {
+        // This class is not meant to be instantiated.
+    }
+
+    public static synchronized OkHttpClient getClient(Context context) {
+        if (client == null) {
+            File cacheDir = new File(context.getApplicationContext().getCacheDir(), CACHE_DIR_NAME);
+            client = new OkHttpClient.Builder()
+                    .cache(new Cache(cacheDir, CACHE_SIZE_BYTES))
+                    .addInterceptor(HttpClientProvider::recordTelemetry)
+                    .addInterceptor(HttpClientProvider::applyHostTimeouts)
+                    .addNetworkInterceptor(HttpClientProvider::applyDefaultFreshness)
+                    .build();
+        }
+        return client;
+    }
+
+    /**
+     * Replaces the shared client, e.g. with one derived from {@link #getClient} through
+     * {@code newBuilder()}. Retrofit clients built after this call use it.
+     */
+    @VisibleForTesting
+    public static synchronized void override(@NonNull OkHttpClient testClient) {
+        client = testClient;
+    }
+
+    @VisibleForTesting
+    public static synchronized void reset() {
+        client = null;
+    }
+
+    /**
+     * Records the time to the response headers, whether the request succeeded and, once the body
+     * has been read, its size. Answers the HTTP cache gives without a request are only counted,
+     * so they do not skew the latencies; a 304 revalidation is a request like any other.
+     */
+    private static Response recordTelemetry(Interceptor.Chain chain) throws IOException {
+        Telemetry.Feed feed = ApiEndpoints.feedOf(chain.request().url());
+        if (feed == null) return chain.proceed(chain.request());
+        long start = SystemClock.elapsedRealtime();
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException e) {
+            Telemetry.recordFetch(feed, SystemClock.elapsedRealtime() - start, false);
+            throw e;
+        }
+        if (response.networkResponse() == null) {
+            Telemetry.recordHttpCacheHit(feed);
+        } else {
+            Telemetry.recordFetch(feed, SystemClock.elapsedRealtime() - start, response.isSuccessful());
+        }
+        ResponseBody body = response.body();
+        if (body == null || !response.isSuccessful()) return response;
+        return response.newBuilder().body(new CountingBody(feed, body)).build();
+    }
+
+    private static Response applyHostTimeouts(Interceptor.Chain chain) throws IOException {
+        HostPolicy policy = HostPolicy.forHost(chain.request().url().host());
+        return chain
+                .withConnectTimeout(policy.connectTimeoutSeconds, TimeUnit.SECONDS)
+                .withReadTimeout(policy.readTimeoutSeconds, TimeUnit.SECONDS)
+                .proceed(chain.request());
+    }
+
+    /**
+     * Gives responses without any caching headers a short per-host lifetime so they can be served
+     * from the disk cache and revalidated later, instead of being downloaded again every time.
+     */
+    private static Response applyDefaultFreshness(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        HostPolicy policy = HostPolicy.forHost(request.url().host());
+        if (policy.defaultMaxAgeSeconds > 0
+                && "GET".equals(request.method())
+                && response.isSuccessful()
+                && response.header("Cache-Control") == null
+                && response.header("Expires") == null) {
+            return response.newBuilder()
+                    .header("Cache-Control", "public, max-age=" + policy.defaultMaxAgeSeconds)
+                    .build();
+        }
+        return response;
+    }
+
+    /** Passes a body through and records how many bytes were read from it. */
+    private static final class CountingBody extends ResponseBody {
+        private final Telemetry.Feed feed;
+        private final ResponseBody delegate;
+        private BufferedSource source;
+
+        CountingBody(Telemetry.Feed feed, ResponseBody delegate) {
+            this.feed = feed;
+            this.delegate = delegate;
+        }
+
+        @Nullable
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @NonNull
+        @Override
+        public BufferedSource source() {
+            if (source == null) {
+                source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                    private long bytes;
+                    private boolean recorded;
+
+                    @Override
+                    public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+                        long read = super.read(sink, byteCount);
+                        if (read == -1) {
+                            record();
+                        } else {
+                            bytes += read;
+                        }
+                        return read;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        record();
+                        super.close();
+                    }
+
+                    private void record() {
+                        if (recorded) return;
+                        recorded = true;
+                        Telemetry.recordResponseBytes(feed, bytes);
+                    }
+                });
+            }
+            return source;
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.theloop.network
 
-import com.example.theloop.models.NewsResponse
+import okhttp3.ResponseBody
 import retrofit2.Response
 import retrofit2.http.GET
 
 interface NewsApiService {
+    /**
+     * Returns the raw feed so it can be stored as-is and decoded with
+     * [com.example.theloop.models.NewsDecoder].
+     */
     @GET("news-feed")
-    suspend fun getNewsFeed(): Response<NewsResponse>
+    suspend fun getNewsFeed(): Response<ResponseBody>
 }
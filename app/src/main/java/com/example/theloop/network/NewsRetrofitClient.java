@@ -1,20 +1,35 @@
 package com.example.theloop.network;
 
+import android.content.Context;
+
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
 public class NewsRetrofitClient {
 
     private static Retrofit retrofit = null;
-    private static final String BASE_URL = "https://ok.surf/api/v1/";
+    private static NewsApiService newsApiService = null;
+    private static String baseUrl = null;
 
-    public static synchronized Retrofit getClient() {
-        if (retrofit == null) {
+    public static synchronized Retrofit getClient(Context context) {
+        String url = ApiEndpoints.news();
+        if (retrofit == null || !url.equals(baseUrl)) {
+            baseUrl = url;
+            newsApiService = null;
             retrofit = new Retrofit.Builder()
-                    .baseUrl(BASE_URL)
-                    .addConverterFactory(GsonConverterFactory.create())
+                    .baseUrl(url)
+                    .client(HttpClientProvider.getClient(context))
+                    .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
                     .build();
         }
         return retrofit;
     }
+
+    public static synchronized NewsApiService getNewsService(Context context) {
+        Retrofit client = getClient(context);
+        if (newsApiService == null) {
+            newsApiService = client.create(NewsApiService.class);
+        }
+        return newsApiService;
+    }
 }
@@ -1,20 +1,37 @@
 package com.example.theloop.network;
 
+import android.content.Context;
+
+import com.example.theloop.diagnostics.Telemetry;
+
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
 public class RetrofitClient {
 
     private static Retrofit retrofit = null;
-    private static final String BASE_URL = "https://api.open-meteo.com/";
+    private static WeatherApiService weatherApiService = null;
+    private static String baseUrl = null;
 
-    public static synchronized Retrofit getClient() {
-        if (retrofit == null) {
+    public static synchronized Retrofit getClient(Context context) {
+        String url = ApiEndpoints.weather();
+        if (retrofit == null || !url.equals(baseUrl)) {
+            baseUrl = url;
+            weatherApiService = null;
             retrofit = new Retrofit.Builder()
-                    .baseUrl(BASE_URL)
-                    .addConverterFactory(GsonConverterFactory.create())
+                    .baseUrl(url)
+                    .client(HttpClientProvider.getClient(context))
+                    .addConverterFactory(new TimedConverterFactory(Telemetry.Feed.WEATHER, GsonConverterFactory.create(GsonProvider.get())))
                     .build();
         }
         return retrofit;
     }
+
+    public static synchronized WeatherApiService getWeatherService(Context context) {
+        Retrofit client = getClient(context);
+        if (weatherApiService == null) {
+            weatherApiService = client.create(WeatherApiService.class);
+        }
+        return weatherApiService;
+    }
 }
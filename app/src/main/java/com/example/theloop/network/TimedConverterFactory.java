@@ -0,0 +1,54 @@
+package com.example.theloop.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.theloop.diagnostics.Telemetry;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Wraps a converter factory and records how long each response takes to decode. The body is read
+ * into memory first and only the decoding is timed, the same as for the news feed, which is
+ * decoded from stored bytes.
+ */
+final class TimedConverterFactory extends Converter.Factory {
+
+    private final Telemetry.Feed feed;
+    private final Converter.Factory delegate;
+
+    TimedConverterFactory(@NonNull Telemetry.Feed feed, @NonNull Converter.Factory delegate) {
+        this.feed = feed;
+        this.delegate = delegate;
+    }
+
+    @Nullable
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(@NonNull Type type, @NonNull Annotation[] annotations, @NonNull Retrofit retrofit) {
+        Converter<ResponseBody, ?> converter = delegate.responseBodyConverter(type, annotations, retrofit);
+        if (converter == null) return null;
+        return body -> {
+            // bytes() reads the body off the network and closes it.
+            ResponseBody buffered = ResponseBody.create(body.bytes(), body.contentType());
+            long start = System.nanoTime();
+            try {
+                return converter.convert(buffered);
+            } finally {
+                Telemetry.recordParse(feed, System.nanoTime() - start);
+            }
+        };
+    }
+
+    @Nullable
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(@NonNull Type type, @NonNull Annotation[] parameterAnnotations,
+                                                          @NonNull Annotation[] methodAnnotations, @NonNull Retrofit retrofit) {
+        return delegate.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+    }
+}
@@ -15,4 +15,19 @@ interface WeatherApiService {
         @Query("temperature_unit") tempUnit: String,
         @Query("timezone") timezone: String
     ): Response<WeatherResponse>
+
+    /**
+     * Forecasts for several places in one request. [latitudes] and [longitudes] are
+     * comma-separated lists of the same length; the response has one entry per pair, in order.
+     * Open-Meteo answers a single pair with a plain object, so use [getWeather] for one place.
+     */
+    @GET("v1/forecast")
+    suspend fun getWeatherBatch(
+        @Query("latitude") latitudes: String,
+        @Query("longitude") longitudes: String,
+        @Query("current") current: String,
+        @Query("daily") daily: String,
+        @Query("temperature_unit") tempUnit: String,
+        @Query("timezone") timezone: String
+    ): Response<List<WeatherResponse>>
 }
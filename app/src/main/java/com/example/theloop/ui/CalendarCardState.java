@@ -0,0 +1,33 @@
+package com.example.theloop.ui;
+
+/** Ready-to-render rows of the calendar card. An empty state means there are no upcoming events. */
+public final class CalendarCardState {
+
+    public static final class Row {
+        public final long eventId;
+        public final CharSequence title;
+        public final CharSequence time;
+        /** Null hides the location line. */
+        public final CharSequence location;
+        /** Null hides the calendar name line. */
+        public final CharSequence owner;
+
+        public Row(long eventId, CharSequence title, CharSequence time, CharSequence location, CharSequence owner) {
+            this.eventId = eventId;
+            this.title = title;
+            this.time = time;
+            this.location = location;
+            this.owner = owner;
+        }
+    }
+
+    public final Row[] rows;
+
+    public CalendarCardState(Row[] rows) {
+        this.rows = rows;
+    }
+
+    public boolean isEmpty() {
+        return rows.length == 0;
+    }
+}
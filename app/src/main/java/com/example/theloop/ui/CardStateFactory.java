@@ -0,0 +1,105 @@
+package com.example.theloop.ui;
+
+import android.content.Context;
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.example.theloop.R;
+import com.example.theloop.data.NewsDigest;
+import com.example.theloop.models.Article;
+import com.example.theloop.models.CalendarEvent;
+import com.example.theloop.models.DailyWeather;
+import com.example.theloop.models.NewsResponse;
+import com.example.theloop.models.WeatherResponse;
+import com.example.theloop.utils.AppUtils;
+import com.example.theloop.utils.UnitConverter;
+import com.example.theloop.utils.UnitConverter.TemperatureUnit;
+
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Turns domain snapshots into card states. All string formatting and resource lookups for the
+ * dashboard cards happen here, on a background thread, rather than in onBindViewHolder.
+ */
+public final class CardStateFactory {
+
+    /** Rows each card has room for; these match the view holders in DashboardAdapter. */
+    public static final int MAX_FORECAST_DAYS = 5;
+    public static final int MAX_HEADLINES = 3;
+    public static final int MAX_EVENTS = 3;
+
+    private CardStateFactory() {}
+
+    @WorkerThread
+    @Nullable
+    public static WeatherCardState weather(@NonNull Context context, @Nullable WeatherResponse weather, @NonNull TemperatureUnit unit) {
+        if (weather == null || weather.getCurrent() == null) return null;
+
+        int code = weather.getCurrent().getWeatherCode();
+        CharSequence temperature = UnitConverter.formatTemperature(weather.getCurrent().getTemperature(), unit);
+        CharSequence conditions = context.getString(AppUtils.getWeatherDescription(code));
+
+        CharSequence highLow = "";
+        WeatherCardState.Day[] days = new WeatherCardState.Day[0];
+        DailyWeather daily = weather.getDaily();
+        if (daily != null) {
+            int size = daily.size();
+            if (size > 0) {
+                highLow = context.getString(R.string.weather_high_prefix) + UnitConverter.formatTemperature(daily.getTemperatureMax(0), unit)
+                        + " " + context.getString(R.string.weather_low_prefix) + UnitConverter.formatTemperature(daily.getTemperatureMin(0), unit);
+            }
+
+            days = new WeatherCardState.Day[Math.min(MAX_FORECAST_DAYS, size)];
+            for (int i = 0; i < days.length; i++) {
+                days[i] = new WeatherCardState.Day(
+                        AppUtils.formatForecastDay(daily.getEpochDay(i)),
+                        AppUtils.getWeatherIconResource(daily.getWeatherCode(i)),
+                        UnitConverter.formatTemperature(daily.getTemperatureMax(i), unit),
+                        UnitConverter.formatTemperature(daily.getTemperatureMin(i), unit));
+            }
+        }
+        return new WeatherCardState(temperature, conditions, AppUtils.getWeatherIconResource(code), highLow, days);
+    }
+
+    @WorkerThread
+    @NonNull
+    public static CalendarCardState calendar(@NonNull Context context, @NonNull List<CalendarEvent> events) {
+        CalendarCardState.Row[] rows = new CalendarCardState.Row[Math.min(MAX_EVENTS, events.size())];
+        for (int i = 0; i < rows.length; i++) {
+            CalendarEvent event = events.get(i);
+            rows[i] = new CalendarCardState.Row(
+                    event.getId(),
+                    event.getTitle(),
+                    AppUtils.formatEventTime(context, event.getStartTime(), event.getEndTime()),
+                    TextUtils.isEmpty(event.getLocation()) ? null : event.getLocation(),
+                    TextUtils.isEmpty(event.getOwnerName()) ? null : event.getOwnerName());
+        }
+        return new CalendarCardState(rows);
+    }
+
+    @WorkerThread
+    @NonNull
+    public static NewsCardState news(@NonNull NewsDigest digest) {
+        EnumMap<NewsResponse.Category, HeadlinesCardState> categories = new EnumMap<>(NewsResponse.Category.class);
+        for (NewsResponse.Category category : NewsResponse.Category.values()) {
+            List<Article> articles = digest.get(category);
+            if (articles != null) categories.put(category, headlines(articles));
+        }
+        return new NewsCardState(categories, headlines(digest.getUkNews()));
+    }
+
+    @NonNull
+    static HeadlinesCardState headlines(@Nullable List<Article> articles) {
+        if (articles == null || articles.isEmpty()) return HeadlinesCardState.EMPTY;
+        HeadlinesCardState.Row[] rows = new HeadlinesCardState.Row[Math.min(MAX_HEADLINES, articles.size())];
+        for (int i = 0; i < rows.length; i++) {
+            Article article = articles.get(i);
+            rows[i] = new HeadlinesCardState.Row(article.getTitle(), article.getSource(), article.getUrl());
+        }
+        return new HeadlinesCardState(rows);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.theloop.ui;
+
+/** Ready-to-render rows of one headline list. An empty state shows the card's error text. */
+public final class HeadlinesCardState {
+
+    public static final HeadlinesCardState EMPTY = new HeadlinesCardState(new Row[0]);
+
+    public static final class Row {
+        public final CharSequence title;
+        public final CharSequence source;
+        /** May be null when the feed had no link. */
+        public final String url;
+
+        public Row(CharSequence title, CharSequence source, String url) {
+            this.title = title;
+            this.source = source;
+            this.url = url;
+        }
+    }
+
+    public final Row[] rows;
+
+    public HeadlinesCardState(Row[] rows) {
+        this.rows = rows;
+    }
+
+    public boolean isEmpty() {
+        return rows.length == 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.theloop.ui;
+
+import androidx.annotation.Nullable;
+
+import com.example.theloop.models.NewsResponse;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Headline rows for every category that has been decoded, plus the UK list. Categories the
+ * decoder skipped are absent so the card can ask for them on demand.
+ */
+public final class NewsCardState {
+
+    private final Map<NewsResponse.Category, HeadlinesCardState> categories;
+    private final HeadlinesCardState ukNews;
+
+    public NewsCardState(EnumMap<NewsResponse.Category, HeadlinesCardState> categories, HeadlinesCardState ukNews) {
+        this.categories = categories;
+        this.ukNews = ukNews;
+    }
+
+    /** Returns the rows for {@code category}, or null if it has not been decoded yet. */
+    @Nullable
+    public HeadlinesCardState get(NewsResponse.Category category) {
+        return categories.get(category);
+    }
+
+    public HeadlinesCardState getUkNews() {
+        return ukNews;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.theloop.ui;
+
+import androidx.annotation.DrawableRes;
+
+/**
+ * Ready-to-render contents of the weather card. Everything is formatted when the state is built,
+ * so binding only assigns these values to views.
+ */
+public final class WeatherCardState {
+
+    public static final class Day {
+        public final CharSequence label;
+        @DrawableRes
+        public final int iconRes;
+        public final CharSequence high;
+        public final CharSequence low;
+
+        public Day(CharSequence label, @DrawableRes int iconRes, CharSequence high, CharSequence low) {
+            this.label = label;
+            this.iconRes = iconRes;
+            this.high = high;
+            this.low = low;
+        }
+    }
+
+    public final CharSequence temperature;
+    public final CharSequence conditions;
+    @DrawableRes
+    public final int iconRes;
+    /** Today's high and low, or empty when the forecast is missing. */
+    public final CharSequence highLow;
+    public final Day[] days;
+
+    public WeatherCardState(CharSequence temperature, CharSequence conditions, @DrawableRes int iconRes,
+                            CharSequence highLow, Day[] days) {
+        this.temperature = temperature;
+        this.conditions = conditions;
+        this.iconRes = iconRes;
+        this.highLow = highLow;
+        this.days = days;
+    }
+}
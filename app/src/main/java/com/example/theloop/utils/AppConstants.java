@@ -9,6 +9,7 @@ public final class AppConstants {
     public static final String KEY_LATITUDE = "last_latitude";
     public static final String KEY_LONGITUDE = "last_longitude";
     public static final String KEY_TEMP_UNIT = "temp_unit";
+    // Legacy payload keys, moved into SnapshotStore on first use.
     public static final String WEATHER_CACHE_KEY = "weather_cache";
     public static final String NEWS_CACHE_KEY = "news_cache";
     public static final String KEY_SECTION_ORDER = "section_order";
@@ -16,6 +17,9 @@ public final class AppConstants {
     public static final String KEY_FIRST_RUN = "is_first_run";
     public static final String KEY_ONBOARDING_COMPLETED = "onboarding_completed";
     public static final String KEY_USER_NAME = "user_name";
+    // Set once cached weather is known to be in Celsius; older versions stored it in the selected unit.
+    public static final String KEY_WEATHER_CANONICAL = "weather_canonical_units";
+    public static final String KEY_SAVED_LOCATIONS = "saved_locations";
 
     public static final String DEFAULT_TEMP_UNIT = "celsius";
 
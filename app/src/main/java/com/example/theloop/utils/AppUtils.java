@@ -6,23 +6,15 @@ import androidx.annotation.DrawableRes;
 import androidx.annotation.NonNull;
 import androidx.annotation.StringRes;
 import com.example.theloop.R;
+import com.example.theloop.models.ForecastColumns;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
 
 
 public final class AppUtils {
 
     private static final String TAG = "AppUtils";
 
-    private static final DateTimeFormatter WEATHER_DATE_INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd", Locale.US);
-    private static final DateTimeFormatter WEATHER_DATE_DAY_FORMAT = DateTimeFormatter.ofPattern("EEE d", Locale.getDefault());
-
     private AppUtils() {
         // This class is not meant to be instantiated.
     }
@@ -34,20 +26,17 @@ public final class AppUtils {
      * @return List of formatted date strings (e.g., "Mon 1"), or "-" on error.
      */
     public static List<String> formatForecastDates(List<String> rawDates) {
-        if (rawDates == null) {
-            return Collections.emptyList();
-        }
+        return ForecastDates.format(rawDates);
+    }
 
-        List<String> formatted = new ArrayList<>(rawDates.size());
-        for (String raw : rawDates) {
-            try {
-                LocalDate date = LocalDate.parse(raw, WEATHER_DATE_INPUT_FORMAT);
-                formatted.add(date.format(WEATHER_DATE_DAY_FORMAT));
-            } catch (DateTimeParseException e) {
-                formatted.add("-");
-            }
-        }
-        return formatted;
+    /**
+     * Formats a forecast day given as an epoch day, e.g. "Mon 1".
+     *
+     * @return the label, or "-" for {@link ForecastColumns#MISSING_TIME}.
+     */
+    @NonNull
+    public static String formatForecastDay(int epochDay) {
+        return ForecastDates.formatDay(epochDay);
     }
 
     @StringRes
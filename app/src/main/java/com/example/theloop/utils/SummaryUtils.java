@@ -1,7 +1,6 @@
 package com.example.theloop.utils;
 
 import android.content.Context;
-import android.text.TextUtils;
 
 import com.example.theloop.R;
 import com.example.theloop.models.Article;
@@ -10,40 +9,46 @@ import com.example.theloop.models.WeatherResponse;
 
 import java.util.Calendar;
 import java.util.List;
-import java.util.Locale;
 
 public class SummaryUtils {
 
-    public static String generateSummary(Context context, WeatherResponse weather, List<CalendarEvent> events, int totalEvents, Article topHeadline, String userName, boolean calendarError) {
-        if (weather == null) return null;
+    public static String generateSummary(Context context, WeatherResponse weather, List<CalendarEvent> events, int totalEvents, Article topHeadline, String userName, boolean calendarError, UnitConverter.TemperatureUnit unit) {
+        return SummaryFormatter.format(new ResourceStrings(context), weather, events, totalEvents, topHeadline,
+                userName, calendarError, unit, Calendar.getInstance().get(Calendar.HOUR_OF_DAY));
+    }
 
-        String condition = context.getString(AppUtils.getWeatherDescription(weather.getCurrent().getWeatherCode()));
-        double temp = weather.getCurrent().getTemperature();
+    public static String getTimeBasedGreeting() {
+        return SummaryFormatter.greeting(Calendar.getInstance().get(Calendar.HOUR_OF_DAY));
+    }
 
-        String nextEventTitle = (events != null && !events.isEmpty()) ? events.get(0).getTitle() : "";
-        String newsTitle = (topHeadline != null) ? topHeadline.getTitle() : "No major news";
+    private static final class ResourceStrings implements SummaryFormatter.Strings {
+        private final Context context;
 
-        String timeGreeting = getTimeBasedGreeting();
+        ResourceStrings(Context context) {
+            this.context = context;
+        }
 
-        String eventsSummary;
-        if (calendarError) {
-            eventsSummary = context.getString(R.string.calendar_error);
-        } else if (totalEvents > 0) {
-            eventsSummary = context.getResources().getQuantityString(R.plurals.daily_summary_events, totalEvents, totalEvents, nextEventTitle);
-        } else {
-            eventsSummary = context.getResources().getQuantityString(R.plurals.daily_summary_events, 0);
+        @Override
+        public String weatherCondition(int weatherCode) {
+            return context.getString(AppUtils.getWeatherDescription(weatherCode));
         }
 
-        return String.format(Locale.getDefault(), context.getString(R.string.daily_summary_format),
-                timeGreeting, userName, condition, temp, eventsSummary, newsTitle
-        );
-    }
+        @Override
+        public String calendarError() {
+            return context.getString(R.string.calendar_error);
+        }
 
-    public static String getTimeBasedGreeting() {
-        Calendar c = Calendar.getInstance();
-        int timeOfDay = c.get(Calendar.HOUR_OF_DAY);
-        if (timeOfDay >= 0 && timeOfDay < 12) return "Good morning";
-        else if (timeOfDay >= 12 && timeOfDay < 17) return "Good afternoon";
-        else return "Good evening";
+        @Override
+        public String events(int count, String nextEventTitle) {
+            if (count > 0) {
+                return context.getResources().getQuantityString(R.plurals.daily_summary_events, count, count, nextEventTitle);
+            }
+            return context.getResources().getQuantityString(R.plurals.daily_summary_events, 0);
+        }
+
+        @Override
+        public String summaryFormat() {
+            return context.getString(R.string.daily_summary_format);
+        }
     }
 }
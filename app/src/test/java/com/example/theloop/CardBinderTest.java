@@ -0,0 +1,172 @@
+package com.example.theloop;
+
+import android.view.View;
+import android.widget.ImageView;
+import android.widget.LinearLayout;
+import android.widget.ProgressBar;
+import android.widget.TextView;
+
+import com.example.theloop.ui.CalendarCardState;
+import com.example.theloop.ui.HeadlinesCardState;
+import com.example.theloop.ui.WeatherCardState;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The bind path must only copy prepared values into views: every text set is the exact instance
+ * from the card state, and no view is asked for a Context or Resources to format with. Relies on
+ * mockito-inline, since setText(CharSequence) and getContext() are final.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = {28})
+public class CardBinderTest {
+
+    private final List<View> views = new ArrayList<>();
+    private final CardBinder.Listener listener = mock(CardBinder.Listener.class);
+
+    @Test
+    public void bindWeather_assignsPreparedValues() {
+        View root = container(
+                R.id.weather_progress_bar, ProgressBar.class,
+                R.id.weather_error_text, TextView.class,
+                R.id.weather_content_layout, LinearLayout.class,
+                R.id.weather_icon, ImageView.class,
+                R.id.current_temp, TextView.class,
+                R.id.current_conditions, TextView.class,
+                R.id.high_low_temp, TextView.class,
+                R.id.daily_forecast_container, LinearLayout.class,
+                R.id.weather_location, TextView.class,
+                R.id.weather_settings_icon, ImageView.class);
+        for (int id : new int[] {R.id.forecast_day_1, R.id.forecast_day_2, R.id.forecast_day_3, R.id.forecast_day_4, R.id.forecast_day_5}) {
+            View day = container(
+                    R.id.forecast_day, TextView.class,
+                    R.id.forecast_icon, ImageView.class,
+                    R.id.forecast_high, TextView.class,
+                    R.id.forecast_low, TextView.class);
+            when(root.findViewById(id)).thenReturn(day);
+        }
+        DashboardAdapter.WeatherViewHolder holder = new DashboardAdapter.WeatherViewHolder(root);
+
+        WeatherCardState.Day[] days = {
+                new WeatherCardState.Day("Mon", R.drawable.ic_weather_sunny, "14°C", "6°C"),
+                new WeatherCardState.Day("Tue", R.drawable.ic_weather_partly_cloudy, "12°C", "5°C")
+        };
+        WeatherCardState state = new WeatherCardState("12°C", "Clear sky", R.drawable.ic_weather_sunny, "H: 14°C L: 6°C", days);
+
+        CardBinder.bindWeather(holder, state);
+
+        verify(holder.temp).setText(same(state.temperature));
+        verify(holder.conditions).setText(same(state.conditions));
+        verify(holder.highLow).setText(same(state.highLow));
+        verify(holder.icon).setImageResource(state.iconRes);
+        for (int i = 0; i < days.length; i++) {
+            verify(holder.forecastViews[i].day).setText(same(days[i].label));
+            verify(holder.forecastViews[i].high).setText(same(days[i].high));
+            verify(holder.forecastViews[i].low).setText(same(days[i].low));
+            verify(holder.forecastViews[i].icon).setImageResource(days[i].iconRes);
+        }
+        for (int i = days.length; i < holder.forecastViews.length; i++) {
+            verify(holder.forecastViews[i].parent).setVisibility(View.GONE);
+        }
+        verifyNoFormatting();
+    }
+
+    @Test
+    public void bindCalendar_assignsPreparedValues() {
+        View root = container(
+                R.id.calendar_permission_denied_text, TextView.class,
+                R.id.calendar_no_events_text, TextView.class,
+                R.id.calendar_error_text, TextView.class,
+                R.id.calendar_events_container, LinearLayout.class);
+        for (int id : new int[] {R.id.calendar_event_1, R.id.calendar_event_2, R.id.calendar_event_3}) {
+            View event = container(
+                    R.id.event_title, TextView.class,
+                    R.id.event_time, TextView.class,
+                    R.id.event_location, TextView.class,
+                    R.id.event_owner, TextView.class);
+            when(root.findViewById(id)).thenReturn(event);
+        }
+        DashboardAdapter.CalendarViewHolder holder = new DashboardAdapter.CalendarViewHolder(root);
+
+        CalendarCardState.Row row = new CalendarCardState.Row(7L, "Stand-up", "09:00 – 09:15", null, "Work");
+        CalendarCardState state = new CalendarCardState(new CalendarCardState.Row[] {row});
+
+        CardBinder.bindCalendar(holder, state, listener);
+
+        verify(holder.eventViews[0].title).setText(same(row.title));
+        verify(holder.eventViews[0].time).setText(same(row.time));
+        verify(holder.eventViews[0].owner).setText(same(row.owner));
+        verify(holder.eventViews[0].location).setVisibility(View.GONE);
+        verify(holder.eventViews[0].location, never()).setText(any(CharSequence.class));
+        verify(holder.eventViews[1].parent).setVisibility(View.GONE);
+        verifyNoFormatting();
+    }
+
+    @Test
+    public void bindHeadlines_assignsPreparedValues() {
+        View root = container(
+                R.id.headlines_progress_bar, ProgressBar.class,
+                R.id.headlines_error_text, TextView.class,
+                R.id.headlines_card_title, TextView.class,
+                R.id.headlines_container, LinearLayout.class);
+        for (int id : new int[] {R.id.headline_1, R.id.headline_2, R.id.headline_3}) {
+            View headline = container(
+                    R.id.headline_title, TextView.class,
+                    R.id.headline_source_time, TextView.class);
+            when(root.findViewById(id)).thenReturn(headline);
+        }
+        DashboardAdapter.HeadlinesViewHolder holder = new DashboardAdapter.HeadlinesViewHolder(root);
+
+        HeadlinesCardState.Row row = new HeadlinesCardState.Row("Headline", "BBC News", "https://example.com/a");
+        HeadlinesCardState state = new HeadlinesCardState(new HeadlinesCardState.Row[] {row});
+
+        CardBinder.bindHeadlines(holder, state, listener);
+
+        verify(holder.headlineViews[0].title).setText(same(row.title));
+        verify(holder.headlineViews[0].source).setText(same(row.source));
+        verify(holder.errorText).setVisibility(View.GONE);
+        verify(holder.headlineViews[2].parent).setVisibility(View.GONE);
+        verifyNoFormatting();
+    }
+
+    /** Builds a mock view whose children, given as (id, type) pairs, are mocks of that type. */
+    private View container(Object... idsAndTypes) {
+        View parent = track(mock(View.class));
+        Map<Integer, View> children = new HashMap<>();
+        for (int i = 0; i < idsAndTypes.length; i += 2) {
+            @SuppressWarnings("unchecked")
+            Class<? extends View> type = (Class<? extends View>) idsAndTypes[i + 1];
+            children.put((Integer) idsAndTypes[i], track(mock(type)));
+        }
+        when(parent.findViewById(anyInt())).thenAnswer(invocation -> children.get(invocation.<Integer>getArgument(0)));
+        return parent;
+    }
+
+    private View track(View view) {
+        views.add(view);
+        return view;
+    }
+
+    private void verifyNoFormatting() {
+        for (View view : views) {
+            verify(view, never()).getContext();
+            verify(view, never()).getResources();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.theloop;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.theloop.ui.WeatherCardState;
+
+public class DashboardItemTest {
+
+    @Test
+    public void header_reportsOnlyTheChangedPart() {
+        DashboardItem.HeaderItem old = new DashboardItem.HeaderItem("Good morning", null);
+
+        assertEquals(0, new DashboardItem.HeaderItem("Good morning", null).changesFrom(old));
+        assertEquals(DashboardItem.HeaderItem.CHANGED_SUMMARY,
+                new DashboardItem.HeaderItem("Good morning", "Sunny").changesFrom(old));
+        assertEquals(DashboardItem.HeaderItem.CHANGED_GREETING,
+                new DashboardItem.HeaderItem("Good afternoon", null).changesFrom(old));
+    }
+
+    @Test
+    public void weather_locationUpdateDoesNotRebindContent() {
+        WeatherCardState state = new WeatherCardState("12°C", "Sunny", 0, "", new WeatherCardState.Day[0]);
+        DashboardItem.WeatherItem old = new DashboardItem.WeatherItem(state, false, null);
+
+        assertEquals(DashboardItem.WeatherItem.CHANGED_LOCATION,
+                new DashboardItem.WeatherItem(state, false, "London").changesFrom(old));
+        assertEquals(DashboardItem.WeatherItem.CHANGED_CONTENT,
+                new DashboardItem.WeatherItem(
+                        new WeatherCardState("54°F", "Sunny", 0, "", new WeatherCardState.Day[0]), false, null).changesFrom(old));
+    }
+
+    @Test
+    public void stableIds_areDistinctPerCard() {
+        assertNotEquals(new DashboardItem.HeadlinesItem(DashboardAdapter.TYPE_HEADLINES, null, false).getStableId(),
+                new DashboardItem.HeadlinesItem(DashboardAdapter.TYPE_UK_NEWS, null, false).getStableId());
+        assertEquals(DashboardItem.FooterItem.INSTANCE.getStableId(), DashboardAdapter.TYPE_FOOTER);
+    }
+}
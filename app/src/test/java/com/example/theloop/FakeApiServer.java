@@ -0,0 +1,84 @@
+package com.example.theloop;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+/**
+ * A local stand-in for one of the app's APIs. Every request is answered with a recorded fixture
+ * from {@code src/test/resources/fixtures}, after an optional delay, or with an error status or a
+ * dropped connection instead.
+ */
+final class FakeApiServer {
+
+    private final MockWebServer server = new MockWebServer();
+    private final String fixture;
+    private volatile long latencyMillis;
+    private volatile int errorCode;
+    private volatile boolean disconnect;
+    private final AtomicLong firstRequestAt = new AtomicLong();
+
+    FakeApiServer(String fixtureName) throws IOException {
+        fixture = readFixture(fixtureName);
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                firstRequestAt.compareAndSet(0, System.nanoTime());
+                if (disconnect) {
+                    return new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START);
+                }
+                MockResponse response = errorCode != 0
+                        ? new MockResponse().setResponseCode(errorCode).setBody("{\"error\":true}")
+                        : new MockResponse().setHeader("Content-Type", "application/json").setBody(fixture);
+                return response.setHeadersDelay(latencyMillis, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start();
+    }
+
+    /** Base URL to hand to {@link com.example.theloop.network.ApiEndpoints}, ending in a slash. */
+    String url(String path) {
+        return server.url(path).toString();
+    }
+
+    void setLatency(long millis) {
+        latencyMillis = millis;
+    }
+
+    /** Answers every request with {@code code}, e.g. 503; 0 restores the fixture. */
+    void failWith(int code) {
+        errorCode = code;
+    }
+
+    void dropConnections(boolean drop) {
+        disconnect = drop;
+    }
+
+    /** When the first request arrived, in {@link System#nanoTime()}, or 0 if none has. */
+    long getFirstRequestAt() {
+        return firstRequestAt.get();
+    }
+
+    int getRequestCount() {
+        return server.getRequestCount();
+    }
+
+    void shutdown() throws IOException {
+        server.shutdown();
+    }
+
+    private static String readFixture(String name) throws IOException {
+        try (InputStream in = FakeApiServer.class.getClassLoader().getResourceAsStream("fixtures/" + name)) {
+            if (in == null) throw new IOException("Missing fixture " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
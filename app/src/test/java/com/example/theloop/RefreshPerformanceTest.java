@@ -0,0 +1,257 @@
+package com.example.theloop;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+import android.net.NetworkCapabilities;
+import android.os.Looper;
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.work.testing.WorkManagerTestInitHelper;
+
+import com.example.theloop.data.DashboardRepository;
+import com.example.theloop.data.SnapshotStore;
+import com.example.theloop.diagnostics.RefreshStats;
+import com.example.theloop.diagnostics.StartupMetrics;
+import com.example.theloop.diagnostics.Telemetry;
+import com.example.theloop.network.ApiEndpoints;
+import com.example.theloop.network.HttpClientProvider;
+import com.example.theloop.utils.AppConstants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowNetworkCapabilities;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Boots the dashboard against local stand-ins for Open-Meteo, ok.surf and uselessfacts and holds
+ * a refresh to its budgets: wall time, requests per API, binds per card and preference writes.
+ */
+@RunWith(RobolectricTestRunner.class)
+// A plain Application, as in StartupMetricsTest; the dashboard's own startup work runs in MainActivity.
+@Config(sdk = {28}, application = Application.class)
+public class RefreshPerformanceTest {
+
+    private static final long LATENCY_MS = 400;
+    // All feeds are fetched concurrently, so a cycle costs about one round trip. Fetching them one
+    // after another would take at least three, which this budget does not leave room for.
+    private static final long WALL_TIME_BUDGET_MS = 2 * LATENCY_MS + 200;
+    private static final long WAIT_LIMIT_MS = 10_000;
+    // The loading state, the fetched content and a couple of summary or location updates.
+    private static final int BINDS_PER_CARD_BUDGET = 4;
+    // Changed keys: the section order on first start, the summary cache and the widget snapshot
+    // (three keys per edit) once the weather and once the summary have arrived.
+    private static final int PREFS_WRITES_BUDGET = 8;
+
+    private final Context context = ApplicationProvider.getApplicationContext();
+    private final List<String> prefsWrites = new ArrayList<>();
+    // Preferences hold their listeners weakly.
+    private final SharedPreferences.OnSharedPreferenceChangeListener prefsListener =
+            (prefs, key) -> prefsWrites.add(key);
+    private final List<SharedPreferences> watchedPrefs = new ArrayList<>();
+
+    private FakeApiServer weather;
+    private FakeApiServer news;
+    private FakeApiServer funFact;
+    private ActivityController<MainActivity> controller;
+
+    @Before
+    public void setUp() throws IOException {
+        WorkManagerTestInitHelper.initializeTestWorkManager(context);
+        DashboardRepository.resetInstance();
+        SnapshotStore.resetInstance();
+        StartupMetrics.reset();
+        RefreshStats.reset();
+        Telemetry.reset();
+
+        weather = new FakeApiServer("weather.json");
+        news = new FakeApiServer("news.json");
+        funFact = new FakeApiServer("funfact.json");
+        // Without OkHttp's silent retry of a failed connection, every attempt reaches the servers
+        // and their request counts are exact. Set before the endpoints, whose change rebuilds the
+        // Retrofit clients around this client.
+        HttpClientProvider.override(HttpClientProvider.getClient(context).newBuilder()
+                .retryOnConnectionFailure(false)
+                .build());
+        ApiEndpoints.override(weather.url("/"), news.url("/api/v1/"), funFact.url("/"));
+
+        context.getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .putBoolean(AppConstants.KEY_ONBOARDING_COMPLETED, true)
+                .putString(AppConstants.KEY_TEMP_UNIT, AppConstants.DEFAULT_TEMP_UNIT)
+                .putBoolean(AppConstants.KEY_WEATHER_CANONICAL, true)
+                .commit();
+
+        ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        NetworkCapabilities capabilities = ShadowNetworkCapabilities.newInstance();
+        shadowOf(capabilities).addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+        shadowOf(cm).setNetworkCapabilities(cm.getActiveNetwork(), capabilities);
+
+        for (String name : new String[] {AppConstants.PREFS_NAME, "TheLoopWidget", "TheLoopRefresh"}) {
+            SharedPreferences prefs = context.getSharedPreferences(name, Context.MODE_PRIVATE);
+            prefs.registerOnSharedPreferenceChangeListener(prefsListener);
+            watchedPrefs.add(prefs);
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (controller != null) controller.pause().stop().destroy();
+        for (SharedPreferences prefs : watchedPrefs) {
+            prefs.unregisterOnSharedPreferenceChangeListener(prefsListener);
+        }
+        DashboardRepository.resetInstance();
+        ApiEndpoints.reset();
+        HttpClientProvider.reset();
+        weather.shutdown();
+        news.shutdown();
+        funFact.shutdown();
+    }
+
+    @Test
+    public void coldRefresh_staysWithinBudgets() throws InterruptedException {
+        weather.setLatency(LATENCY_MS);
+        news.setLatency(LATENCY_MS);
+        funFact.setLatency(LATENCY_MS);
+
+        long wallTime = startAndAwaitCycles(1);
+
+        assertTrue("refresh took " + wallTime + " ms", wallTime < WALL_TIME_BUDGET_MS);
+        long spread = TimeUnit.NANOSECONDS.toMillis(lastFirstRequest() - firstRequest());
+        assertTrue("requests started " + spread + " ms apart", spread < LATENCY_MS);
+        assertEquals(1, weather.getRequestCount());
+        assertEquals(1, news.getRequestCount());
+        assertEquals(1, funFact.getRequestCount());
+        assertEquals(1, Telemetry.feed(Telemetry.Feed.WEATHER).getCacheCount(Telemetry.CacheOutcome.MISS));
+        assertEquals(1, Telemetry.feed(Telemetry.Feed.WEATHER).latencyMillis.getCount());
+        assertTrue(Telemetry.feed(Telemetry.Feed.NEWS).responseBytes.getMax() > 0);
+        for (int type = DashboardAdapter.TYPE_HEADER; type <= DashboardAdapter.TYPE_FOOTER; type++) {
+            long binds = Telemetry.getBindCount(type);
+            assertTrue("view type " + type + " bound " + binds + " times", binds <= BINDS_PER_CARD_BUDGET);
+        }
+        assertTrue("preference writes: " + prefsWrites, prefsWrites.size() <= PREFS_WRITES_BUDGET);
+
+        DashboardAdapter.WeatherViewHolder holder = (DashboardAdapter.WeatherViewHolder)
+                recyclerView().findViewHolderForAdapterPosition(1);
+        assertNotNull(holder);
+        assertEquals(View.VISIBLE, holder.contentLayout.getVisibility());
+    }
+
+    @Test
+    public void secondStart_servesFreshCachesWithoutRefetching() throws InterruptedException {
+        startAndAwaitCycles(1);
+        controller.pause().stop().destroy();
+        prefsWrites.clear();
+
+        startAndAwaitCycles(2);
+
+        assertEquals(1, weather.getRequestCount());
+        assertEquals(1, news.getRequestCount());
+        // The fun fact is not cached; each start asks for a new one.
+        assertEquals(2, funFact.getRequestCount());
+        // Only the first start missed the cache.
+        assertEquals(1, Telemetry.feed(Telemetry.Feed.WEATHER).getCacheCount(Telemetry.CacheOutcome.MISS));
+        assertEquals(1, Telemetry.feed(Telemetry.Feed.NEWS).getCacheCount(Telemetry.CacheOutcome.MISS));
+        assertTrue(Telemetry.feed(Telemetry.Feed.WEATHER).getCacheCount(Telemetry.CacheOutcome.HIT) >= 1);
+        assertTrue("preference writes: " + prefsWrites, prefsWrites.size() <= PREFS_WRITES_BUDGET);
+    }
+
+    @Test
+    public void serverErrors_completeTheCycleWithoutRetrying() throws InterruptedException {
+        weather.failWith(503);
+        news.failWith(500);
+        funFact.failWith(502);
+
+        long wallTime = startAndAwaitCycles(1);
+
+        assertTrue("refresh took " + wallTime + " ms", wallTime < WALL_TIME_BUDGET_MS);
+        assertEquals(1, weather.getRequestCount());
+        assertEquals(1, news.getRequestCount());
+        assertEquals(1, funFact.getRequestCount());
+        assertEquals(1, Telemetry.feed(Telemetry.Feed.WEATHER).getFailures());
+        DashboardAdapter.WeatherViewHolder holder = (DashboardAdapter.WeatherViewHolder)
+                recyclerView().findViewHolderForAdapterPosition(1);
+        assertNotNull(holder);
+        assertEquals(View.VISIBLE, holder.errorText.getVisibility());
+    }
+
+    @Test
+    public void droppedConnections_completeTheCycle() throws InterruptedException {
+        weather.dropConnections(true);
+        news.dropConnections(true);
+        funFact.dropConnections(true);
+
+        long wallTime = startAndAwaitCycles(1);
+
+        assertTrue("refresh took " + wallTime + " ms", wallTime < WALL_TIME_BUDGET_MS);
+        // One attempt each, as this client does not retry the dropped connection.
+        assertEquals(1, weather.getRequestCount());
+        assertEquals(1, news.getRequestCount());
+        assertEquals(1, funFact.getRequestCount());
+        assertEquals(1, Telemetry.feed(Telemetry.Feed.NEWS).getFailures());
+        assertTrue(Telemetry.getBindCount(DashboardAdapter.TYPE_FUN_FACT) >= 1);
+    }
+
+    /**
+     * Starts the activity and waits until {@code cycles} refresh cycles have completed in total,
+     * laying the list out as frames would. Returns the real time in millis from the first request
+     * the fake servers received to the end of the cycle, leaving out booting the activity.
+     */
+    private long startAndAwaitCycles(int cycles) throws InterruptedException {
+        long start = System.nanoTime();
+        controller = Robolectric.buildActivity(MainActivity.class).setup();
+        long deadline = start + WAIT_LIMIT_MS * 1_000_000L;
+        // The main looper clock is not advanced, so the cycle's deadline and the first-frame
+        // timeout cannot fire; the cycle ends when every feed has answered.
+        while (RefreshStats.getCompletedCycles() < cycles && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            shadowOf(Looper.getMainLooper()).idle();
+            layOut(recyclerView());
+        }
+        long end = System.nanoTime();
+        assertTrue("refresh cycle never completed", RefreshStats.getCompletedCycles() >= cycles);
+        shadowOf(Looper.getMainLooper()).idle();
+        layOut(recyclerView());
+        long first = firstRequest();
+        return TimeUnit.NANOSECONDS.toMillis(end - (first != 0 ? first : start));
+    }
+
+    /** The earliest first request across the fake servers, or 0 if none was made. */
+    private long firstRequest() {
+        long first = 0;
+        for (FakeApiServer server : new FakeApiServer[] {weather, news, funFact}) {
+            long at = server.getFirstRequestAt();
+            if (at != 0 && (first == 0 || at < first)) first = at;
+        }
+        return first;
+    }
+
+    private long lastFirstRequest() {
+        return Math.max(weather.getFirstRequestAt(), Math.max(news.getFirstRequestAt(), funFact.getFirstRequestAt()));
+    }
+
+    private RecyclerView recyclerView() {
+        return controller.get().findViewById(R.id.dashboard_recycler_view);
+    }
+
+    private static void layOut(RecyclerView recyclerView) {
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(4000, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, 1080, 4000);
+    }
+}
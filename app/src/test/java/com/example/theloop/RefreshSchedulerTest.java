@@ -0,0 +1,135 @@
+package com.example.theloop;
+
+import android.app.Application;
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import androidx.work.testing.TestDriver;
+import androidx.work.testing.WorkManagerTestInitHelper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = {28}, application = Application.class)
+public class RefreshSchedulerTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/London");
+    private static final long[] NO_EVENTS = new long[0];
+
+    private final Context context = ApplicationProvider.getApplicationContext();
+
+    @Before
+    public void setUp() {
+        WorkManagerTestInitHelper.initializeTestWorkManager(context);
+    }
+
+    private static ZonedDateTime at(int hour, int minute) {
+        // 2024-05-06 is in BST, so UTC is an hour behind the local time.
+        return ZonedDateTime.of(2024, 5, 6, hour, minute, 0, 0, ZONE);
+    }
+
+    @Test
+    public void computeDelay_backsOffWhileUnchanged() {
+        // 09:10 local is 08:10 UTC, just past the 06 UTC run becoming available.
+        ZonedDateTime now = at(9, 10);
+        assertEquals(TimeUnit.MINUTES.toMillis(30), RefreshScheduler.computeDelay(now, NO_EVENTS, 0));
+        assertEquals(TimeUnit.MINUTES.toMillis(60), RefreshScheduler.computeDelay(now, NO_EVENTS, 1));
+        assertEquals(TimeUnit.MINUTES.toMillis(120), RefreshScheduler.computeDelay(now, NO_EVENTS, 2));
+        assertEquals(TimeUnit.HOURS.toMillis(3), RefreshScheduler.computeDelay(now, NO_EVENTS, 10));
+    }
+
+    @Test
+    public void computeDelay_wakesForNextModelRun() {
+        // The 12 UTC run is served around 14:00 UTC, i.e. 15:00 local.
+        assertEquals(TimeUnit.MINUTES.toMillis(40), RefreshScheduler.computeDelay(at(14, 20), NO_EVENTS, 3));
+    }
+
+    @Test
+    public void computeDelay_sleepsUntilMorning() {
+        assertEquals(TimeUnit.MINUTES.toMillis(390), RefreshScheduler.computeDelay(at(23, 30), NO_EVENTS, 0));
+        assertEquals(TimeUnit.MINUTES.toMillis(60), RefreshScheduler.computeDelay(at(5, 0), NO_EVENTS, 0));
+    }
+
+    @Test
+    public void computeDelay_refreshesAheadOfEvents() {
+        ZonedDateTime now = at(9, 10);
+        long meeting = now.plusMinutes(90).toInstant().toEpochMilli();
+        assertEquals(TimeUnit.MINUTES.toMillis(45), RefreshScheduler.computeDelay(now, new long[] {meeting}, 3));
+
+        // An early event pulls the overnight refresh forward.
+        ZonedDateTime night = at(1, 0);
+        long breakfast = at(5, 45).toInstant().toEpochMilli();
+        assertEquals(TimeUnit.MINUTES.toMillis(240), RefreshScheduler.computeDelay(night, new long[] {breakfast}, 0));
+    }
+
+    @Test
+    public void computeDelay_neverBelowMinimum() {
+        ZonedDateTime now = at(9, 10);
+        long soon = now.plusMinutes(50).toInstant().toEpochMilli();
+        assertEquals(TimeUnit.MINUTES.toMillis(15), RefreshScheduler.computeDelay(now, new long[] {soon}, 0));
+    }
+
+    @Test
+    public void ensureScheduled_replacesLegacyPeriodicWork() throws Exception {
+        WorkManager workManager = WorkManager.getInstance(context);
+        workManager.enqueueUniquePeriodicWork(RefreshScheduler.LEGACY_WORK_NAME, ExistingPeriodicWorkPolicy.KEEP,
+                new PeriodicWorkRequest.Builder(WidgetUpdateWorker.class, 30, TimeUnit.MINUTES).build()).getResult().get();
+
+        RefreshScheduler.ensureScheduled(context);
+        RefreshScheduler.ensureScheduled(context);
+
+        List<WorkInfo> legacy = workManager.getWorkInfosForUniqueWork(RefreshScheduler.LEGACY_WORK_NAME).get();
+        assertEquals(WorkInfo.State.CANCELLED, legacy.get(0).getState());
+        List<WorkInfo> pending = workManager.getWorkInfosForUniqueWork(RefreshScheduler.WORK_NAME).get();
+        assertEquals(1, pending.size());
+        assertEquals(WorkInfo.State.ENQUEUED, pending.get(0).getState());
+    }
+
+    @Test
+    public void workerRun_chainsTheNextRequest() throws Exception {
+        WorkManager workManager = WorkManager.getInstance(context);
+        RefreshScheduler.ensureScheduled(context);
+        WorkInfo first = workManager.getWorkInfosForUniqueWork(RefreshScheduler.WORK_NAME).get().get(0);
+
+        // No saved location, so the run fails fast without touching the network.
+        TestDriver driver = WorkManagerTestInitHelper.getTestDriver(context);
+        driver.setAllConstraintsMet(first.getId());
+        driver.setInitialDelayMet(first.getId());
+
+        // CoroutineWorker finishes on a background dispatcher.
+        List<WorkInfo> infos = workManager.getWorkInfosForUniqueWork(RefreshScheduler.WORK_NAME).get();
+        for (int i = 0; i < 250 && !isChained(infos); i++) {
+            Thread.sleep(20);
+            infos = workManager.getWorkInfosForUniqueWork(RefreshScheduler.WORK_NAME).get();
+        }
+        assertEquals(2, infos.size());
+        for (WorkInfo info : infos) {
+            if (info.getId().equals(first.getId())) {
+                assertEquals(WorkInfo.State.SUCCEEDED, info.getState());
+            } else {
+                assertEquals(WorkInfo.State.ENQUEUED, info.getState());
+            }
+        }
+    }
+
+    private static boolean isChained(List<WorkInfo> infos) {
+        return infos.size() == 2
+                && infos.get(0).getState().isFinished() != infos.get(1).getState().isFinished()
+                && (infos.get(0).getState() == WorkInfo.State.ENQUEUED || infos.get(1).getState() == WorkInfo.State.ENQUEUED);
+    }
+}
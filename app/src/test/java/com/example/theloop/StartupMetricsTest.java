@@ -0,0 +1,97 @@
+package com.example.theloop;
+
+import android.app.Application;
+import android.content.Context;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.work.testing.WorkManagerTestInitHelper;
+
+import com.example.theloop.data.SnapshotStore;
+import com.example.theloop.diagnostics.StartupMetrics;
+import com.example.theloop.utils.AppConstants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Starts the dashboard with a warm cache and checks that the cached day is the first thing shown,
+ * without waiting for the network or the first-frame timeout.
+ */
+@RunWith(RobolectricTestRunner.class)
+// A plain Application, so the process start is the one marked in setUp.
+@Config(sdk = {28}, application = Application.class)
+public class StartupMetricsTest {
+
+    private static final String WEATHER_JSON = "{\"latitude\":" + AppConstants.DEFAULT_LATITUDE
+            + ",\"longitude\":" + AppConstants.DEFAULT_LONGITUDE
+            + ",\"current\":{\"time\":\"2024-05-06T09:00\",\"temperature_2m\":12.3,\"weather_code\":0}"
+            + ",\"daily\":{\"time\":[\"2024-05-06\",\"2024-05-07\"],\"weather_code\":[0,3]"
+            + ",\"temperature_2m_max\":[14.0,12.0],\"temperature_2m_min\":[6.0,5.0]}}";
+    private static final String NEWS_JSON = "{\"US\":[{\"source\":\"AP\",\"title\":\"Cached headline\",\"link\":\"https://example.com\"}]}";
+
+    private final Context context = ApplicationProvider.getApplicationContext();
+    private ActivityController<MainActivity> controller;
+
+    @Before
+    public void setUp() {
+        WorkManagerTestInitHelper.initializeTestWorkManager(context);
+        StartupMetrics.reset();
+        StartupMetrics.markProcessStart(SystemClock.uptimeMillis());
+
+        context.getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .putBoolean(AppConstants.KEY_ONBOARDING_COMPLETED, true)
+                .putString(AppConstants.KEY_TEMP_UNIT, "celsius")
+                .putString(AppConstants.KEY_SUMMARY_CACHE, "Cached summary")
+                .commit();
+        long now = System.currentTimeMillis();
+        SnapshotStore store = SnapshotStore.getInstance(context);
+        store.write(SnapshotStore.FEED_WEATHER, WEATHER_JSON, now);
+        store.write(SnapshotStore.FEED_NEWS, NEWS_JSON, now);
+    }
+
+    @After
+    public void tearDown() {
+        if (controller != null) controller.pause().stop().destroy();
+    }
+
+    @Test
+    public void firstContent_comesFromCacheBeforeTimeout() throws InterruptedException {
+        controller = Robolectric.buildActivity(MainActivity.class).setup();
+
+        // The cache is read and card states are built on background dispatchers; the main looper
+        // clock is not advanced, so the first-frame timeout cannot fire while we wait.
+        for (int i = 0; i < 250 && !StartupMetrics.hasFirstContent(); i++) {
+            Thread.sleep(20);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+
+        assertTrue("first content was never recorded", StartupMetrics.hasFirstContent());
+        // The timeout opens the gate with fromCache = false, so this also shows it did not fire.
+        // The elapsed time itself is not checked: with the clock paused it is always 0.
+        assertTrue(StartupMetrics.isFirstContentFromCache());
+
+        RecyclerView recyclerView = controller.get().findViewById(R.id.dashboard_recycler_view);
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(4000, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, 1080, 4000);
+
+        DashboardAdapter.WeatherViewHolder weather =
+                (DashboardAdapter.WeatherViewHolder) recyclerView.findViewHolderForAdapterPosition(1);
+        assertNotNull(weather);
+        assertEquals(View.VISIBLE, weather.contentLayout.getVisibility());
+        assertEquals("12°C", weather.temp.getText().toString());
+    }
+}
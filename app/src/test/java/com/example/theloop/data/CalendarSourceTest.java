@@ -0,0 +1,170 @@
+package com.example.theloop.data;
+
+import android.content.ContentProvider;
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.net.Uri;
+import android.os.Looper;
+import android.provider.CalendarContract;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import kotlin.Unit;
+import kotlin.coroutines.EmptyCoroutineContext;
+import kotlinx.coroutines.BuildersKt;
+import kotlinx.coroutines.CoroutineScope;
+import kotlinx.coroutines.CoroutineScopeKt;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = {28})
+public class CalendarSourceTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    /** Serves Instances rows the way the calendar provider does for the query CalendarSource makes. */
+    public static class FakeCalendarProvider extends ContentProvider {
+        static final List<Object[]> rows = new ArrayList<>();
+        static int queries;
+
+        static void add(long id, String title, long begin) {
+            rows.add(new Object[] {id, title, begin, begin + HOUR, null, "Personal"});
+        }
+
+        @Override
+        public boolean onCreate() {
+            return true;
+        }
+
+        @Override
+        public Cursor query(Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder) {
+            queries++;
+            // .../instances/when/<begin>/<end>, filtered on BEGIN >= ? and sorted by BEGIN.
+            List<String> segments = uri.getPathSegments();
+            long windowEnd = Long.parseLong(segments.get(segments.size() - 1));
+            long from = Long.parseLong(selectionArgs[0]);
+            List<Object[]> matching = new ArrayList<>();
+            for (Object[] row : rows) {
+                long begin = (Long) row[2];
+                if (begin >= from && begin <= windowEnd) matching.add(row);
+            }
+            matching.sort((a, b) -> Long.compare((Long) a[2], (Long) b[2]));
+            MatrixCursor cursor = new MatrixCursor(projection);
+            for (Object[] row : matching) cursor.addRow(row);
+            return cursor;
+        }
+
+        @Override
+        public String getType(Uri uri) {
+            return null;
+        }
+
+        @Override
+        public Uri insert(Uri uri, ContentValues values) {
+            return null;
+        }
+
+        @Override
+        public int delete(Uri uri, String selection, String[] selectionArgs) {
+            return 0;
+        }
+
+        @Override
+        public int update(Uri uri, ContentValues values, String selection, String[] selectionArgs) {
+            return 0;
+        }
+    }
+
+    private final Context context = ApplicationProvider.getApplicationContext();
+    private CoroutineScope scope;
+    private CalendarSource source;
+    private long now;
+
+    @Before
+    public void setUp() {
+        FakeCalendarProvider.rows.clear();
+        FakeCalendarProvider.queries = 0;
+        Robolectric.setupContentProvider(FakeCalendarProvider.class, CalendarContract.AUTHORITY);
+        // Debounced reloads run on the paused main looper, so they stay out of the way.
+        scope = CoroutineScopeKt.MainScope();
+        source = new CalendarSource(context, scope);
+        now = System.currentTimeMillis();
+    }
+
+    @After
+    public void tearDown() {
+        source.stopObserving();
+        CoroutineScopeKt.cancel(scope, null);
+    }
+
+    private CalendarSource.Result load(int maxEvents) throws InterruptedException {
+        return BuildersKt.runBlocking(EmptyCoroutineContext.INSTANCE,
+                (coroutineScope, continuation) -> source.load(maxEvents, continuation));
+    }
+
+    @Test
+    public void load_returnsTheFirstEventsOfTheWindowAndCountsTheRest() throws Exception {
+        FakeCalendarProvider.add(1, "Already started", now - HOUR);
+        FakeCalendarProvider.add(2, "Standup", now + HOUR);
+        FakeCalendarProvider.add(3, "Lunch", now + 3 * HOUR);
+        FakeCalendarProvider.add(4, "Dentist", now + 5 * HOUR);
+        FakeCalendarProvider.add(5, "Gym", now + 20 * HOUR);
+        FakeCalendarProvider.add(6, "Tomorrow's standup", now + 25 * HOUR);
+
+        CalendarSource.Result result = load(2);
+
+        assertFalse(result.getError());
+        assertEquals(4, result.getTotalCount());
+        assertEquals(2, result.getEvents().size());
+        assertEquals("Standup", result.getEvents().get(0).getTitle());
+        assertEquals("Lunch", result.getEvents().get(1).getTitle());
+    }
+
+    @Test
+    public void load_countsEventsPastTheIndexCap() throws Exception {
+        int total = CalendarSource.MAX_INDEXED_EVENTS + 50;
+        for (int i = 0; i < total; i++) {
+            FakeCalendarProvider.add(i, "Slot " + i, now + HOUR + i * 60_000L);
+        }
+
+        CalendarSource.Result result = load(3);
+
+        assertEquals(total, result.getTotalCount());
+        assertEquals(3, result.getEvents().size());
+        assertEquals("Slot 0", result.getEvents().get(0).getTitle());
+    }
+
+    @Test
+    public void load_reusesTheIndexUntilTheCalendarChanges() throws Exception {
+        FakeCalendarProvider.add(1, "Standup", now + HOUR);
+        assertEquals(1, load(3).getTotalCount());
+        assertEquals(1, load(3).getTotalCount());
+        assertEquals(1, FakeCalendarProvider.queries);
+
+        source.startObserving(() -> Unit.INSTANCE);
+        FakeCalendarProvider.add(2, "Lunch", now + 2 * HOUR);
+        context.getContentResolver().notifyChange(CalendarContract.Events.CONTENT_URI, null);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        CalendarSource.Result result = load(3);
+        assertEquals(2, FakeCalendarProvider.queries);
+        assertEquals(2, result.getTotalCount());
+        assertEquals("Lunch", result.getEvents().get(1).getTitle());
+    }
+}
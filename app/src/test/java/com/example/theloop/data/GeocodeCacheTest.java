@@ -0,0 +1,48 @@
+package com.example.theloop.data;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = {28})
+public class GeocodeCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void evictsLeastRecentlyUsedCell() throws Exception {
+        GeocodeCache cache = new GeocodeCache(new File(folder.getRoot(), "geo.bin"), 2);
+        cache.put("gcpvj0", "London");
+        cache.put("u4pruy", "Aalborg");
+        assertEquals("London", cache.get("gcpvj0"));
+        cache.put("gcw2j2", "Manchester");
+
+        assertNull(cache.get("u4pruy"));
+        assertEquals("London", cache.get("gcpvj0"));
+        assertEquals("Manchester", cache.get("gcw2j2"));
+    }
+
+    @Test
+    public void survivesRestartInLruOrder() throws Exception {
+        File file = new File(folder.getRoot(), "geo.bin");
+        GeocodeCache cache = new GeocodeCache(file, 2);
+        cache.put("gcpvj0", "London");
+        cache.put("u4pruy", "Aalborg");
+        cache.get("gcpvj0");
+        cache.put("gcw2j2", "Manchester");
+
+        GeocodeCache reloaded = new GeocodeCache(file, 2);
+        assertEquals("London", reloaded.get("gcpvj0"));
+        assertEquals("Manchester", reloaded.get("gcw2j2"));
+        assertNull(reloaded.get("u4pruy"));
+    }
+}
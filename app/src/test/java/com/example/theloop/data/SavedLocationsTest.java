@@ -0,0 +1,46 @@
+package com.example.theloop.data;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = {28})
+public class SavedLocationsTest {
+
+    private final Context context = ApplicationProvider.getApplicationContext();
+
+    @Test
+    public void add_replacesSameNameAndKeepsOrder() {
+        assertTrue(SavedLocations.add(context, new SavedLocation("Home", 51.5, -0.1)));
+        assertTrue(SavedLocations.add(context, new SavedLocation("Office", 51.52, -0.08)));
+        assertTrue(SavedLocations.add(context, new SavedLocation("Home", 51.55, -0.11)));
+
+        List<SavedLocation> locations = SavedLocations.load(context);
+        assertEquals(2, locations.size());
+        assertEquals("Office", locations.get(0).name);
+        assertEquals("Home", locations.get(1).name);
+        assertEquals(51.55, locations.get(1).latitude, 0.0);
+    }
+
+    @Test
+    public void add_refusesMoreThanTheLimit() {
+        for (int i = 0; i < SavedLocations.MAX_LOCATIONS; i++) {
+            assertTrue(SavedLocations.add(context, new SavedLocation("Place " + i, i, i)));
+        }
+        assertFalse(SavedLocations.add(context, new SavedLocation("One too many", 0, 0)));
+
+        SavedLocations.remove(context, "Place 0");
+        assertTrue(SavedLocations.add(context, new SavedLocation("One too many", 0, 0)));
+        assertEquals(SavedLocations.MAX_LOCATIONS, SavedLocations.load(context).size());
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.theloop.data;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.theloop.network.ApiEndpoints;
+import com.example.theloop.utils.AppConstants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import kotlin.coroutines.EmptyCoroutineContext;
+import kotlinx.coroutines.BuildersKt;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Fetches saved locations' forecasts against a local Open-Meteo stand-in that reports each
+ * location's latitude as its temperature, so every forecast can be matched to the place it is for.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = {28})
+public class SavedLocationsWeatherTest {
+
+    private static final SavedLocation LONDON = new SavedLocation("London", 51.5, -0.12);
+    private static final SavedLocation PARIS = new SavedLocation("Paris", 48.85, 2.35);
+    private static final SavedLocation OSLO = new SavedLocation("Oslo", 59.91, 10.75);
+    private static final SavedLocation ROME = new SavedLocation("Rome", 41.9, 12.5);
+
+    private final Context context = ApplicationProvider.getApplicationContext();
+    private final MockWebServer server = new MockWebServer();
+    private final List<String> requestedLatitudes = new ArrayList<>();
+    private DashboardRepository repository;
+
+    private static String forecast(String latitude) {
+        return "{\"latitude\":" + latitude + ",\"current\":{\"time\":\"2024-05-06T09:00\",\"temperature_2m\":"
+                + latitude + ",\"weather_code\":0}}";
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        DashboardRepository.resetInstance();
+        SnapshotStore.resetInstance();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String latitudes = request.getRequestUrl().queryParameter("latitude");
+                synchronized (requestedLatitudes) {
+                    requestedLatitudes.add(latitudes);
+                }
+                String[] each = latitudes.split(",");
+                StringBuilder body = new StringBuilder();
+                if (each.length == 1) {
+                    body.append(forecast(each[0]));
+                } else {
+                    body.append('[');
+                    for (int i = 0; i < each.length; i++) {
+                        if (i > 0) body.append(',');
+                        body.append(forecast(each[i]));
+                    }
+                    body.append(']');
+                }
+                return new MockResponse().setHeader("Content-Type", "application/json").setBody(body.toString());
+            }
+        });
+        server.start();
+        ApiEndpoints.override(server.url("/").toString(), ApiEndpoints.OK_SURF, ApiEndpoints.USELESS_FACTS);
+        context.getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .putBoolean(AppConstants.KEY_WEATHER_CANONICAL, true)
+                .commit();
+        repository = DashboardRepository.getInstance(context);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        DashboardRepository.resetInstance();
+        ApiEndpoints.reset();
+        server.shutdown();
+    }
+
+    private List<DashboardRepository.LocationForecast> savedWeather(SavedLocation... locations)
+            throws InterruptedException {
+        return BuildersKt.runBlocking(EmptyCoroutineContext.INSTANCE,
+                (scope, continuation) -> repository.getSavedLocationsWeather(Arrays.asList(locations), continuation));
+    }
+
+    private static void assertForecastFor(SavedLocation location, DashboardRepository.LocationForecast forecast) {
+        assertSame(location, forecast.getLocation());
+        assertNotNull(location.name, forecast.getWeather());
+        assertEquals(location.name, location.latitude, forecast.getWeather().getCurrent().getTemperature(), 1e-9);
+    }
+
+    @Test
+    public void fetchesOnlyUncachedLocationsInOneRequestAndKeepsTheOrder() throws Exception {
+        List<DashboardRepository.LocationForecast> first = savedWeather(LONDON, PARIS);
+        assertEquals(Arrays.asList("51.5000,48.8500"), requestedLatitudes);
+        assertForecastFor(LONDON, first.get(0));
+        assertForecastFor(PARIS, first.get(1));
+
+        List<DashboardRepository.LocationForecast> second = savedWeather(OSLO, LONDON, ROME, PARIS);
+        assertEquals(Arrays.asList("51.5000,48.8500", "59.9100,41.9000"), requestedLatitudes);
+        assertEquals(4, second.size());
+        assertForecastFor(OSLO, second.get(0));
+        assertForecastFor(LONDON, second.get(1));
+        assertForecastFor(ROME, second.get(2));
+        assertForecastFor(PARIS, second.get(3));
+        assertEquals(first.get(0).getFetchedAt(), second.get(1).getFetchedAt());
+    }
+
+    @Test
+    public void batchWritesCoordinatesInPlainDecimals() throws Exception {
+        SavedLocation nearNullIsland = new SavedLocation("Null Island", 0.0001, -0.00012);
+
+        savedWeather(nearNullIsland, LONDON);
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("0.0001,51.5000", request.getRequestUrl().queryParameter("latitude"));
+        assertEquals("-0.0001,-0.1200", request.getRequestUrl().queryParameter("longitude"));
+    }
+
+    @Test
+    public void singleUncachedLocationUsesThePlainRequest() throws Exception {
+        List<DashboardRepository.LocationForecast> forecasts = savedWeather(ROME);
+        assertEquals(Arrays.asList("41.9"), requestedLatitudes);
+        assertForecastFor(ROME, forecasts.get(0));
+    }
+
+    @Test
+    public void failedBatchLeavesForecastsEmpty() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setResponseCode(503);
+            }
+        });
+
+        List<DashboardRepository.LocationForecast> forecasts = savedWeather(LONDON, PARIS);
+
+        assertEquals(2, forecasts.size());
+        assertNull(forecasts.get(0).getWeather());
+        assertEquals(0L, forecasts.get(1).getFetchedAt());
+    }
+
+    @Test
+    public void browsingRecentPlacesDoesNotEvictSavedLocations() throws Exception {
+        savedWeather(LONDON, PARIS);
+
+        // More distinct places than the recent-tile cache holds.
+        for (int i = 0; i < 12; i++) {
+            double latitude = 10 + i;
+            BuildersKt.runBlocking(EmptyCoroutineContext.INSTANCE,
+                    (scope, continuation) -> repository.getWeather(latitude, 20.0, false, continuation));
+        }
+        int requests = requestedLatitudes.size();
+
+        List<DashboardRepository.LocationForecast> forecasts = savedWeather(LONDON, PARIS);
+
+        assertEquals(requests, requestedLatitudes.size());
+        assertForecastFor(LONDON, forecasts.get(0));
+        assertForecastFor(PARIS, forecasts.get(1));
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.theloop.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.theloop.utils.AppConstants;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = {28})
+public class SnapshotStoreTest {
+
+    // magic (4) + version (4) + fetchedAt (8) + crc (8) + length (4)
+    private static final int HEADER_BYTES = 28;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File dir;
+    private SnapshotStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = folder.newFolder("snapshots");
+        store = new SnapshotStore(dir);
+    }
+
+    private File fileFor(String feed) {
+        return new File(dir, feed + ".snap");
+    }
+
+    private void overwrite(String feed, long offset, byte[] bytes) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(fileFor(feed), "rw")) {
+            raf.seek(offset);
+            raf.write(bytes);
+        }
+    }
+
+    @Test
+    public void write_thenReadReturnsPayloadAndTime() {
+        assertTrue(store.write(SnapshotStore.FEED_NEWS, "{\"US\":[\"é\"]}", 1234L));
+
+        SnapshotStore.Snapshot snapshot = new SnapshotStore(dir).read(SnapshotStore.FEED_NEWS);
+        assertNotNull(snapshot);
+        assertEquals("{\"US\":[\"é\"]}", snapshot.payloadAsString());
+        assertEquals(1234L, snapshot.fetchedAt);
+        assertEquals(1234L, store.getFetchedAt(SnapshotStore.FEED_NEWS));
+        assertNull(store.read(SnapshotStore.FEED_WEATHER));
+        assertEquals(0L, store.getFetchedAt(SnapshotStore.FEED_WEATHER));
+    }
+
+    @Test
+    public void read_rejectsPayloadThatFailsTheChecksum() throws IOException {
+        store.write(SnapshotStore.FEED_NEWS, "{\"US\":[]}", 1234L);
+        overwrite(SnapshotStore.FEED_NEWS, HEADER_BYTES + 2, new byte[] {'X'});
+
+        assertNull(store.read(SnapshotStore.FEED_NEWS));
+    }
+
+    @Test
+    public void read_rejectsLengthPastTheEndOfTheFile() throws IOException {
+        store.write(SnapshotStore.FEED_NEWS, "{\"US\":[]}", 1234L);
+        overwrite(SnapshotStore.FEED_NEWS, HEADER_BYTES - 4, new byte[] {0, 0, 0x10, 0});
+
+        assertNull(store.read(SnapshotStore.FEED_NEWS));
+    }
+
+    @Test
+    public void read_rejectsTruncatedFile() throws IOException {
+        store.write(SnapshotStore.FEED_NEWS, "{\"US\":[]}", 1234L);
+        try (RandomAccessFile raf = new RandomAccessFile(fileFor(SnapshotStore.FEED_NEWS), "rw")) {
+            raf.setLength(HEADER_BYTES + 3);
+        }
+
+        assertNull(store.read(SnapshotStore.FEED_NEWS));
+    }
+
+    @Test
+    public void read_rejectsUnknownMagicOrVersion() throws IOException {
+        store.write(SnapshotStore.FEED_NEWS, "{}", 1234L);
+        overwrite(SnapshotStore.FEED_NEWS, 0, new byte[] {'J', 'U', 'N', 'K'});
+        assertNull(store.read(SnapshotStore.FEED_NEWS));
+        assertEquals(0L, store.getFetchedAt(SnapshotStore.FEED_NEWS));
+        assertFalse(store.touch(SnapshotStore.FEED_NEWS, 5678L));
+
+        store.write(SnapshotStore.FEED_WEATHER, "{}", 1234L);
+        overwrite(SnapshotStore.FEED_WEATHER, 4, new byte[] {0, 0, 0, 2});
+        assertNull(store.read(SnapshotStore.FEED_WEATHER));
+        assertEquals(0L, store.getFetchedAt(SnapshotStore.FEED_WEATHER));
+    }
+
+    @Test
+    public void touch_updatesTimeAndKeepsPayload() {
+        assertFalse(store.touch(SnapshotStore.FEED_WEATHER, 5678L));
+        store.write(SnapshotStore.FEED_WEATHER, "{\"current\":{}}", 1234L);
+
+        assertTrue(store.touch(SnapshotStore.FEED_WEATHER, 5678L));
+
+        SnapshotStore.Snapshot snapshot = store.read(SnapshotStore.FEED_WEATHER);
+        assertNotNull(snapshot);
+        assertEquals(5678L, snapshot.fetchedAt);
+        assertEquals("{\"current\":{}}", snapshot.payloadAsString());
+    }
+
+    @Test
+    public void delete_removesOnlyThatFeed() {
+        store.write(SnapshotStore.FEED_WEATHER, "{}", 1L);
+        store.write(SnapshotStore.FEED_NEWS, "{}", 2L);
+
+        store.delete(SnapshotStore.FEED_WEATHER);
+
+        assertNull(store.read(SnapshotStore.FEED_WEATHER));
+        assertNotNull(store.read(SnapshotStore.FEED_NEWS));
+        assertFalse(new File(dir, SnapshotStore.FEED_WEATHER + ".tmp").exists());
+    }
+
+    @Test
+    public void migratesLegacyPrefsOnFirstAccess() {
+        Context context = ApplicationProvider.getApplicationContext();
+        SharedPreferences prefs = context.getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE);
+        prefs.edit()
+                .putString(AppConstants.WEATHER_CACHE_KEY, "{\"current\":{}}")
+                .putString(AppConstants.NEWS_CACHE_KEY, "{\"US\":[]}")
+                .commit();
+
+        SnapshotStore migrating = new SnapshotStore(dir, prefs);
+        assertFalse(fileFor(SnapshotStore.FEED_WEATHER).exists());
+        assertTrue(prefs.contains(AppConstants.NEWS_CACHE_KEY));
+
+        SnapshotStore.Snapshot weather = migrating.read(SnapshotStore.FEED_WEATHER);
+        assertNotNull(weather);
+        assertEquals("{\"current\":{}}", weather.payloadAsString());
+        assertEquals(0L, weather.fetchedAt);
+        assertEquals("{\"US\":[]}", migrating.read(SnapshotStore.FEED_NEWS).payloadAsString());
+        assertFalse(prefs.contains(AppConstants.WEATHER_CACHE_KEY));
+        assertFalse(prefs.contains(AppConstants.NEWS_CACHE_KEY));
+    }
+
+    @Test
+    public void migrationDoesNotReplaceNewerSnapshot() {
+        Context context = ApplicationProvider.getApplicationContext();
+        SharedPreferences prefs = context.getSharedPreferences(AppConstants.PREFS_NAME, Context.MODE_PRIVATE);
+        prefs.edit().putString(AppConstants.NEWS_CACHE_KEY, "{\"US\":[\"old\"]}").commit();
+        store.write(SnapshotStore.FEED_NEWS, "{\"US\":[\"new\"]}", 1234L);
+
+        SnapshotStore migrating = new SnapshotStore(dir, prefs);
+        SnapshotStore.Snapshot news = migrating.read(SnapshotStore.FEED_NEWS);
+
+        assertNotNull(news);
+        assertEquals("{\"US\":[\"new\"]}", news.payloadAsString());
+        assertEquals(1234L, news.fetchedAt);
+        assertFalse(prefs.contains(AppConstants.NEWS_CACHE_KEY));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.theloop.data;
+
+import com.example.theloop.models.WeatherResponse;
+import com.example.theloop.network.GsonProvider;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = {28})
+public class WeatherTileCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Gson gson = GsonProvider.get();
+
+    private WeatherResponse weather(double temperature) {
+        return gson.fromJson("{\"current\":{\"time\":\"2024-05-06T09:00\",\"temperature_2m\":" + temperature
+                + ",\"weather_code\":0}}", WeatherResponse.class);
+    }
+
+    @Test
+    public void tileOf_absorbsJitterButNotDistance() {
+        String tile = WeatherTileCache.tileOf(51.5074, -0.1278);
+        assertEquals(tile, WeatherTileCache.tileOf(51.5079, -0.1271));
+        assertNotEquals(tile, WeatherTileCache.tileOf(51.6074, -0.1278));
+    }
+
+    @Test
+    public void keepsMostRecentTilesAcrossRestarts() throws Exception {
+        SnapshotStore store = new SnapshotStore(folder.newFolder("snapshots"));
+        WeatherTileCache cache = new WeatherTileCache(store, WeatherTileCache.FEED, gson, 2);
+        cache.put("gcpvj", weather(12), 1000L);
+        cache.put("gcw2j", weather(9), 2000L);
+        assertNotNull(cache.get("gcpvj"));
+        cache.put("u4pru", weather(15), 3000L);
+
+        WeatherTileCache reloaded = new WeatherTileCache(store, WeatherTileCache.FEED, gson, 2);
+        assertNull(reloaded.get("gcw2j"));
+        WeatherTileCache.Entry london = reloaded.get("gcpvj");
+        assertNotNull(london);
+        assertEquals(1000L, london.fetchedAt);
+        assertEquals(12.0, london.weather.getCurrent().getTemperature(), 0.0);
+        assertNotNull(reloaded.get("u4pru"));
+    }
+
+    @Test
+    public void touch_updatesTheTimeWithoutRewritingTheFile() throws Exception {
+        SnapshotStore store = new SnapshotStore(folder.newFolder("snapshots"));
+        WeatherTileCache cache = new WeatherTileCache(store, WeatherTileCache.FEED, gson, 2);
+        cache.put("gcpvj", weather(12), 1000L);
+        byte[] before = store.read(WeatherTileCache.FEED).payload;
+
+        assertTrue(cache.touch("gcpvj", 5000L));
+        assertFalse(cache.touch("u4pru", 5000L));
+
+        assertEquals(5000L, cache.get("gcpvj").fetchedAt);
+        assertArrayEquals(before, store.read(WeatherTileCache.FEED).payload);
+        assertEquals(1000L, store.getFetchedAt(WeatherTileCache.FEED));
+
+        // The next put persists the touched time along with the new tile.
+        cache.put("gcw2j", weather(9), 6000L);
+        WeatherTileCache reloaded = new WeatherTileCache(store, WeatherTileCache.FEED, gson, 2);
+        assertEquals(5000L, reloaded.get("gcpvj").fetchedAt);
+        assertEquals(12.0, reloaded.get("gcpvj").weather.getCurrent().getTemperature(), 0.0);
+    }
+
+    @Test
+    public void put_serializesEachForecastOnce() throws Exception {
+        AtomicInteger serialized = new AtomicInteger();
+        Gson countingGson = new GsonBuilder()
+                .registerTypeAdapterFactory(new TypeAdapterFactory() {
+                    @Override
+                    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+                        if (type.getRawType() != WeatherResponse.class) return null;
+                        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+                        return new TypeAdapter<T>() {
+                            @Override
+                            public void write(JsonWriter out, T value) throws IOException {
+                                serialized.incrementAndGet();
+                                delegate.write(out, value);
+                            }
+
+                            @Override
+                            public T read(JsonReader in) throws IOException {
+                                return delegate.read(in);
+                            }
+                        };
+                    }
+                })
+                .create();
+        WeatherTileCache cache = new WeatherTileCache(new SnapshotStore(folder.newFolder("snapshots")),
+                WeatherTileCache.FEED, countingGson, 4);
+
+        cache.put("gcpvj", weather(12), 1000L);
+        cache.put("gcw2j", weather(9), 2000L);
+        cache.put("u4pru", weather(15), 3000L);
+        cache.touch("gcpvj", 4000L);
+        cache.put("u4pru", weather(16), 5000L);
+
+        // One per forecast stored; the rewrites reuse the JSON of the tiles that did not change.
+        assertEquals(4, serialized.get());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.theloop.data;
+
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = {28})
+public class WidgetSnapshotTest {
+
+    private final Context context = ApplicationProvider.getApplicationContext();
+
+    @Test
+    public void write_reportsWhatChanged() {
+        assertEquals(WidgetSnapshot.Change.ALL, WidgetSnapshot.write(context, new WidgetSnapshot("Sunny day", "12°", 0)));
+        assertEquals(WidgetSnapshot.Change.NONE, WidgetSnapshot.write(context, new WidgetSnapshot("Sunny day", "12°", 0)));
+        assertEquals(WidgetSnapshot.Change.TEXT, WidgetSnapshot.write(context, new WidgetSnapshot("Sunny day", "13°", 0)));
+        assertEquals(WidgetSnapshot.Change.ALL, WidgetSnapshot.write(context, new WidgetSnapshot("Rainy day", "13°", 61)));
+    }
+
+    @Test
+    public void read_returnsLastWrite() {
+        WidgetSnapshot.write(context, new WidgetSnapshot("Busy day", "8°", 3));
+
+        WidgetSnapshot snapshot = WidgetSnapshot.read(context);
+        assertEquals("Busy day", snapshot.summary);
+        assertEquals("8°", snapshot.temperature);
+        assertEquals(3, snapshot.weatherCode);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.theloop.health;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HealthSeriesTest {
+
+    @Test
+    public void averageStepsBeforeLast_skipsTodayAndCountsEmptyDays() {
+        HealthSeries series = new HealthSeries(new long[] {0L, 1L, 2L, 3L}, 0L);
+        series.steps[0] = 4000;
+        series.steps[2] = 8000;
+        series.steps[3] = 100;
+
+        assertEquals(4000, series.averageStepsBeforeLast());
+        assertEquals(12100, series.totalSteps());
+    }
+
+    @Test
+    public void averageStepsBeforeLast_isUnknownWithoutHistory() {
+        HealthSeries series = new HealthSeries(new long[] {0L, 1L}, 0L);
+        series.steps[1] = 500;
+        assertEquals(-1, series.averageStepsBeforeLast());
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.theloop.health;
+
+import androidx.health.connect.client.HealthConnectClient;
+import androidx.health.connect.client.aggregate.AggregationResult;
+import androidx.health.connect.client.aggregate.AggregationResultGroupedByDuration;
+import androidx.health.connect.client.changes.Change;
+import androidx.health.connect.client.changes.DeletionChange;
+import androidx.health.connect.client.changes.UpsertionChange;
+import androidx.health.connect.client.records.StepsRecord;
+import androidx.health.connect.client.records.metadata.Metadata;
+import androidx.health.connect.client.response.ChangesResponse;
+import androidx.health.connect.client.response.ReadRecordsResponse;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import kotlin.coroutines.EmptyCoroutineContext;
+import kotlinx.coroutines.BuildersKt;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Robolectric for android.util.Log, which the rebuild path writes to.
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = {28})
+public class StepsSyncEngineTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final int RETENTION_HOURS = 7 * 24;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final HealthConnectClient client = mock(HealthConnectClient.class);
+    private File file;
+    // Epoch hour the clock is in; syncs run half way through it.
+    private long nowHour = 475_000L;
+
+    @Before
+    public void setUp() throws Exception {
+        file = new File(folder.getRoot(), "steps_hourly.bin");
+        when(client.getChangesToken(any(), any())).thenReturn("t0");
+        ReadRecordsResponse<StepsRecord> page = mockReadResponse(Collections.singletonList(record("r1", nowHour, nowHour)));
+        doReturn(page).when(client).readRecords(any(), any());
+        stubAggregate(new long[] {nowHour - 1, 7}, new long[] {nowHour, 500});
+    }
+
+    private StepsSyncEngine engine() {
+        return new StepsSyncEngine(client, file, () -> nowHour * HOUR + HOUR / 2);
+    }
+
+    private static boolean sync(StepsSyncEngine engine) throws InterruptedException {
+        return BuildersKt.runBlocking(EmptyCoroutineContext.INSTANCE, (scope, continuation) -> engine.sync(continuation));
+    }
+
+    private static long steps(StepsSyncEngine engine, long hour) throws InterruptedException {
+        long[] counts = BuildersKt.runBlocking(EmptyCoroutineContext.INSTANCE,
+                (scope, continuation) -> engine.hourlySteps(hour, hour, continuation));
+        return counts[0];
+    }
+
+    private static StepsRecord record(String id, long startHour, long endHour) {
+        Metadata metadata = mock(Metadata.class);
+        when(metadata.getId()).thenReturn(id);
+        StepsRecord record = mock(StepsRecord.class);
+        when(record.getMetadata()).thenReturn(metadata);
+        when(record.getStartTime()).thenReturn(Instant.ofEpochMilli(startHour * HOUR));
+        when(record.getEndTime()).thenReturn(Instant.ofEpochMilli((endHour + 1) * HOUR));
+        return record;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ReadRecordsResponse<StepsRecord> mockReadResponse(List<StepsRecord> records) {
+        ReadRecordsResponse<StepsRecord> response = mock(ReadRecordsResponse.class);
+        when(response.getRecords()).thenReturn(records);
+        when(response.getPageToken()).thenReturn(null);
+        return response;
+    }
+
+    /** Every aggregate request answers with these {hour, count} groups; the engine keeps those in range. */
+    private void stubAggregate(long[]... hourCounts) throws Exception {
+        List<AggregationResultGroupedByDuration> groups = new ArrayList<>();
+        for (long[] hourCount : hourCounts) {
+            AggregationResult result = mock(AggregationResult.class);
+            when(result.get(StepsRecord.COUNT_TOTAL)).thenReturn(hourCount[1]);
+            AggregationResultGroupedByDuration group = mock(AggregationResultGroupedByDuration.class);
+            when(group.getStartTime()).thenReturn(Instant.ofEpochMilli(hourCount[0] * HOUR));
+            when(group.getResult()).thenReturn(result);
+            groups.add(group);
+        }
+        when(client.aggregateGroupByDuration(any(), any())).thenReturn(groups);
+    }
+
+    private void stubChanges(String token, String next, boolean expired, Change... changes) throws Exception {
+        ChangesResponse response = mock(ChangesResponse.class);
+        when(response.getChanges()).thenReturn(Arrays.asList(changes));
+        when(response.getNextChangesToken()).thenReturn(next);
+        when(response.getHasMore()).thenReturn(false);
+        when(response.getChangesTokenExpired()).thenReturn(expired);
+        when(client.getChanges(eq(token), any())).thenReturn(response);
+    }
+
+    private static UpsertionChange upsert(StepsRecord record) {
+        UpsertionChange change = mock(UpsertionChange.class);
+        when(change.getRecord()).thenReturn(record);
+        return change;
+    }
+
+    private static DeletionChange deletion(String id) {
+        DeletionChange change = mock(DeletionChange.class);
+        when(change.getRecordId()).thenReturn(id);
+        return change;
+    }
+
+    @Test
+    public void firstSync_rebuildsAndSavesARollupThatReloads() throws Exception {
+        StepsSyncEngine engine = engine();
+        assertTrue(sync(engine));
+        assertTrue(file.isFile());
+        assertEquals(500, steps(engine, nowHour));
+        assertEquals(7, steps(engine, nowHour - 1));
+
+        StepsSyncEngine reloaded = engine();
+        assertEquals(500, steps(reloaded, nowHour));
+        assertEquals(7, steps(reloaded, nowHour - 1));
+
+        // The reloaded token and index are used: deleting r1 re-aggregates only its hour.
+        stubChanges("t0", "t1", false, deletion("r1"));
+        stubAggregate(new long[] {nowHour - 1, 99});
+        assertTrue(sync(reloaded));
+        assertEquals(0, steps(reloaded, nowHour));
+        assertEquals(7, steps(reloaded, nowHour - 1));
+        verify(client, times(2)).aggregateGroupByDuration(any(), any());
+    }
+
+    @Test
+    public void sync_withoutChangesDoesNotRewriteTheFile() throws Exception {
+        StepsSyncEngine engine = engine();
+        sync(engine);
+        assertTrue(file.delete());
+
+        stubChanges("t0", "t0", false);
+        assertFalse(sync(engine));
+        assertFalse(file.exists());
+        verify(client, times(1)).aggregateGroupByDuration(any(), any());
+    }
+
+    @Test
+    public void sync_savesANewTokenEvenWithoutChanges() throws Exception {
+        StepsSyncEngine engine = engine();
+        sync(engine);
+        assertTrue(file.delete());
+
+        stubChanges("t0", "t1", false);
+        assertFalse(sync(engine));
+        assertTrue(file.isFile());
+
+        stubChanges("t1", "t1", false);
+        assertFalse(sync(engine()));
+        verify(client).getChanges(eq("t1"), any());
+    }
+
+    @Test
+    public void sync_reaggregatesEachRunOfDirtyHoursOnce() throws Exception {
+        StepsSyncEngine engine = engine();
+        sync(engine);
+        assertTrue(file.delete());
+
+        // Hours now-3 and now-2 form one run, now another; now-1 is untouched.
+        stubChanges("t0", "t1", false, upsert(record("r2", nowHour - 3, nowHour - 2)), upsert(record("r1", nowHour, nowHour)));
+        stubAggregate(new long[] {nowHour - 3, 10}, new long[] {nowHour - 2, 20}, new long[] {nowHour - 1, 99},
+                new long[] {nowHour, 30});
+
+        assertTrue(sync(engine));
+        verify(client, times(3)).aggregateGroupByDuration(any(), any());
+        assertEquals(10, steps(engine, nowHour - 3));
+        assertEquals(20, steps(engine, nowHour - 2));
+        assertEquals(7, steps(engine, nowHour - 1));
+        assertEquals(30, steps(engine, nowHour));
+        assertTrue(file.isFile());
+    }
+
+    @Test
+    public void sync_upsertWithSameTotalsReportsNoChangeButSavesTheIndex() throws Exception {
+        StepsSyncEngine engine = engine();
+        sync(engine);
+        assertTrue(file.delete());
+
+        stubChanges("t0", "t0", false, upsert(record("r1", nowHour, nowHour)));
+        assertFalse(sync(engine));
+        assertTrue(file.isFile());
+    }
+
+    @Test
+    public void sync_rebuildsWhenTheTokenHasExpired() throws Exception {
+        StepsSyncEngine engine = engine();
+        sync(engine);
+
+        stubChanges("t0", "", true);
+        when(client.getChangesToken(any(), any())).thenReturn("t9");
+        stubAggregate(new long[] {nowHour, 800});
+
+        assertTrue(sync(engine));
+        assertEquals(800, steps(engine, nowHour));
+        assertEquals(0, steps(engine, nowHour - 1));
+        verify(client, times(2)).getChangesToken(any(), any());
+
+        stubChanges("t9", "t9", false);
+        assertFalse(sync(engine()));
+    }
+
+    @Test
+    public void sync_slidesTheWindowAsTimePasses() throws Exception {
+        StepsSyncEngine engine = engine();
+        sync(engine);
+        long recordedHour = nowHour;
+        assertTrue(file.delete());
+
+        nowHour += 2;
+        stubChanges("t0", "t0", false);
+        assertFalse(sync(engine));
+        // Moving the window is a change to the file even without new data.
+        assertTrue(file.isFile());
+        assertEquals(500, steps(engine, recordedHour));
+
+        nowHour = recordedHour + RETENTION_HOURS;
+        assertFalse(sync(engine));
+        assertEquals(0, steps(engine, recordedHour));
+
+        // r1 fell out of the index with its hour, so deleting it now touches nothing.
+        stubChanges("t0", "t0", false, deletion("r1"));
+        assertTrue(file.delete());
+        assertFalse(sync(engine));
+        assertFalse(file.exists());
+    }
+}
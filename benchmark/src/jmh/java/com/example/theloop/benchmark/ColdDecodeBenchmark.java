@@ -0,0 +1,59 @@
+package com.example.theloop.benchmark;
+
+import com.example.theloop.models.ModelAdapters;
+import com.example.theloop.models.NewsResponse;
+import com.example.theloop.models.WeatherResponse;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The first parse on a new Gson instance, as after a cold start, where reflective binding pays for
+ * scanning the model classes and the streaming adapters do not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 50)
+public class ColdDecodeBenchmark {
+
+    private String weather;
+    private String news;
+
+    @Setup
+    public void setUp() {
+        weather = Fixtures.weather(1);
+        news = Fixtures.news(1);
+    }
+
+    @Benchmark
+    public WeatherResponse weatherStreaming() {
+        return streaming().fromJson(weather, WeatherResponse.class);
+    }
+
+    @Benchmark
+    public WeatherResponse weatherReflective() {
+        return new Gson().fromJson(weather, WeatherResponse.class);
+    }
+
+    @Benchmark
+    public NewsResponse newsStreaming() {
+        return streaming().fromJson(news, NewsResponse.class);
+    }
+
+    private static Gson streaming() {
+        return new GsonBuilder().registerTypeAdapterFactory(ModelAdapters.FACTORY).create();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.theloop.benchmark;
+
+import com.example.theloop.models.NewsDecoder;
+import com.example.theloop.models.NewsResponse;
+import com.example.theloop.models.WeatherResponse;
+import com.example.theloop.network.GsonProvider;
+import com.google.gson.Gson;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.EnumSet;
+import java.util.Set;
+
+/** Decoding the weather and news fixtures the way the app does, with reflective Gson as a baseline. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class DecodeBenchmark {
+
+    /** The categories the dashboard decodes up front. */
+    private static final Set<NewsResponse.Category> DASHBOARD = EnumSet.of(
+            NewsResponse.Category.US, NewsResponse.Category.WORLD,
+            NewsResponse.Category.BUSINESS, NewsResponse.Category.SPORTS);
+
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    private final Gson reflective = new Gson();
+    private String weather;
+    private String news;
+
+    @Setup
+    public void setUp() {
+        weather = Fixtures.weather(scale);
+        news = Fixtures.news(scale);
+    }
+
+    @Benchmark
+    public WeatherResponse weatherStreaming() {
+        return GsonProvider.get().fromJson(weather, WeatherResponse.class);
+    }
+
+    @Benchmark
+    public WeatherResponse weatherReflective() {
+        return reflective.fromJson(weather, WeatherResponse.class);
+    }
+
+    @Benchmark
+    public NewsResponse newsDashboard() throws IOException {
+        return NewsDecoder.decode(new StringReader(news), DASHBOARD, NewsDecoder.DEFAULT_MAX_ARTICLES, null);
+    }
+
+    @Benchmark
+    public NewsResponse newsAllArticles() throws IOException {
+        return NewsDecoder.decode(new StringReader(news), EnumSet.allOf(NewsResponse.Category.class),
+                Integer.MAX_VALUE, null);
+    }
+}
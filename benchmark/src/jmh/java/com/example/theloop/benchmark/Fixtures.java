@@ -0,0 +1,66 @@
+package com.example.theloop.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Loads the fixture payloads and scales them up. Scale 1 is the size the app sees today: a 7-day
+ * forecast and a feed of 12 articles per category. Larger scales repeat the rows, continuing the
+ * dates so every forecast day stays distinct.
+ */
+final class Fixtures {
+
+    private Fixtures() {}
+
+    static String weather(int scale) {
+        JsonObject weather = parse("weather.json").getAsJsonObject();
+        JsonObject daily = weather.getAsJsonObject("daily");
+        JsonArray time = daily.getAsJsonArray("time");
+        LocalDate first = LocalDate.parse(time.get(0).getAsString());
+        int days = time.size();
+        for (Map.Entry<String, JsonElement> column : daily.entrySet()) {
+            JsonArray values = column.getValue().getAsJsonArray();
+            JsonArray scaled = new JsonArray();
+            for (int i = 0; i < days * scale; i++) {
+                if (column.getKey().equals("time")) {
+                    scaled.add(new JsonPrimitive(first.plusDays(i).toString()));
+                } else {
+                    scaled.add(values.get(i % days));
+                }
+            }
+            daily.add(column.getKey(), scaled);
+        }
+        return weather.toString();
+    }
+
+    static String news(int scale) {
+        JsonObject news = parse("news.json").getAsJsonObject();
+        for (Map.Entry<String, JsonElement> category : news.entrySet()) {
+            JsonArray articles = category.getValue().getAsJsonArray();
+            JsonArray scaled = new JsonArray();
+            for (int i = 0; i < scale; i++) scaled.addAll(articles);
+            news.add(category.getKey(), scaled);
+        }
+        return news.toString();
+    }
+
+    private static JsonElement parse(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) throw new IllegalStateException("Missing fixture " + name);
+            // JsonParser's instance method, as Gson 2.8.5 has no static parseString.
+            return new JsonParser().parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
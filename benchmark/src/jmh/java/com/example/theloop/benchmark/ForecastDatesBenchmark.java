@@ -0,0 +1,52 @@
+package com.example.theloop.benchmark;
+
+import com.example.theloop.models.DailyWeather;
+import com.example.theloop.models.WeatherResponse;
+import com.example.theloop.network.GsonProvider;
+import com.example.theloop.utils.ForecastDates;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Forecast day labels, from date strings as the old model held them and from epoch days. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class ForecastDatesBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    private List<String> rawDates;
+    private DailyWeather daily;
+
+    @Setup
+    public void setUp() {
+        daily = GsonProvider.get().fromJson(Fixtures.weather(scale), WeatherResponse.class).getDaily();
+        rawDates = new ArrayList<>(daily.size());
+        for (int i = 0; i < daily.size(); i++) {
+            rawDates.add(LocalDate.ofEpochDay(daily.getEpochDay(i)).toString());
+        }
+    }
+
+    @Benchmark
+    public List<String> formatDateStrings() {
+        return ForecastDates.format(rawDates);
+    }
+
+    @Benchmark
+    public void formatEpochDays(Blackhole blackhole) {
+        for (int i = 0; i < daily.size(); i++) {
+            blackhole.consume(ForecastDates.formatDay(daily.getEpochDay(i)));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.theloop.benchmark;
+
+import com.example.theloop.models.Article;
+import com.example.theloop.models.CalendarEvent;
+import com.example.theloop.models.WeatherResponse;
+import com.example.theloop.network.GsonProvider;
+import com.example.theloop.utils.SummaryFormatter;
+import com.example.theloop.utils.UnitConverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The daily summary text, with the app's English strings standing in for resources. Scale grows
+ * the forecast and the calendar; the summary reads only the first of each, so the cost should not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class SummaryBenchmark {
+
+    private static final SummaryFormatter.Strings ENGLISH = new SummaryFormatter.Strings() {
+        @Override
+        public String weatherCondition(int weatherCode) {
+            return "overcast";
+        }
+
+        @Override
+        public String calendarError() {
+            return "Unable to load calendar events.";
+        }
+
+        @Override
+        public String events(int count, String nextEventTitle) {
+            if (count == 0) return "You have no upcoming events";
+            if (count == 1) return "You have 1 event, the next one is " + nextEventTitle;
+            return "You have " + count + " events, the next one is " + nextEventTitle;
+        }
+
+        @Override
+        public String summaryFormat() {
+            return "%1$s %2$s. It is %3$s and %4$.0f degrees. %5$s. Top news: %6$s.";
+        }
+    };
+
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    private WeatherResponse weather;
+    private List<CalendarEvent> events;
+    private Article headline;
+
+    @Setup
+    public void setUp() {
+        weather = GsonProvider.get().fromJson(Fixtures.weather(scale), WeatherResponse.class);
+        events = new ArrayList<>();
+        long start = 1_714_986_000_000L;
+        for (int i = 0; i < 3 * scale; i++) {
+            events.add(new CalendarEvent(i, "Design review " + i, start + i * 3_600_000L,
+                    start + i * 3_600_000L + 1_800_000L, "Room 4", "Alex"));
+        }
+        headline = new Article("BBC News", "Markets rally as central bank holds rates steady", "https://www.bbc.co.uk/news/1");
+    }
+
+    @Benchmark
+    public String generateSummary() {
+        return SummaryFormatter.format(ENGLISH, weather, events, events.size(), headline, "Sam", false,
+                UnitConverter.TemperatureUnit.CELSIUS, 9);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.theloop.benchmark;
+
+import com.example.theloop.data.NewsDigest;
+import com.example.theloop.models.Article;
+import com.example.theloop.models.NewsDecoder;
+import com.example.theloop.models.NewsResponse;
+import com.example.theloop.utils.SourceMatcher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Picking UK headlines out of the feed, as NewsDigest does, against the per-source
+ * {@code String.contains} loop it replaced. Every article is decoded so the scale reaches the filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class UkNewsFilterBenchmark {
+
+    /** Mirrors R.array.uk_news_sources. */
+    private static final List<String> UK_SOURCES = Arrays.asList("BBC", "The Guardian", "Sky News",
+            "The Independent", "Telegraph", "Daily Mail", "Mirror", "Financial Times", "The Sun", "Metro", "Standard");
+
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    private NewsResponse news;
+    private SourceMatcher matcher;
+
+    @Setup
+    public void setUp() throws IOException {
+        news = NewsDecoder.decode(new StringReader(Fixtures.news(scale)), EnumSet.allOf(NewsResponse.Category.class),
+                Integer.MAX_VALUE, null);
+        matcher = new SourceMatcher(UK_SOURCES);
+    }
+
+    @Benchmark
+    public NewsDigest digest() {
+        return NewsDigest.build(news, matcher);
+    }
+
+    @Benchmark
+    public List<Article> containsLoop() {
+        List<Article> uk = new ArrayList<>();
+        for (List<Article> articles : Arrays.asList(news.getWorld(), news.getBusiness(), news.getSports())) {
+            for (Article article : articles) {
+                for (String source : UK_SOURCES) {
+                    if (article.getSource() != null && article.getSource().contains(source)) {
+                        uk.add(article);
+                        break;
+                    }
+                }
+            }
+        }
+        return uk;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.theloop.data;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long a cached feed may be served. Within the TTL it is served as is; after that, until the
+ * maximum staleness, it is served while a refresh runs in the background. A timestamp in the
+ * future, e.g. after the clock was set back, counts as neither.
+ */
+public final class CachePolicy {
+
+    public static final CachePolicy WEATHER = new CachePolicy(TimeUnit.MINUTES.toMillis(10), TimeUnit.HOURS.toMillis(3));
+    public static final CachePolicy NEWS = new CachePolicy(TimeUnit.MINUTES.toMillis(15), TimeUnit.HOURS.toMillis(6));
+
+    public final long ttlMillis;
+    public final long maxStaleMillis;
+
+    public CachePolicy(long ttlMillis, long maxStaleMillis) {
+        this.ttlMillis = ttlMillis;
+        this.maxStaleMillis = maxStaleMillis;
+    }
+
+    public boolean isFresh(long fetchedAt, long now) {
+        long age = now - fetchedAt;
+        return age >= 0 && age < ttlMillis;
+    }
+
+    /** True while the entry may still be shown, fresh or stale. */
+    public boolean isServable(long fetchedAt, long now) {
+        long age = now - fetchedAt;
+        return age >= 0 && age < maxStaleMillis;
+    }
+}
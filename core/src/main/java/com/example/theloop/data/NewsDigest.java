@@ -0,0 +1,68 @@
+package com.example.theloop.data;
+
+import com.example.theloop.models.Article;
+import com.example.theloop.models.NewsResponse;
+import com.example.theloop.utils.SourceMatcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ready-to-bind news lists derived once per {@link NewsResponse}, off the main thread, so that
+ * binding a headlines card or switching a chip is only a lookup.
+ */
+public final class NewsDigest {
+
+    private final List<List<Article>> categories;
+    private final List<Article> ukNews;
+
+    private NewsDigest(List<List<Article>> categories, List<Article> ukNews) {
+        this.categories = categories;
+        this.ukNews = ukNews;
+    }
+
+    /**
+     * Builds the digest for a response. Categories that have not been decoded yet stay null and
+     * are picked up by the next build after they load.
+     */
+    public static NewsDigest build(NewsResponse response, SourceMatcher ukSources) {
+        NewsResponse.Category[] all = NewsResponse.Category.values();
+        // Values in ordinal order, so get() can index by ordinal.
+        List<List<Article>> lists = new ArrayList<>(all.length);
+        for (NewsResponse.Category category : all) {
+            lists.add(response.get(category));
+        }
+        return new NewsDigest(Collections.unmodifiableList(lists), filterUkNews(response, ukSources));
+    }
+
+    /** Returns the articles of a category, or null if it has not been decoded yet. */
+    public List<Article> get(NewsResponse.Category category) {
+        return categories.get(category.ordinal());
+    }
+
+    public List<Article> getUkNews() {
+        return ukNews;
+    }
+
+    private static List<Article> filterUkNews(NewsResponse response, SourceMatcher ukSources) {
+        List<Article> ukArticles = new ArrayList<>();
+        addMatching(response.getWorld(), ukSources, ukArticles);
+        addMatching(response.getBusiness(), ukSources, ukArticles);
+        addMatching(response.getSports(), ukSources, ukArticles);
+
+        if (ukArticles.isEmpty() && response.getWorld() != null) {
+            return response.getWorld();
+        }
+        return Collections.unmodifiableList(ukArticles);
+    }
+
+    private static void addMatching(List<Article> articles, SourceMatcher matcher, List<Article> out) {
+        if (articles == null) return;
+        for (Article article : articles) {
+            if (matcher.matchesAny(article.getSource())) {
+                out.add(article);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.theloop.data;
+
+import androidx.annotation.NonNull;
+
+/** A place the user has saved, such as home or work, whose forecast is fetched alongside the current one. */
+public final class SavedLocation {
+    @NonNull
+    public final String name;
+    public final double latitude;
+    public final double longitude;
+
+    public SavedLocation(@NonNull String name, double latitude, double longitude) {
+        this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.theloop.data;
+
+import androidx.annotation.NonNull;
+
+import com.example.theloop.models.CurrentWeather;
+import com.example.theloop.models.DailyWeather;
+import com.example.theloop.models.WeatherResponse;
+
+/**
+ * 64-bit FNV-1a hash over the parts of a forecast the app actually shows: temperatures, weather
+ * codes and forecast dates. Fields that change on every response, such as the observation time,
+ * are left out, so two fetches with the same visible forecast hash the same. Temperatures are
+ * hashed in tenths of a degree Celsius, finer than any display unit rounds to: two values in the
+ * same whole degree Celsius can still show as different whole degrees Fahrenheit.
+ */
+public final class WeatherFingerprint {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private WeatherFingerprint() {}
+
+    public static long of(@NonNull WeatherResponse weather) {
+        long hash = FNV_OFFSET_BASIS;
+        CurrentWeather current = weather.getCurrent();
+        if (current != null) {
+            hash = mix(hash, Math.round(current.getTemperature() * 10));
+            hash = mix(hash, current.getWeatherCode());
+        }
+        DailyWeather daily = weather.getDaily();
+        if (daily != null) {
+            int size = daily.size();
+            for (int i = 0; i < size; i++) {
+                hash = mix(hash, daily.getEpochDay(i));
+                hash = mix(hash, daily.getWeatherCode(i));
+                hash = mix(hash, rounded(daily.getTemperatureMax(i)));
+                hash = mix(hash, rounded(daily.getTemperatureMin(i)));
+            }
+        }
+        return hash;
+    }
+
+    private static long rounded(float value) {
+        return Float.isNaN(value) ? Long.MIN_VALUE : Math.round(value * 10.0);
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.theloop.diagnostics;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size histogram that any thread can record into without locking. Values are counted in
+ * buckets by inclusive upper bound, with one more bucket for anything above the last bound, so
+ * percentiles are only as precise as the bounds. The count, sum and maximum are exact.
+ */
+public final class Histogram {
+
+    private final long[] bounds;
+    private final AtomicLongArray buckets;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /** @param bounds inclusive upper bounds of the buckets, in increasing order. */
+    public Histogram(long... bounds) {
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1]) throw new IllegalArgumentException("Bounds must increase");
+        }
+        this.bounds = bounds.clone();
+        buckets = new AtomicLongArray(bounds.length + 1);
+    }
+
+    /** Records a value; negative values, e.g. from a clock going back, count as 0. */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        buckets.incrementAndGet(bucketOf(v));
+        count.incrementAndGet();
+        sum.addAndGet(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public long getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : sum.get() / n;
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the given percentile, capped at the maximum
+     * recorded value, or 0 if nothing has been recorded.
+     *
+     * @param percentile between 0 and 100.
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        long[] counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(bounds[i], max.get());
+        }
+        return max.get();
+    }
+
+    /** Writes the histogram as a JSON object: summary statistics and the per-bucket counts. */
+    public void writeTo(@NonNull JsonWriter out) throws IOException {
+        out.beginObject();
+        out.name("count").value(getCount());
+        out.name("mean").value(getMean());
+        out.name("p50").value(getPercentile(50));
+        out.name("p90").value(getPercentile(90));
+        out.name("p99").value(getPercentile(99));
+        out.name("max").value(getMax());
+        out.name("bounds").beginArray();
+        for (long bound : bounds) out.value(bound);
+        out.endArray();
+        out.name("buckets").beginArray();
+        for (int i = 0; i < buckets.length(); i++) out.value(buckets.get(i));
+        out.endArray();
+        out.endObject();
+    }
+
+    void clear() {
+        for (int i = 0; i < buckets.length(); i++) buckets.set(i, 0);
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    private int bucketOf(long value) {
+        int low = 0;
+        int high = bounds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bounds[mid] < value) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.theloop.diagnostics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-process performance counters: per-feed network latency, response size, cache outcomes and
+ * decode time, summary generation time, refresh cycle time, binds per card and background work outcomes.
+ * Recording is lock-free and allocation-free, so it can sit on the network threads and in
+ * onBindViewHolder. Everything counts from process start; nothing is persisted.
+ */
+public final class Telemetry {
+
+    public enum Feed { WEATHER, NEWS, FUN_FACT }
+
+    public enum CacheOutcome {
+        /** Served from the cache within its TTL. */
+        HIT,
+        /** Served from the cache past its TTL while it was refreshed. */
+        STALE,
+        /** Went to the network. */
+        MISS
+    }
+
+    public enum WorkOutcome { CHANGED, UNCHANGED, FAILED, RETRY }
+
+    /** Card names by DashboardAdapter view type. */
+    private static final String[] CARDS = {
+            "header", "weather", "headlines", "calendar", "fun_fact", "health", "uk_news", "footer"
+    };
+
+    /** Counters for one feed. */
+    public static final class FeedStats {
+        /** Time to the response headers, in millis. */
+        public final Histogram latencyMillis = new Histogram(25, 50, 100, 200, 400, 800, 1_600, 3_200, 6_400, 12_800);
+        public final Histogram responseBytes = new Histogram(1_024, 4_096, 16_384, 65_536, 262_144, 1_048_576, 4_194_304);
+        /** Time to decode a response already read into memory, in micros. */
+        public final Histogram parseMicros = new Histogram(100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000);
+        private final AtomicLongArray cache = new AtomicLongArray(CacheOutcome.values().length);
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong httpCacheHits = new AtomicLong();
+
+        public long getCacheCount(@NonNull CacheOutcome outcome) {
+            return cache.get(outcome.ordinal());
+        }
+
+        /** Requests that ended in an error status or an I/O error. */
+        public long getFailures() {
+            return failures.get();
+        }
+
+        /** Responses the HTTP cache answered without a request; not part of the latencies. */
+        public long getHttpCacheHits() {
+            return httpCacheHits.get();
+        }
+
+        void writeTo(JsonWriter out) throws IOException {
+            out.beginObject();
+            out.name("failures").value(getFailures());
+            out.name("http_cache_hits").value(getHttpCacheHits());
+            out.name("cache").beginObject();
+            for (CacheOutcome outcome : CacheOutcome.values()) {
+                out.name(outcome.name().toLowerCase(Locale.ROOT)).value(getCacheCount(outcome));
+            }
+            out.endObject();
+            out.name("latency_ms");
+            latencyMillis.writeTo(out);
+            out.name("response_bytes");
+            responseBytes.writeTo(out);
+            out.name("parse_us");
+            parseMicros.writeTo(out);
+            out.endObject();
+        }
+
+        void clear() {
+            latencyMillis.clear();
+            responseBytes.clear();
+            parseMicros.clear();
+            for (int i = 0; i < cache.length(); i++) cache.set(i, 0);
+            failures.set(0);
+            httpCacheHits.set(0);
+        }
+    }
+
+    private static final FeedStats[] feeds = new FeedStats[Feed.values().length];
+    private static final Histogram summaryMicros = new Histogram(100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000);
+    private static final Histogram refreshMillis = new Histogram(100, 250, 500, 1_000, 2_000, 3_000, 5_000, 10_000, 30_000);
+    private static final AtomicLongArray binds = new AtomicLongArray(CARDS.length);
+    private static final AtomicLongArray work = new AtomicLongArray(WorkOutcome.values().length);
+
+    static {
+        for (int i = 0; i < feeds.length; i++) feeds[i] = new FeedStats();
+    }
+
+    private Telemetry() {}
+
+    @NonNull
+    public static FeedStats feed(@NonNull Feed feed) {
+        return feeds[feed.ordinal()];
+    }
+
+    /** Records a network request that got response headers, or failed, after {@code millis}. */
+    public static void recordFetch(@NonNull Feed feed, long millis, boolean success) {
+        FeedStats stats = feeds[feed.ordinal()];
+        stats.latencyMillis.record(millis);
+        if (!success) stats.failures.incrementAndGet();
+    }
+
+    public static void recordHttpCacheHit(@NonNull Feed feed) {
+        feeds[feed.ordinal()].httpCacheHits.incrementAndGet();
+    }
+
+    public static void recordResponseBytes(@NonNull Feed feed, long bytes) {
+        feeds[feed.ordinal()].responseBytes.record(bytes);
+    }
+
+    public static void recordCache(@NonNull Feed feed, @NonNull CacheOutcome outcome) {
+        feeds[feed.ordinal()].cache.incrementAndGet(outcome.ordinal());
+    }
+
+    public static void recordParse(@NonNull Feed feed, long nanos) {
+        feeds[feed.ordinal()].parseMicros.record(nanos / 1_000);
+    }
+
+    public static void recordSummary(long nanos) {
+        summaryMicros.record(nanos / 1_000);
+    }
+
+    public static void recordRefreshCycle(long millis) {
+        refreshMillis.record(millis);
+    }
+
+    /** @param viewType a DashboardAdapter view type; unknown types are ignored. */
+    public static void recordBind(int viewType) {
+        if (viewType >= 0 && viewType < CARDS.length) binds.incrementAndGet(viewType);
+    }
+
+    public static long getBindCount(int viewType) {
+        return viewType >= 0 && viewType < CARDS.length ? binds.get(viewType) : 0;
+    }
+
+    public static void recordWork(@NonNull WorkOutcome outcome) {
+        work.incrementAndGet(outcome.ordinal());
+    }
+
+    public static long getWorkCount(@NonNull WorkOutcome outcome) {
+        return work.get(outcome.ordinal());
+    }
+
+    @NonNull
+    public static Histogram summaryMicros() {
+        return summaryMicros;
+    }
+
+    @NonNull
+    public static Histogram refreshMillis() {
+        return refreshMillis;
+    }
+
+    /**
+     * Writes every counter as name/value pairs into the JSON object {@code out} has open, so
+     * callers can add their own fields to the same report.
+     */
+    public static void writeFields(@NonNull JsonWriter out) throws IOException {
+        out.name("feeds").beginObject();
+        for (Feed feed : Feed.values()) {
+            out.name(feed.name().toLowerCase(Locale.ROOT));
+            feeds[feed.ordinal()].writeTo(out);
+        }
+        out.endObject();
+        out.name("summary_us");
+        summaryMicros.writeTo(out);
+        out.name("refresh_cycle_ms");
+        refreshMillis.writeTo(out);
+        out.name("binds").beginObject();
+        for (int i = 0; i < CARDS.length; i++) out.name(CARDS[i]).value(binds.get(i));
+        out.endObject();
+        out.name("work").beginObject();
+        for (WorkOutcome outcome : WorkOutcome.values()) {
+            out.name(outcome.name().toLowerCase(Locale.ROOT)).value(work.get(outcome.ordinal()));
+        }
+        out.endObject();
+    }
+
+    @VisibleForTesting
+    public static void reset() {
+        for (FeedStats stats : feeds) stats.clear();
+        summaryMicros.clear();
+        refreshMillis.clear();
+        for (int i = 0; i < binds.length(); i++) binds.set(i, 0);
+        for (int i = 0; i < work.length(); i++) work.set(i, 0);
+    }
+}
@@ -13,6 +13,12 @@ public class Article {
     @SerializedName("link")
     private String url;
 
+    public Article(String source, String title, String url) {
+        this.source = source;
+        this.title = title;
+        this.url = url;
+    }
+
     // Getters
     public String getSource() {
         return source;
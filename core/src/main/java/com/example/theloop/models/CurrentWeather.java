@@ -13,6 +13,12 @@ public class CurrentWeather {
     @SerializedName("weather_code")
     private int weatherCode;
 
+    CurrentWeather(String time, double temperature, int weatherCode) {
+        this.time = time;
+        this.temperature = temperature;
+        this.weatherCode = weatherCode;
+    }
+
     // Getters
     public String getTime() {
         return time;
@@ -0,0 +1,110 @@
+package com.example.theloop.models;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Daily forecast as parallel primitive columns, all indexed by day. Missing values are
+ * {@link ForecastColumns#MISSING_TIME}, {@link ForecastColumns#MISSING_CODE} and NaN.
+ */
+@JsonAdapter(DailyWeather.Adapter.class)
+public class DailyWeather {
+
+    private static final int[] NO_INTS = new int[0];
+    private static final float[] NO_FLOATS = new float[0];
+
+    private final int[] epochDays;
+    private final int[] weatherCodes;
+    private final float[] temperatureMax;
+    private final float[] temperatureMin;
+
+    public DailyWeather(@NonNull int[] epochDays, @NonNull int[] weatherCodes,
+                        @NonNull float[] temperatureMax, @NonNull float[] temperatureMin) {
+        this.epochDays = epochDays;
+        this.weatherCodes = weatherCodes;
+        this.temperatureMax = temperatureMax;
+        this.temperatureMin = temperatureMin;
+    }
+
+    /** Number of days with every column present. */
+    public int size() {
+        return Math.min(Math.min(epochDays.length, weatherCodes.length),
+                Math.min(temperatureMax.length, temperatureMin.length));
+    }
+
+    public int getEpochDay(int index) {
+        return epochDays[index];
+    }
+
+    public int getWeatherCode(int index) {
+        return weatherCodes[index];
+    }
+
+    /** Maximum temperature in °C. */
+    public float getTemperatureMax(int index) {
+        return temperatureMax[index];
+    }
+
+    /** Minimum temperature in °C. */
+    public float getTemperatureMin(int index) {
+        return temperatureMin[index];
+    }
+
+    /** Reads the Open-Meteo "daily" object column by column, skipping fields the app does not use. */
+    static final class Adapter extends TypeAdapter<DailyWeather> {
+
+        @Override
+        public void write(JsonWriter out, DailyWeather value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("time");
+            ForecastColumns.writeEpochDays(out, value.epochDays);
+            out.name("weather_code");
+            ForecastColumns.writeInts(out, value.weatherCodes);
+            out.name("temperature_2m_max");
+            ForecastColumns.writeFloats(out, value.temperatureMax);
+            out.name("temperature_2m_min");
+            ForecastColumns.writeFloats(out, value.temperatureMin);
+            out.endObject();
+        }
+
+        @Override
+        public DailyWeather read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            int[] days = NO_INTS;
+            int[] codes = NO_INTS;
+            float[] max = NO_FLOATS;
+            float[] min = NO_FLOATS;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() != JsonToken.BEGIN_ARRAY) {
+                    in.skipValue();
+                    continue;
+                }
+                switch (name) {
+                    case "time" -> days = ForecastColumns.readEpochDays(in);
+                    case "weather_code" -> codes = ForecastColumns.readInts(in);
+                    case "temperature_2m_max" -> max = ForecastColumns.readFloats(in);
+                    case "temperature_2m_min" -> min = ForecastColumns.readFloats(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new DailyWeather(days, codes, max, min);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.theloop.models;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads and writes Open-Meteo forecast columns ("time": [...], "weather_code": [...]) straight into
+ * primitive arrays, so a series costs one array per column rather than a boxed value per point.
+ * Hourly and 15-minutely series use the same readers as daily ones; only the time parser differs.
+ */
+public final class ForecastColumns {
+
+    /** Epoch day or minute stored for a time that is null or not in the expected format. */
+    public static final int MISSING_TIME = Integer.MIN_VALUE;
+    /** Weather code stored for a null entry. */
+    public static final int MISSING_CODE = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private ForecastColumns() {}
+
+    /** Reads an array of "yyyy-MM-dd" strings as epoch days. */
+    @NonNull
+    public static int[] readEpochDays(@NonNull JsonReader in) throws IOException {
+        int[] values = new int[INITIAL_CAPACITY];
+        int size = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = in.peek() == JsonToken.STRING ? parseEpochDay(in.nextString()) : skipMissing(in);
+        }
+        in.endArray();
+        return Arrays.copyOf(values, size);
+    }
+
+    /** Reads an array of "yyyy-MM-ddTHH:mm" strings, as hourly and 15-minutely series use, as epoch minutes. */
+    @NonNull
+    public static int[] readEpochMinutes(@NonNull JsonReader in) throws IOException {
+        int[] values = new int[INITIAL_CAPACITY];
+        int size = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = in.peek() == JsonToken.STRING ? parseEpochMinute(in.nextString()) : skipMissing(in);
+        }
+        in.endArray();
+        return Arrays.copyOf(values, size);
+    }
+
+    /** Reads an array of integers; nulls become {@link #MISSING_CODE}. */
+    @NonNull
+    public static int[] readInts(@NonNull JsonReader in) throws IOException {
+        int[] values = new int[INITIAL_CAPACITY];
+        int size = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                values[size++] = MISSING_CODE;
+            } else {
+                values[size++] = in.nextInt();
+            }
+        }
+        in.endArray();
+        return Arrays.copyOf(values, size);
+    }
+
+    /** Reads an array of numbers; nulls become NaN. */
+    @NonNull
+    public static float[] readFloats(@NonNull JsonReader in) throws IOException {
+        float[] values = new float[INITIAL_CAPACITY];
+        int size = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                values[size++] = Float.NaN;
+            } else {
+                values[size++] = (float) in.nextDouble();
+            }
+        }
+        in.endArray();
+        return Arrays.copyOf(values, size);
+    }
+
+    public static void writeEpochDays(@NonNull JsonWriter out, @NonNull int[] days) throws IOException {
+        out.beginArray();
+        for (int day : days) {
+            if (day == MISSING_TIME) {
+                out.nullValue();
+            } else {
+                out.value(formatEpochDay(day));
+            }
+        }
+        out.endArray();
+    }
+
+    public static void writeInts(@NonNull JsonWriter out, @NonNull int[] values) throws IOException {
+        out.beginArray();
+        for (int value : values) {
+            if (value == MISSING_CODE) {
+                out.nullValue();
+            } else {
+                out.value(value);
+            }
+        }
+        out.endArray();
+    }
+
+    public static void writeFloats(@NonNull JsonWriter out, @NonNull float[] values) throws IOException {
+        out.beginArray();
+        for (float value : values) {
+            if (Float.isNaN(value)) {
+                out.nullValue();
+            } else {
+                // Float.toString keeps "12.3" rather than the widened 12.300000190734863.
+                out.jsonValue(Float.toString(value));
+            }
+        }
+        out.endArray();
+    }
+
+    /** Parses "yyyy-MM-dd" without going through LocalDate, or returns {@link #MISSING_TIME}. */
+    public static int parseEpochDay(@NonNull String value) {
+        if (value.length() < 10 || value.charAt(4) != '-' || value.charAt(7) != '-') return MISSING_TIME;
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 7);
+        int day = digits(value, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) return MISSING_TIME;
+        return epochDay(year, month, day);
+    }
+
+    /** Parses "yyyy-MM-ddTHH:mm" into minutes since the epoch, or returns {@link #MISSING_TIME}. */
+    public static int parseEpochMinute(@NonNull String value) {
+        if (value.length() < 16 || value.charAt(10) != 'T' || value.charAt(13) != ':') return MISSING_TIME;
+        int day = parseEpochDay(value);
+        int hour = digits(value, 11, 13);
+        int minute = digits(value, 14, 16);
+        if (day == MISSING_TIME || hour < 0 || hour > 23 || minute < 0 || minute > 59) return MISSING_TIME;
+        return day * 1440 + hour * 60 + minute;
+    }
+
+    @NonNull
+    static String formatEpochDay(int epochDay) {
+        // Inverse of epochDay(), see civil_from_days in Howard Hinnant's date algorithms.
+        int z = epochDay + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        char[] chars = new char[10];
+        chars[0] = (char) ('0' + year / 1000 % 10);
+        chars[1] = (char) ('0' + year / 100 % 10);
+        chars[2] = (char) ('0' + year / 10 % 10);
+        chars[3] = (char) ('0' + year % 10);
+        chars[4] = '-';
+        chars[5] = (char) ('0' + month / 10);
+        chars[6] = (char) ('0' + month % 10);
+        chars[7] = '-';
+        chars[8] = (char) ('0' + day / 10);
+        chars[9] = (char) ('0' + day % 10);
+        return new String(chars);
+    }
+
+    private static int epochDay(int year, int month, int day) {
+        // days_from_civil from Howard Hinnant's date algorithms; matches LocalDate.toEpochDay().
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yoe = y - era * 400;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    private static int digits(String value, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static int skipMissing(JsonReader in) throws IOException {
+        in.skipValue();
+        return MISSING_TIME;
+    }
+}
@@ -12,6 +12,12 @@ public class FunFactResponse {
     @SerializedName("source")
     private String source;
 
+    FunFactResponse(String id, String text, String source) {
+        this.id = id;
+        this.text = text;
+        this.source = source;
+    }
+
     public String getId() {
         return id;
     }
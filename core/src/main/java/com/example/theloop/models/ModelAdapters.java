@@ -0,0 +1,195 @@
+package com.example.theloop.models;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Hand-written streaming adapters for the API models, so Gson never binds them by reflection.
+ * Each adapter reads and writes the same JSON as the {@code @SerializedName} fields describe, and
+ * skips fields it does not know. Register {@link #FACTORY} on a GsonBuilder to use them.
+ */
+public final class ModelAdapters {
+
+    public static final TypeAdapterFactory FACTORY = new TypeAdapterFactory() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            Class<? super T> raw = type.getRawType();
+            if (raw == WeatherResponse.class) return (TypeAdapter<T>) WEATHER;
+            if (raw == CurrentWeather.class) return (TypeAdapter<T>) CURRENT;
+            if (raw == DailyWeather.class) return (TypeAdapter<T>) DAILY;
+            if (raw == Article.class) return (TypeAdapter<T>) ARTICLE;
+            if (raw == NewsResponse.class) return (TypeAdapter<T>) NEWS;
+            if (raw == FunFactResponse.class) return (TypeAdapter<T>) FUN_FACT;
+            return null;
+        }
+    };
+
+    static final TypeAdapter<DailyWeather> DAILY = new DailyWeather.Adapter().nullSafe();
+
+    static final TypeAdapter<CurrentWeather> CURRENT = new TypeAdapter<CurrentWeather>() {
+        @Override
+        public void write(JsonWriter out, CurrentWeather value) throws IOException {
+            out.beginObject();
+            if (value.getTime() != null) out.name("time").value(value.getTime());
+            out.name("temperature_2m").value(value.getTemperature());
+            out.name("weather_code").value(value.getWeatherCode());
+            out.endObject();
+        }
+
+        @Override
+        public CurrentWeather read(JsonReader in) throws IOException {
+            String time = null;
+            double temperature = 0;
+            int weatherCode = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "time" -> time = in.nextString();
+                    case "temperature_2m" -> temperature = in.nextDouble();
+                    case "weather_code" -> weatherCode = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new CurrentWeather(time, temperature, weatherCode);
+        }
+    }.nullSafe();
+
+    static final TypeAdapter<WeatherResponse> WEATHER = new TypeAdapter<WeatherResponse>() {
+        @Override
+        public void write(JsonWriter out, WeatherResponse value) throws IOException {
+            out.beginObject();
+            out.name("latitude").value(value.getLatitude());
+            out.name("longitude").value(value.getLongitude());
+            if (value.getCurrent() != null) {
+                out.name("current");
+                CURRENT.write(out, value.getCurrent());
+            }
+            if (value.getDaily() != null) {
+                out.name("daily");
+                DAILY.write(out, value.getDaily());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public WeatherResponse read(JsonReader in) throws IOException {
+            double latitude = 0;
+            double longitude = 0;
+            CurrentWeather current = null;
+            DailyWeather daily = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "latitude" -> latitude = in.nextDouble();
+                    case "longitude" -> longitude = in.nextDouble();
+                    case "current" -> current = CURRENT.read(in);
+                    case "daily" -> daily = DAILY.read(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new WeatherResponse(latitude, longitude, current, daily);
+        }
+    }.nullSafe();
+
+    static final TypeAdapter<Article> ARTICLE = new TypeAdapter<Article>() {
+        @Override
+        public void write(JsonWriter out, Article value) throws IOException {
+            out.beginObject();
+            if (value.getSource() != null) out.name("source").value(value.getSource());
+            if (value.getTitle() != null) out.name("title").value(value.getTitle());
+            if (value.getUrl() != null) out.name("link").value(value.getUrl());
+            out.endObject();
+        }
+
+        @Override
+        public Article read(JsonReader in) throws IOException {
+            return NewsDecoder.readArticle(in);
+        }
+    }.nullSafe();
+
+    /**
+     * Decodes every category up front, as a standalone response has no payload to come back to.
+     * Writes only the categories that have been decoded.
+     */
+    static final TypeAdapter<NewsResponse> NEWS = new TypeAdapter<NewsResponse>() {
+        @Override
+        public void write(JsonWriter out, NewsResponse value) throws IOException {
+            out.beginObject();
+            for (NewsResponse.Category category : NewsResponse.Category.values()) {
+                List<Article> articles = value.get(category);
+                if (articles == null) continue;
+                out.name(category.getJsonName());
+                out.beginArray();
+                for (Article article : articles) ARTICLE.write(out, article);
+                out.endArray();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public NewsResponse read(JsonReader in) throws IOException {
+            return NewsDecoder.decode(in, EnumSet.allOf(NewsResponse.Category.class),
+                    NewsDecoder.DEFAULT_MAX_ARTICLES, null);
+        }
+    }.nullSafe();
+
+    static final TypeAdapter<FunFactResponse> FUN_FACT = new TypeAdapter<FunFactResponse>() {
+        @Override
+        public void write(JsonWriter out, FunFactResponse value) throws IOException {
+            out.beginObject();
+            if (value.getId() != null) out.name("id").value(value.getId());
+            if (value.getText() != null) out.name("text").value(value.getText());
+            if (value.getSource() != null) out.name("source").value(value.getSource());
+            out.endObject();
+        }
+
+        @Override
+        public FunFactResponse read(JsonReader in) throws IOException {
+            String id = null;
+            String text = null;
+            String source = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id" -> id = in.nextString();
+                    case "text" -> text = in.nextString();
+                    case "source" -> source = in.nextString();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new FunFactResponse(id, text, source);
+        }
+    }.nullSafe();
+
+    private ModelAdapters() {
+        // This class is not meant to be instantiated.
+    }
+}
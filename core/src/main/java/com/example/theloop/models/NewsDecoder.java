@@ -0,0 +1,127 @@
+package com.example.theloop.models;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Streaming decoder for the ok.surf news feed.
+ *
+ * <p>Only the first {@code maxArticles} of each category are kept, except in
+ * {@link #FULL_CATEGORIES}, and the bodies of categories outside the requested set are skipped
+ * without building any objects.
+ */
+public final class NewsDecoder {
+
+    /** Enough for the three dashboard headlines and a chip's list. */
+    public static final int DEFAULT_MAX_ARTICLES = 10;
+
+    /**
+     * Categories always read in full: the UK card picks articles from UK sources out of the whole
+     * of these lists, wherever they appear.
+     */
+    public static final Set<NewsResponse.Category> FULL_CATEGORIES = Collections.unmodifiableSet(
+            EnumSet.of(NewsResponse.Category.WORLD, NewsResponse.Category.BUSINESS, NewsResponse.Category.SPORTS));
+
+    private NewsDecoder() {
+        // This class is not meant to be instantiated.
+    }
+
+    /**
+     * Decodes the categories in {@code eager}. The rest are decoded from {@code source} when
+     * {@link NewsResponse#load(NewsResponse.Category)} first asks for them.
+     *
+     * @param source Reopens the same payload later, or null if it cannot be read again.
+     */
+    public static NewsResponse decode(Reader reader, Set<NewsResponse.Category> eager, int maxArticles,
+                                      NewsResponse.Source source) throws IOException {
+        return decode(new JsonReader(reader), eager, maxArticles, source);
+    }
+
+    static NewsResponse decode(JsonReader json, Set<NewsResponse.Category> eager, int maxArticles,
+                               NewsResponse.Source source) throws IOException {
+        AtomicReferenceArray<List<Article>> articles =
+                new AtomicReferenceArray<>(NewsResponse.Category.values().length);
+
+        json.beginObject();
+        while (json.hasNext()) {
+            NewsResponse.Category category = NewsResponse.Category.fromJsonName(json.nextName());
+            if (category != null && eager.contains(category) && json.peek() == JsonToken.BEGIN_ARRAY) {
+                articles.set(category.ordinal(), readArticles(json, limit(category, maxArticles)));
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+
+        // Requested categories missing from the payload are known to be empty.
+        for (NewsResponse.Category category : eager) {
+            if (articles.get(category.ordinal()) == null) {
+                articles.set(category.ordinal(), Collections.emptyList());
+            }
+        }
+        return new NewsResponse(articles, source, maxArticles);
+    }
+
+    /** Decodes a single category, stopping as soon as it has been read. */
+    static List<Article> decodeCategory(Reader reader, NewsResponse.Category category, int maxArticles) throws IOException {
+        JsonReader json = new JsonReader(reader);
+        json.beginObject();
+        while (json.hasNext()) {
+            if (category.getJsonName().equals(json.nextName()) && json.peek() == JsonToken.BEGIN_ARRAY) {
+                return readArticles(json, limit(category, maxArticles));
+            }
+            json.skipValue();
+        }
+        return Collections.emptyList();
+    }
+
+    private static int limit(NewsResponse.Category category, int maxArticles) {
+        return FULL_CATEGORIES.contains(category) ? Integer.MAX_VALUE : maxArticles;
+    }
+
+    private static List<Article> readArticles(JsonReader json, int maxArticles) throws IOException {
+        List<Article> articles = new ArrayList<>(Math.min(maxArticles, 16));
+        json.beginArray();
+        while (json.hasNext()) {
+            if (articles.size() < maxArticles && json.peek() == JsonToken.BEGIN_OBJECT) {
+                articles.add(readArticle(json));
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endArray();
+        return Collections.unmodifiableList(articles);
+    }
+
+    static Article readArticle(JsonReader json) throws IOException {
+        String source = null;
+        String title = null;
+        String link = null;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (json.peek() == JsonToken.NULL) {
+                json.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "source" -> source = json.nextString();
+                case "title" -> title = json.nextString();
+                case "link" -> link = json.nextString();
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+        return new Article(source, title, link);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.theloop.models;
+
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * News feed split by category. Built by {@link NewsDecoder}, which only decodes the categories
+ * the dashboard subscribes to; the others are decoded from {@link Source} the first time
+ * {@link #load(Category)} asks for them.
+ */
+public class NewsResponse {
+
+    public enum Category {
+        BUSINESS("Business"),
+        ENTERTAINMENT("Entertainment"),
+        HEALTH("Health"),
+        SCIENCE("Science"),
+        SPORTS("Sports"),
+        TECHNOLOGY("Technology"),
+        US("US"),
+        WORLD("World");
+
+        private final String jsonName;
+
+        Category(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        public String getJsonName() {
+            return jsonName;
+        }
+
+        /** Returns the category for a feed key, or null for keys the app does not know. */
+        public static Category fromJsonName(String name) {
+            for (Category category : values()) {
+                if (category.jsonName.equals(name)) {
+                    return category;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Reopens the payload this response was decoded from. */
+    public interface Source {
+        Reader open() throws IOException;
+    }
+
+    private final AtomicReferenceArray<List<Article>> articles;
+    private final Source source;
+    private final int maxArticlesPerCategory;
+
+    NewsResponse(AtomicReferenceArray<List<Article>> articles, Source source, int maxArticlesPerCategory) {
+        this.articles = articles;
+        this.source = source;
+        this.maxArticlesPerCategory = maxArticlesPerCategory;
+    }
+
+    /** Returns the decoded articles of a category, or null if it has not been decoded yet. */
+    public List<Article> get(Category category) {
+        return articles.get(category.ordinal());
+    }
+
+    public boolean isLoaded(Category category) {
+        return get(category) != null;
+    }
+
+    /**
+     * Returns the articles of a category, decoding them from the source payload first if needed.
+     * This may read from disk, so it must not be called on the main thread. If the payload cannot
+     * be read the exception is rethrown and the next call tries again; if it is malformed the
+     * category is marked as empty for good.
+     */
+    public List<Article> load(Category category) throws IOException {
+        List<Article> loaded = get(category);
+        if (loaded != null) {
+            return loaded;
+        }
+
+        synchronized (this) {
+            loaded = get(category);
+            if (loaded != null) {
+                return loaded;
+            }
+            if (source == null) {
+                articles.set(category.ordinal(), Collections.emptyList());
+                return Collections.emptyList();
+            }
+            try (Reader reader = source.open()) {
+                loaded = NewsDecoder.decodeCategory(reader, category, maxArticlesPerCategory);
+            } catch (MalformedJsonException | RuntimeException e) {
+                // A malformed payload will not read any better next time.
+                articles.set(category.ordinal(), Collections.emptyList());
+                throw e;
+            }
+            articles.set(category.ordinal(), loaded);
+            return loaded;
+        }
+    }
+
+    public List<Article> getBusiness() { return get(Category.BUSINESS); }
+    public List<Article> getEntertainment() { return get(Category.ENTERTAINMENT); }
+    public List<Article> getHealth() { return get(Category.HEALTH); }
+    public List<Article> getScience() { return get(Category.SCIENCE); }
+    public List<Article> getSports() { return get(Category.SPORTS); }
+    public List<Article> getTechnology() { return get(Category.TECHNOLOGY); }
+    public List<Article> getUs() { return get(Category.US); }
+    public List<Article> getWorld() { return get(Category.WORLD); }
+}
@@ -16,6 +16,13 @@ public class WeatherResponse {
     @SerializedName("daily")
     private DailyWeather daily;
 
+    WeatherResponse(double latitude, double longitude, CurrentWeather current, DailyWeather daily) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.current = current;
+        this.daily = daily;
+    }
+
     // Getters
     public double getLatitude() {
         return latitude;
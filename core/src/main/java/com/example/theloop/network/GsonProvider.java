@@ -0,0 +1,28 @@
+package com.example.theloop.network;
+
+import com.example.theloop.models.ModelAdapters;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Holds the single Gson instance used by the Retrofit converters and by snapshot and cache reads.
+ * The API models are bound by {@link ModelAdapters} rather than by reflection, so the first parse
+ * after a cold start does not pay for scanning their fields, and every caller shares the adapter
+ * cache instead of building its own.
+ */
+public final class GsonProvider {
+
+    private GsonProvider() {
+        // This class is not meant to be instantiated.
+    }
+
+    public static Gson get() {
+        return Holder.GSON;
+    }
+
+    private static final class Holder {
+        static final Gson GSON = new GsonBuilder()
+                .registerTypeAdapterFactory(ModelAdapters.FACTORY)
+                .create();
+    }
+}
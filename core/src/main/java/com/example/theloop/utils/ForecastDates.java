@@ -0,0 +1,50 @@
+package com.example.theloop.utils;
+
+import androidx.annotation.NonNull;
+
+import com.example.theloop.models.ForecastColumns;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/** Forecast day labels such as "Mon 1". Free of Android dependencies so it can be benchmarked on the JVM. */
+public final class ForecastDates {
+
+    private static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd", Locale.US);
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("EEE d", Locale.getDefault());
+
+    private ForecastDates() {
+        // This class is not meant to be instantiated.
+    }
+
+    /** Formats "yyyy-MM-dd" strings, using "-" for any that cannot be parsed. */
+    @NonNull
+    public static List<String> format(List<String> rawDates) {
+        if (rawDates == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> formatted = new ArrayList<>(rawDates.size());
+        for (String raw : rawDates) {
+            try {
+                LocalDate date = LocalDate.parse(raw, INPUT_FORMAT);
+                formatted.add(date.format(DAY_FORMAT));
+            } catch (DateTimeParseException e) {
+                formatted.add("-");
+            }
+        }
+        return formatted;
+    }
+
+    /** Formats an epoch day, using "-" for {@link ForecastColumns#MISSING_TIME}. */
+    @NonNull
+    public static String formatDay(int epochDay) {
+        if (epochDay == ForecastColumns.MISSING_TIME) return "-";
+        return LocalDate.ofEpochDay(epochDay).format(DAY_FORMAT);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.theloop.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick matcher answering "does this text contain any of the patterns?" in a single pass
+ * over the text, however many patterns there are. Matching is case-sensitive, like
+ * {@link String#contains(CharSequence)}.
+ */
+public final class SourceMatcher {
+
+    // Per state: the characters with a goto edge and the state each one leads to.
+    private final char[][] edgeLabels;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    private final boolean[] accepting;
+
+    /** Empty patterns are ignored rather than matching every text. */
+    public SourceMatcher(Collection<String> patterns) {
+        List<Map<Character, Integer>> gotos = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        gotos.add(new HashMap<>());
+        terminal.add(false);
+
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isEmpty()) continue;
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = gotos.get(state).get(pattern.charAt(i));
+                if (next == null) {
+                    next = gotos.size();
+                    gotos.add(new HashMap<>());
+                    terminal.add(false);
+                    gotos.get(state).put(pattern.charAt(i), next);
+                }
+                state = next;
+            }
+            terminal.set(state, true);
+        }
+
+        int size = gotos.size();
+        edgeLabels = new char[size][];
+        edgeTargets = new int[size][];
+        failure = new int[size];
+        accepting = new boolean[size];
+        for (int state = 0; state < size; state++) {
+            Map<Character, Integer> edges = gotos.get(state);
+            edgeLabels[state] = new char[edges.size()];
+            edgeTargets[state] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                edgeLabels[state][i] = edge.getKey();
+                edgeTargets[state][i] = edge.getValue();
+                i++;
+            }
+            accepting[state] = terminal.get(state);
+        }
+
+        // Breadth-first, so every failure link points at an already finished, shallower state.
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[0]) {
+            failure[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            for (int i = 0; i < edgeLabels[state].length; i++) {
+                char c = edgeLabels[state][i];
+                int child = edgeTargets[state][i];
+                int fallback = failure[state];
+                int target;
+                while ((target = step(fallback, c)) < 0 && fallback != 0) {
+                    fallback = failure[fallback];
+                }
+                failure[child] = target < 0 ? 0 : target;
+                accepting[child] |= accepting[failure[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    public boolean matchesAny(CharSequence text) {
+        if (text == null) return false;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = step(state, c)) < 0 && state != 0) {
+                state = failure[state];
+            }
+            state = next < 0 ? 0 : next;
+            if (accepting[state]) return true;
+        }
+        return false;
+    }
+
+    private int step(int state, char c) {
+        char[] labels = edgeLabels[state];
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == c) return edgeTargets[state][i];
+        }
+        return -1;
+    }
+}
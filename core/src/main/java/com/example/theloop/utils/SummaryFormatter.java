@@ -0,0 +1,61 @@
+package com.example.theloop.utils;
+
+import com.example.theloop.models.Article;
+import com.example.theloop.models.CalendarEvent;
+import com.example.theloop.models.WeatherResponse;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds the daily summary text. Localised strings come in through {@link Strings}, which keeps
+ * this class free of Android dependencies; {@link SummaryUtils} supplies them from resources.
+ */
+public final class SummaryFormatter {
+
+    /** The localised pieces of a summary. */
+    public interface Strings {
+        String weatherCondition(int weatherCode);
+
+        String calendarError();
+
+        /** The events sentence for {@code count} events, naming the next one when there is one. */
+        String events(int count, String nextEventTitle);
+
+        /** Format with greeting, name, condition, temperature, events and headline arguments. */
+        String summaryFormat();
+    }
+
+    private SummaryFormatter() {
+        // This class is not meant to be instantiated.
+    }
+
+    public static String format(Strings strings, WeatherResponse weather, List<CalendarEvent> events, int totalEvents,
+                                Article topHeadline, String userName, boolean calendarError,
+                                UnitConverter.TemperatureUnit unit, int hourOfDay) {
+        if (weather == null) return null;
+
+        String condition = strings.weatherCondition(weather.getCurrent().getWeatherCode());
+        double temp = UnitConverter.fromCelsius(weather.getCurrent().getTemperature(), unit);
+
+        String nextEventTitle = (events != null && !events.isEmpty()) ? events.get(0).getTitle() : "";
+        String newsTitle = (topHeadline != null) ? topHeadline.getTitle() : "No major news";
+
+        String eventsSummary;
+        if (calendarError) {
+            eventsSummary = strings.calendarError();
+        } else {
+            eventsSummary = strings.events(totalEvents, nextEventTitle);
+        }
+
+        return String.format(Locale.getDefault(), strings.summaryFormat(),
+                greeting(hourOfDay), userName, condition, temp, eventsSummary, newsTitle
+        );
+    }
+
+    public static String greeting(int hourOfDay) {
+        if (hourOfDay >= 0 && hourOfDay < 12) return "Good morning";
+        else if (hourOfDay >= 12 && hourOfDay < 17) return "Good afternoon";
+        else return "Good evening";
+    }
+}
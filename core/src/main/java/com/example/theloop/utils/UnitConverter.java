@@ -0,0 +1,76 @@
+package com.example.theloop.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Converts weather values from the canonical units they are fetched and stored in (°C, km/h, mm)
+ * to the units the user has chosen. Conversion happens only when values are shown, so changing a
+ * unit never invalidates cached weather.
+ */
+public final class UnitConverter {
+
+    public enum TemperatureUnit {
+        CELSIUS("celsius", "°C"),
+        FAHRENHEIT("fahrenheit", "°F");
+
+        /** Value stored in the app's {@code temp_unit} preference. */
+        public final String preferenceValue;
+        public final String symbol;
+
+        TemperatureUnit(String preferenceValue, String symbol) {
+            this.preferenceValue = preferenceValue;
+            this.symbol = symbol;
+        }
+
+        @NonNull
+        public static TemperatureUnit fromPreference(@Nullable String value) {
+            return FAHRENHEIT.preferenceValue.equals(value) ? FAHRENHEIT : CELSIUS;
+        }
+    }
+
+    public enum WindSpeedUnit {
+        KMH(1.0), MPH(0.621371), MS(1 / 3.6), KNOTS(0.539957);
+
+        private final double perKmh;
+
+        WindSpeedUnit(double perKmh) {
+            this.perKmh = perKmh;
+        }
+    }
+
+    public enum PrecipitationUnit {
+        MM(1.0), INCH(1 / 25.4);
+
+        private final double perMm;
+
+        PrecipitationUnit(double perMm) {
+            this.perMm = perMm;
+        }
+    }
+
+    private UnitConverter() {}
+
+    public static double fromCelsius(double celsius, @NonNull TemperatureUnit unit) {
+        return unit == TemperatureUnit.FAHRENHEIT ? celsius * 9 / 5 + 32 : celsius;
+    }
+
+    /** Rounds after converting, e.g. 12.6 °C shows as "13" in Celsius and "55" in Fahrenheit. */
+    public static long roundedFromCelsius(double celsius, @NonNull TemperatureUnit unit) {
+        return Math.round(fromCelsius(celsius, unit));
+    }
+
+    /** Formats a Celsius value in {@code unit} with its symbol, e.g. "55°F". */
+    @NonNull
+    public static String formatTemperature(double celsius, @NonNull TemperatureUnit unit) {
+        return roundedFromCelsius(celsius, unit) + unit.symbol;
+    }
+
+    public static double fromKmh(double kmh, @NonNull WindSpeedUnit unit) {
+        return kmh * unit.perKmh;
+    }
+
+    public static double fromMm(double mm, @NonNull PrecipitationUnit unit) {
+        return mm * unit.perMm;
+    }
+}
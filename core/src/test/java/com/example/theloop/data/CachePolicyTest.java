@@ -0,0 +1,27 @@
+package com.example.theloop.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CachePolicyTest {
+
+    private final CachePolicy policy = new CachePolicy(10, 100);
+
+    @Test
+    public void freshWithinTtlThenServableUntilMaxStaleness() {
+        assertTrue(policy.isFresh(1000, 1000));
+        assertTrue(policy.isFresh(1000, 1009));
+        assertFalse(policy.isFresh(1000, 1010));
+        assertTrue(policy.isServable(1000, 1010));
+        assertTrue(policy.isServable(1000, 1099));
+        assertFalse(policy.isServable(1000, 1100));
+    }
+
+    @Test
+    public void futureTimestampsAreNeitherFreshNorServable() {
+        assertFalse(policy.isFresh(1001, 1000));
+        assertFalse(policy.isServable(1001, 1000));
+    }
+}
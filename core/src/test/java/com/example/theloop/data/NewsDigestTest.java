@@ -0,0 +1,55 @@
+package com.example.theloop.data;
+
+import com.example.theloop.models.Article;
+import com.example.theloop.models.NewsDecoder;
+import com.example.theloop.models.NewsResponse;
+import com.example.theloop.utils.SourceMatcher;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class NewsDigestTest {
+
+    private static final SourceMatcher UK_SOURCES = new SourceMatcher(Collections.singletonList("BBC News"));
+
+    /** World stories where only the one at {@code ukIndex} comes from a UK source. */
+    private static String world(int count, int ukIndex) {
+        StringBuilder json = new StringBuilder("{\"World\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"link\":\"https://news.example.com/world/story-").append(i)
+                    .append("\",\"source\":\"").append(i == ukIndex ? "BBC News" : "The Example Times")
+                    .append("\",\"title\":\"Headline ").append(i).append("\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static NewsResponse decode(String json) throws IOException {
+        return NewsDecoder.decode(new StringReader(json), NewsDecoder.FULL_CATEGORIES,
+                NewsDecoder.DEFAULT_MAX_ARTICLES, null);
+    }
+
+    @Test
+    public void ukNews_findsSourcesPastTheHeadlineCap() throws IOException {
+        int ukIndex = NewsDecoder.DEFAULT_MAX_ARTICLES + 4;
+        NewsDigest digest = NewsDigest.build(decode(world(20, ukIndex)), UK_SOURCES);
+
+        List<Article> uk = digest.getUkNews();
+        assertEquals(1, uk.size());
+        assertEquals("https://news.example.com/world/story-" + ukIndex, uk.get(0).getUrl());
+    }
+
+    @Test
+    public void ukNews_fallsBackToWorldWithoutMatches() throws IOException {
+        NewsResponse news = decode(world(4, -1));
+        NewsDigest digest = NewsDigest.build(news, UK_SOURCES);
+
+        assertEquals(news.getWorld(), digest.getUkNews());
+    }
+}
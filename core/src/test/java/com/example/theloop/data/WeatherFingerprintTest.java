@@ -0,0 +1,45 @@
+package com.example.theloop.data;
+
+import com.example.theloop.models.WeatherResponse;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class WeatherFingerprintTest {
+
+    private final Gson gson = new Gson();
+
+    private WeatherResponse weather(String time, double temp, int code, double max) {
+        return gson.fromJson("{\"current\":{\"time\":\"" + time + "\",\"temperature_2m\":" + temp
+                + ",\"weather_code\":" + code + "},\"daily\":{\"time\":[\"2024-05-01\",\"2024-05-02\"],"
+                + "\"weather_code\":[1,3],\"temperature_2m_max\":[" + max + ",15.0],"
+                + "\"temperature_2m_min\":[8.0,7.5]}}", WeatherResponse.class);
+    }
+
+    @Test
+    public void ignoresObservationTimeAndNoiseBelowATenth() {
+        long first = WeatherFingerprint.of(weather("2024-05-01T10:00", 12.31, 1, 16.2));
+        long second = WeatherFingerprint.of(weather("2024-05-01T10:15", 12.34, 1, 16.2));
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void valuesShowingDifferentFahrenheitDegreesDiffer() {
+        // 12.6 °C and 13.4 °C both round to 13 °C but show as 55 °F and 56 °F.
+        long first = WeatherFingerprint.of(weather("2024-05-01T10:00", 12.6, 1, 16.2));
+        long second = WeatherFingerprint.of(weather("2024-05-01T10:00", 13.4, 1, 16.2));
+        assertNotEquals(first, second);
+        assertNotEquals(first, WeatherFingerprint.of(weather("2024-05-01T10:00", 12.6, 1, 16.6)));
+    }
+
+    @Test
+    public void changesWithVisibleFields() {
+        long base = WeatherFingerprint.of(weather("2024-05-01T10:00", 12.1, 1, 16.2));
+        assertNotEquals(base, WeatherFingerprint.of(weather("2024-05-01T10:00", 13.0, 1, 16.2)));
+        assertNotEquals(base, WeatherFingerprint.of(weather("2024-05-01T10:00", 12.1, 61, 16.2)));
+        assertNotEquals(base, WeatherFingerprint.of(weather("2024-05-01T10:00", 12.1, 1, 18.0)));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.theloop.diagnostics;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+
+public class HistogramTest {
+
+    private final Histogram histogram = new Histogram(10, 100, 1000);
+
+    @Test
+    public void emptyHistogramReportsZeros() {
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void percentilesResolveToBucketBoundsCappedAtMax() {
+        for (int i = 0; i < 8; i++) histogram.record(5);
+        histogram.record(50);
+        histogram.record(70);
+
+        assertEquals(10, histogram.getCount());
+        assertEquals(10, histogram.getPercentile(50));
+        assertEquals(10, histogram.getPercentile(80));
+        // The top bucket's bound is 100, but nothing above 70 was recorded.
+        assertEquals(70, histogram.getPercentile(90));
+        assertEquals(70, histogram.getMax());
+        assertEquals(16, histogram.getMean());
+    }
+
+    @Test
+    public void valuesAboveTheLastBoundGoToTheOverflowBucket() {
+        histogram.record(5_000);
+        histogram.record(-3);
+
+        assertEquals(5_000, histogram.getPercentile(99));
+        // The negative value counts as 0, which lands in the first bucket.
+        assertEquals(10, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void boundsAreInclusive() throws IOException {
+        histogram.record(10);
+        histogram.record(11);
+
+        JsonObject json = write(histogram);
+        assertEquals("[1,1,0,0]", json.get("buckets").toString());
+        assertEquals("[10,100,1000]", json.get("bounds").toString());
+    }
+
+    @Test
+    public void concurrentRecordsAreNotLost() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) histogram.record(i % 2000);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(1999, histogram.getMax());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnorderedBounds() {
+        new Histogram(10, 10);
+    }
+
+    static JsonObject write(Histogram histogram) throws IOException {
+        StringWriter out = new StringWriter();
+        histogram.writeTo(new JsonWriter(out));
+        return new JsonParser().parse(out.toString()).getAsJsonObject();
+    }
+}
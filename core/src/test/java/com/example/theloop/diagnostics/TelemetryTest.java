@@ -0,0 +1,76 @@
+package com.example.theloop.diagnostics;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+
+public class TelemetryTest {
+
+    @Before
+    public void setUp() {
+        Telemetry.reset();
+    }
+
+    @Test
+    public void countersAreKeptPerFeed() {
+        Telemetry.recordFetch(Telemetry.Feed.WEATHER, 120, true);
+        Telemetry.recordFetch(Telemetry.Feed.WEATHER, 900, false);
+        Telemetry.recordCache(Telemetry.Feed.WEATHER, Telemetry.CacheOutcome.STALE);
+        Telemetry.recordCache(Telemetry.Feed.NEWS, Telemetry.CacheOutcome.HIT);
+        Telemetry.recordHttpCacheHit(Telemetry.Feed.WEATHER);
+
+        Telemetry.FeedStats weather = Telemetry.feed(Telemetry.Feed.WEATHER);
+        assertEquals(2, weather.latencyMillis.getCount());
+        assertEquals(1, weather.getFailures());
+        assertEquals(1, weather.getHttpCacheHits());
+        assertEquals(1, weather.getCacheCount(Telemetry.CacheOutcome.STALE));
+        assertEquals(0, weather.getCacheCount(Telemetry.CacheOutcome.HIT));
+        assertEquals(1, Telemetry.feed(Telemetry.Feed.NEWS).getCacheCount(Telemetry.CacheOutcome.HIT));
+        assertEquals(0, Telemetry.feed(Telemetry.Feed.FUN_FACT).latencyMillis.getCount());
+    }
+
+    @Test
+    public void unknownViewTypesAreIgnored() {
+        Telemetry.recordBind(1);
+        Telemetry.recordBind(1);
+        Telemetry.recordBind(42);
+        Telemetry.recordBind(-1);
+
+        assertEquals(2, Telemetry.getBindCount(1));
+        assertEquals(0, Telemetry.getBindCount(42));
+    }
+
+    @Test
+    public void reportHoldsEverySection() throws IOException {
+        Telemetry.recordParse(Telemetry.Feed.NEWS, 2_500_000);
+        Telemetry.recordResponseBytes(Telemetry.Feed.NEWS, 40_000);
+        Telemetry.recordSummary(300_000);
+        Telemetry.recordBind(4);
+        Telemetry.recordWork(Telemetry.WorkOutcome.UNCHANGED);
+
+        StringWriter out = new StringWriter();
+        JsonWriter writer = new JsonWriter(out);
+        writer.beginObject();
+        Telemetry.writeFields(writer);
+        writer.endObject();
+        JsonObject report = new JsonParser().parse(out.toString()).getAsJsonObject();
+
+        JsonObject news = report.getAsJsonObject("feeds").getAsJsonObject("news");
+        assertEquals(2_500, news.getAsJsonObject("parse_us").get("max").getAsLong());
+        assertEquals(40_000, news.getAsJsonObject("response_bytes").get("max").getAsLong());
+        assertEquals(0, news.getAsJsonObject("cache").get("miss").getAsLong());
+        assertEquals(0, news.get("http_cache_hits").getAsLong());
+        assertEquals(300, report.getAsJsonObject("summary_us").get("max").getAsLong());
+        assertEquals(1, report.getAsJsonObject("binds").get("fun_fact").getAsLong());
+        assertEquals(1, report.getAsJsonObject("work").get("unchanged").getAsLong());
+        assertEquals(0, report.getAsJsonObject("refresh_cycle_ms").get("count").getAsLong());
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.theloop.models;
+
+import com.google.gson.Gson;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class DailyWeatherTest {
+
+    private final Gson gson = new Gson();
+
+    /** The old boxed model, kept here as the allocation baseline. */
+    private static class BoxedDaily {
+        @SerializedName("time") List<String> time;
+        @SerializedName("weather_code") List<Integer> weatherCode;
+        @SerializedName("temperature_2m_max") List<Double> temperatureMax;
+        @SerializedName("temperature_2m_min") List<Double> temperatureMin;
+    }
+
+    @Test
+    public void readsColumnsIntoPrimitives() {
+        DailyWeather daily = gson.fromJson("{\"time\":[\"2024-05-01\",\"2024-05-02\"],\"weather_code\":[1,61],"
+                + "\"temperature_2m_max\":[16.2,15.0],\"temperature_2m_min\":[8.0,7.5],\"sunrise\":[\"x\",\"y\"]}",
+                DailyWeather.class);
+
+        assertEquals(2, daily.size());
+        assertEquals(LocalDate.of(2024, 5, 1).toEpochDay(), daily.getEpochDay(0));
+        assertEquals(61, daily.getWeatherCode(1));
+        assertEquals(16.2f, daily.getTemperatureMax(0), 0f);
+        assertEquals(7.5f, daily.getTemperatureMin(1), 0f);
+    }
+
+    @Test
+    public void sizeIsShortestColumnAndNullsAreMarked() {
+        DailyWeather daily = gson.fromJson("{\"time\":[\"2024-05-01\",null,\"2024-05-03\"],\"weather_code\":[null,2,3],"
+                + "\"temperature_2m_max\":[16.2,null],\"temperature_2m_min\":[8.0,7.5,6.0]}", DailyWeather.class);
+
+        assertEquals(2, daily.size());
+        assertEquals(ForecastColumns.MISSING_TIME, daily.getEpochDay(1));
+        assertEquals(ForecastColumns.MISSING_CODE, daily.getWeatherCode(0));
+        assertTrue(Float.isNaN(daily.getTemperatureMax(1)));
+    }
+
+    @Test
+    public void roundTripsThroughGson() {
+        String json = "{\"time\":[\"2024-02-28\",\"2024-02-29\",null],\"weather_code\":[0,3,null],"
+                + "\"temperature_2m_max\":[12.3,-0.4,null],\"temperature_2m_min\":[4.1,-5.0,null]}";
+        DailyWeather daily = gson.fromJson(json, DailyWeather.class);
+        assertEquals(json, gson.toJson(daily));
+    }
+
+    @Test
+    public void epochDaysMatchLocalDate() {
+        for (LocalDate date = LocalDate.of(1999, 12, 1); date.isBefore(LocalDate.of(2101, 3, 1)); date = date.plusDays(17)) {
+            assertEquals(date.toString(), date.toEpochDay(), ForecastColumns.parseEpochDay(date.toString()));
+            assertEquals(date.toString(), ForecastColumns.formatEpochDay((int) date.toEpochDay()));
+        }
+        assertEquals(ForecastColumns.MISSING_TIME, ForecastColumns.parseEpochDay("2024-13-01"));
+        assertEquals(ForecastColumns.MISSING_TIME, ForecastColumns.parseEpochDay("yesterday"));
+    }
+
+    @Test
+    public void readsQuarterHourlySeriesAsEpochMinutes() throws IOException {
+        int points = 7 * 96;
+        int[] minutes;
+        try (JsonReader reader = new JsonReader(new StringReader(timeColumn(points, 15)))) {
+            minutes = ForecastColumns.readEpochMinutes(reader);
+        }
+
+        assertEquals(points, minutes.length);
+        long start = LocalDateTime.of(2024, 5, 1, 0, 0).toEpochSecond(ZoneOffset.UTC) / 60;
+        assertEquals(start, minutes[0]);
+        assertEquals(start + 15L * (points - 1), minutes[points - 1]);
+    }
+
+    @Test
+    public void decodingAllocatesLessThanBoxedModel() {
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        assumeTrue(threads != null);
+        // An hourly week and a 15-minutely week, decoded the same way as daily data.
+        for (int points : new int[] {168, 672}) {
+            String json = payload(points);
+            long columnar = Long.MAX_VALUE;
+            long boxed = Long.MAX_VALUE;
+            // Warm up, then keep the best of several runs to keep JIT and TLAB noise out.
+            for (int run = 0; run < 20; run++) {
+                long before = threads.getCurrentThreadAllocatedBytes();
+                DailyWeather daily = gson.fromJson(json, DailyWeather.class);
+                long mid = threads.getCurrentThreadAllocatedBytes();
+                BoxedDaily boxedDaily = gson.fromJson(json, BoxedDaily.class);
+                long after = threads.getCurrentThreadAllocatedBytes();
+                assertEquals(points, daily.size());
+                assertEquals(points, boxedDaily.temperatureMax.size());
+                columnar = Math.min(columnar, mid - before);
+                boxed = Math.min(boxed, after - mid);
+            }
+
+            // Both decoders pay for the JSON text and date strings. On top of that each boxed point
+            // costs two Doubles (small weather codes come from the Integer cache) and four list slots.
+            long saved = boxed - columnar;
+            assertTrue("columnar " + columnar + " B vs boxed " + boxed + " B for " + points + " points",
+                    saved >= 24L * points);
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) return null;
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    private static String payload(int points) {
+        StringBuilder codes = new StringBuilder();
+        StringBuilder max = new StringBuilder();
+        StringBuilder min = new StringBuilder();
+        for (int i = 0; i < points; i++) {
+            String separator = i == 0 ? "" : ",";
+            codes.append(separator).append(i % 4 == 0 ? 61 : 3);
+            max.append(separator).append(10 + i % 13).append('.').append(i % 10);
+            min.append(separator).append(i % 9).append('.').append((i + 5) % 10);
+        }
+        return "{\"time\":" + dateColumn(points) + ",\"weather_code\":[" + codes
+                + "],\"temperature_2m_max\":[" + max + "],\"temperature_2m_min\":[" + min + "]}";
+    }
+
+    private static String dateColumn(int points) {
+        StringBuilder time = new StringBuilder("[");
+        LocalDate start = LocalDate.of(2024, 5, 1);
+        for (int i = 0; i < points; i++) {
+            if (i > 0) time.append(',');
+            time.append('"').append(start.plusDays(i)).append('"');
+        }
+        return time.append(']').toString();
+    }
+
+    private static String timeColumn(int points, int stepMinutes) {
+        StringBuilder time = new StringBuilder("[");
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 0, 0);
+        for (int i = 0; i < points; i++) {
+            if (i > 0) time.append(',');
+            time.append('"').append(start.plusMinutes((long) stepMinutes * i)).append('"');
+        }
+        return time.append(']').toString();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.theloop.models;
+
+import com.example.theloop.network.GsonProvider;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ModelAdaptersTest {
+
+    private final Gson gson = GsonProvider.get();
+    private final Gson reflective = new Gson();
+
+    @Test
+    public void weatherMatchesReflectiveBinding() {
+        String json = SamplePayloads.weather(7);
+        WeatherResponse streamed = gson.fromJson(json, WeatherResponse.class);
+        WeatherResponse bound = reflective.fromJson(json, WeatherResponse.class);
+
+        assertEquals(bound.getLatitude(), streamed.getLatitude(), 0);
+        assertEquals(bound.getCurrent().getTime(), streamed.getCurrent().getTime());
+        assertEquals(bound.getCurrent().getTemperature(), streamed.getCurrent().getTemperature(), 0);
+        assertEquals(bound.getCurrent().getWeatherCode(), streamed.getCurrent().getWeatherCode());
+        assertEquals(7, streamed.getDaily().size());
+        assertEquals(reflective.toJson(bound), gson.toJson(streamed));
+    }
+
+    @Test
+    public void weatherToleratesNullsAndMissingSections() {
+        WeatherResponse weather = gson.fromJson("{\"latitude\":null,\"current\":{\"time\":null,\"temperature_2m\":3.5},"
+                + "\"daily\":null}", WeatherResponse.class);
+        assertEquals(0, weather.getLatitude(), 0);
+        assertNull(weather.getCurrent().getTime());
+        assertEquals(3.5, weather.getCurrent().getTemperature(), 0);
+        assertNull(weather.getDaily());
+        assertNull(gson.fromJson("null", WeatherResponse.class));
+    }
+
+    @Test
+    public void batchResponseUsesAdapters() {
+        List<WeatherResponse> batch = gson.fromJson("[" + SamplePayloads.weather(3) + "," + SamplePayloads.weather(5) + "]",
+                new TypeToken<List<WeatherResponse>>() {}.getType());
+        assertEquals(2, batch.size());
+        assertEquals(5, batch.get(1).getDaily().size());
+    }
+
+    @Test
+    public void newsDecodesEveryCategory() {
+        NewsResponse news = gson.fromJson(SamplePayloads.news(20), NewsResponse.class);
+        for (NewsResponse.Category category : NewsResponse.Category.values()) {
+            int expected = NewsDecoder.FULL_CATEGORIES.contains(category) ? 20 : NewsDecoder.DEFAULT_MAX_ARTICLES;
+            assertEquals(expected, news.get(category).size());
+        }
+        Article first = news.getWorld().get(0);
+        assertEquals("BBC News", first.getSource());
+        assertEquals("https://news.example.com/world/2024/05/06/story-0", first.getUrl());
+
+        NewsResponse again = gson.fromJson(gson.toJson(news), NewsResponse.class);
+        assertEquals(first.getTitle(), again.getWorld().get(0).getTitle());
+    }
+
+    @Test
+    public void funFactSkipsUnknownFields() {
+        FunFactResponse fact = gson.fromJson(SamplePayloads.funFact(), FunFactResponse.class);
+        assertEquals("Honey never spoils.", fact.getText());
+        assertEquals("djtech.net", fact.getSource());
+        assertNotNull(fact.getId());
+        assertEquals("{\"id\":\"5b6b2f2a0b2c4e1f9d1a3c7e8f0a1b2c\",\"text\":\"Honey never spoils.\",\"source\":\"djtech.net\"}",
+                gson.toJson(fact));
+    }
+}
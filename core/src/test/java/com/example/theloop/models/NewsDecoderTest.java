@@ -0,0 +1,72 @@
+package com.example.theloop.models;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NewsDecoderTest {
+
+    @Test
+    public void decode_readsOnlyEagerCategoriesAndCapsThem() throws IOException {
+        NewsResponse news = NewsDecoder.decode(new StringReader(SamplePayloads.news(12)),
+                EnumSet.of(NewsResponse.Category.US, NewsResponse.Category.SCIENCE), 5, null);
+
+        assertEquals(5, news.getUs().size());
+        assertEquals(5, news.getScience().size());
+        assertNull(news.getWorld());
+        assertNull(news.getBusiness());
+    }
+
+    @Test
+    public void decode_readsCategoriesForTheUkFilterInFull() throws IOException {
+        NewsResponse news = NewsDecoder.decode(new StringReader(SamplePayloads.news(12)),
+                NewsDecoder.FULL_CATEGORIES, 5, null);
+
+        assertEquals(12, news.getWorld().size());
+        assertEquals(12, news.getBusiness().size());
+        assertEquals(12, news.getSports().size());
+        assertEquals(12, NewsDecoder.decodeCategory(new StringReader(SamplePayloads.news(12)),
+                NewsResponse.Category.WORLD, 5).size());
+    }
+
+    @Test
+    public void decode_treatsMissingEagerCategoriesAsEmpty() throws IOException {
+        NewsResponse news = NewsDecoder.decode(new StringReader("{\"US\":[],\"Other\":[1,2]}"),
+                EnumSet.of(NewsResponse.Category.US, NewsResponse.Category.WORLD), 5, null);
+
+        assertTrue(news.getUs().isEmpty());
+        assertTrue(news.getWorld().isEmpty());
+        assertNull(news.getHealth());
+    }
+
+    @Test
+    public void decode_skipsNullFieldsAndNonObjectEntries() throws IOException {
+        NewsResponse news = NewsDecoder.decode(new StringReader(
+                        "{\"US\":[null,{\"source\":null,\"title\":\"T\",\"link\":\"https://e.com\",\"og\":\"x\"}]}"),
+                EnumSet.of(NewsResponse.Category.US), 5, null);
+
+        List<Article> us = news.getUs();
+        assertEquals(1, us.size());
+        assertNull(us.get(0).getSource());
+        assertEquals("T", us.get(0).getTitle());
+        assertEquals("https://e.com", us.get(0).getUrl());
+    }
+
+    @Test
+    public void decodeCategory_stopsAtTheRequestedCategory() throws IOException {
+        // Everything after World is truncated; decoding World must not need it.
+        String truncated = "{\"Business\":[{\"title\":\"B\"}],\"World\":[{\"title\":\"W\"}],\"US\":[{\"tit";
+        List<Article> world = NewsDecoder.decodeCategory(new StringReader(truncated), NewsResponse.Category.WORLD, 5);
+
+        assertEquals(1, world.size());
+        assertEquals("W", world.get(0).getTitle());
+        assertTrue(NewsDecoder.decodeCategory(new StringReader("{}"), NewsResponse.Category.WORLD, 5).isEmpty());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.theloop.models;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NewsResponseTest {
+
+    private static final String PAYLOAD = SamplePayloads.news(4);
+
+    private static NewsResponse decodeUsOnly(NewsResponse.Source source) throws IOException {
+        return NewsDecoder.decode(new StringReader(PAYLOAD), EnumSet.of(NewsResponse.Category.US), 3, source);
+    }
+
+    @Test
+    public void load_decodesSkippedCategoryOnceFromTheSource() throws IOException {
+        AtomicInteger opened = new AtomicInteger();
+        NewsResponse news = decodeUsOnly(() -> {
+            opened.incrementAndGet();
+            return new StringReader(PAYLOAD);
+        });
+        assertFalse(news.isLoaded(NewsResponse.Category.SCIENCE));
+
+        List<Article> science = news.load(NewsResponse.Category.SCIENCE);
+
+        assertEquals(3, science.size());
+        assertEquals("Headline 0 about Science that runs long enough to wrap onto a second line", science.get(0).getTitle());
+        assertSame(science, news.load(NewsResponse.Category.SCIENCE));
+        assertEquals(1, opened.get());
+    }
+
+    @Test
+    public void load_retriesAfterAReadFailure() throws IOException {
+        AtomicInteger attempts = new AtomicInteger();
+        NewsResponse news = decodeUsOnly(() -> {
+            if (attempts.incrementAndGet() == 1) throw new IOException("disk busy");
+            return new StringReader(PAYLOAD);
+        });
+
+        try {
+            news.load(NewsResponse.Category.WORLD);
+            fail("expected the read failure");
+        } catch (IOException expected) {
+            // The category stays unloaded.
+        }
+        assertNull(news.get(NewsResponse.Category.WORLD));
+
+        assertEquals(4, news.load(NewsResponse.Category.WORLD).size());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void load_marksMalformedPayloadEmpty() throws IOException {
+        AtomicInteger attempts = new AtomicInteger();
+        NewsResponse news = decodeUsOnly(() -> {
+            attempts.incrementAndGet();
+            return new StringReader("{\"World\":[{\"title\" \"x\"}]}");
+        });
+
+        try {
+            news.load(NewsResponse.Category.WORLD);
+            fail("expected the parse failure");
+        } catch (IOException | RuntimeException expected) {
+            // Reported once.
+        }
+        assertTrue(news.load(NewsResponse.Category.WORLD).isEmpty());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void load_withoutSourceIsEmpty() throws IOException {
+        NewsResponse news = decodeUsOnly(null);
+        assertTrue(news.load(NewsResponse.Category.HEALTH).isEmpty());
+        assertTrue(news.isLoaded(NewsResponse.Category.HEALTH));
+    }
+
+    @Test
+    public void failingSourceDoesNotAffectEagerCategories() throws IOException {
+        NewsResponse news = decodeUsOnly(() -> {
+            throw new IOException("gone");
+        });
+        assertEquals(3, news.getUs().size());
+        assertEquals(3, news.load(NewsResponse.Category.US).size());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.theloop.models;
+
+import java.time.LocalDate;
+
+/** Builds API payloads shaped like the real responses, including the fields the app ignores. */
+final class SamplePayloads {
+
+    private SamplePayloads() {}
+
+    /** An Open-Meteo forecast with current conditions and {@code days} days of daily data. */
+    static String weather(int days) {
+        StringBuilder time = new StringBuilder();
+        StringBuilder codes = new StringBuilder();
+        StringBuilder max = new StringBuilder();
+        StringBuilder min = new StringBuilder();
+        LocalDate start = LocalDate.of(2024, 5, 6);
+        for (int i = 0; i < days; i++) {
+            String separator = i == 0 ? "" : ",";
+            time.append(separator).append('"').append(start.plusDays(i)).append('"');
+            codes.append(separator).append(new int[] {0, 3, 61, 80, 2}[i % 5]);
+            max.append(separator).append(14 + i % 7).append('.').append(i % 10);
+            min.append(separator).append(4 + i % 5).append('.').append((i + 3) % 10);
+        }
+        return "{\"latitude\":51.54,\"longitude\":-0.1,\"generationtime_ms\":0.0423,\"utc_offset_seconds\":3600,"
+                + "\"timezone\":\"Europe/London\",\"timezone_abbreviation\":\"BST\",\"elevation\":41.0,"
+                + "\"current_units\":{\"time\":\"iso8601\",\"interval\":\"seconds\",\"temperature_2m\":\"°C\",\"weather_code\":\"wmo code\"},"
+                + "\"current\":{\"time\":\"2024-05-06T09:15\",\"interval\":900,\"temperature_2m\":12.6,\"weather_code\":3},"
+                + "\"daily_units\":{\"time\":\"iso8601\",\"weather_code\":\"wmo code\",\"temperature_2m_max\":\"°C\",\"temperature_2m_min\":\"°C\"},"
+                + "\"daily\":{\"time\":[" + time + "],\"weather_code\":[" + codes + "],\"temperature_2m_max\":[" + max
+                + "],\"temperature_2m_min\":[" + min + "]}}";
+    }
+
+    /** An ok.surf feed with {@code perCategory} articles in each of the eight categories. */
+    static String news(int perCategory) {
+        StringBuilder json = new StringBuilder("{");
+        NewsResponse.Category[] categories = NewsResponse.Category.values();
+        for (int c = 0; c < categories.length; c++) {
+            if (c > 0) json.append(',');
+            json.append('"').append(categories[c].getJsonName()).append("\":[");
+            for (int i = 0; i < perCategory; i++) {
+                if (i > 0) json.append(',');
+                json.append("{\"link\":\"https://news.example.com/").append(categories[c].getJsonName().toLowerCase())
+                        .append("/2024/05/06/story-").append(i).append("\",\"og\":\"https://img.example.com/og/")
+                        .append(c).append('-').append(i).append(".jpg\",\"source\":\"")
+                        .append(i % 3 == 0 ? "BBC News" : "The Example Times")
+                        .append("\",\"source_icon\":\"https://news.example.com/favicon.ico\",\"title\":\"Headline ")
+                        .append(i).append(" about ").append(categories[c].getJsonName())
+                        .append(" that runs long enough to wrap onto a second line\"}");
+            }
+            json.append(']');
+        }
+        return json.append('}').toString();
+    }
+
+    static String funFact() {
+        return "{\"id\":\"5b6b2f2a0b2c4e1f9d1a3c7e8f0a1b2c\",\"text\":\"Honey never spoils.\","
+                + "\"source\":\"djtech.net\",\"source_url\":\"https://www.djtech.net/humor/useless_facts.htm\","
+                + "\"language\":\"en\",\"permalink\":\"https://uselessfacts.jsph.pl/api/v2/facts/5b6b2f2a\"}";
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.theloop.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GeohashTest {
+
+    @Test
+    public void encode_matchesReferenceHashes() {
+        assertEquals("u4pruydqqvj", Geohash.encode(57.64911, 10.40744, 11));
+        assertEquals("gcpvj0", Geohash.encode(51.5074, -0.1278, 6));
+        assertEquals("s00000", Geohash.encode(0, 0, 6));
+    }
+
+    @Test
+    public void encode_nearbyFixesShareACell() {
+        assertEquals(Geohash.encode(51.50740, -0.12780, 6), Geohash.encode(51.50760, -0.12750, 6));
+        assertNotEquals(Geohash.encode(51.5074, -0.1278, 6), Geohash.encode(51.5274, -0.1278, 6));
+    }
+}
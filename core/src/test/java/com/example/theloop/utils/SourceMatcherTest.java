@@ -0,0 +1,59 @@
+package com.example.theloop.utils;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class SourceMatcherTest {
+
+    private final List<String> sources = Arrays.asList("BBC", "The Guardian", "Sky News", "The Sun", "Standard", "Mirror");
+    private final SourceMatcher matcher = new SourceMatcher(sources);
+
+    @Test
+    public void matchesAny_findsPatternsAnywhereInText() {
+        assertTrue(matcher.matchesAny("BBC News"));
+        assertTrue(matcher.matchesAny("Evening Standard"));
+        assertTrue(matcher.matchesAny("Daily Mirror"));
+        assertTrue(matcher.matchesAny("The Guardian"));
+    }
+
+    @Test
+    public void matchesAny_followsFailureLinksBetweenOverlappingPatterns() {
+        // "The Guardian" shares its prefix with "The Sun"; the match must survive the mismatch.
+        assertTrue(matcher.matchesAny("The GuaThe Sun"));
+        assertTrue(matcher.matchesAny("SSky News"));
+    }
+
+    @Test
+    public void matchesAny_rejectsTextWithoutAnyPattern() {
+        assertFalse(matcher.matchesAny("Reuters"));
+        assertFalse(matcher.matchesAny("bbc"));
+        assertFalse(matcher.matchesAny("The Sunday Times".substring(0, 6)));
+        assertFalse(matcher.matchesAny(""));
+        assertFalse(matcher.matchesAny(null));
+    }
+
+    @Test
+    public void matchesAny_agreesWithStringContains() {
+        List<String> texts = Arrays.asList("BBC", "CNN", "Sky", "The Sun Online", "Guardian", "Standard Chartered", "Mirrors");
+        for (String text : texts) {
+            boolean expected = false;
+            for (String source : sources) {
+                if (text.contains(source)) {
+                    expected = true;
+                    break;
+                }
+            }
+            assertEquals(text, expected, matcher.matchesAny(text));
+        }
+    }
+
+    @Test
+    public void emptyPatterns_matchNothing() {
+        SourceMatcher empty = new SourceMatcher(Collections.singletonList(""));
+        assertFalse(empty.matchesAny("anything"));
+    }
+}
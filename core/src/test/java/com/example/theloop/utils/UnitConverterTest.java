@@ -0,0 +1,37 @@
+package com.example.theloop.utils;
+
+import com.example.theloop.utils.UnitConverter.PrecipitationUnit;
+import com.example.theloop.utils.UnitConverter.TemperatureUnit;
+import com.example.theloop.utils.UnitConverter.WindSpeedUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class UnitConverterTest {
+
+    @Test
+    public void temperature_convertsBeforeRounding() {
+        assertEquals(12.6, UnitConverter.fromCelsius(12.6, TemperatureUnit.CELSIUS), 0.0);
+        assertEquals(212.0, UnitConverter.fromCelsius(100, TemperatureUnit.FAHRENHEIT), 1e-9);
+        // 13.4 °C is 56.12 °F; rounding to 13 °C first would give 55 °F.
+        assertEquals(56, UnitConverter.roundedFromCelsius(13.4, TemperatureUnit.FAHRENHEIT));
+        assertEquals(-4, UnitConverter.roundedFromCelsius(-20, TemperatureUnit.FAHRENHEIT));
+        assertEquals("13°C", UnitConverter.formatTemperature(12.6, TemperatureUnit.CELSIUS));
+        assertEquals("55°F", UnitConverter.formatTemperature(12.6, TemperatureUnit.FAHRENHEIT));
+    }
+
+    @Test
+    public void temperatureUnit_fallsBackToCelsius() {
+        assertEquals(TemperatureUnit.FAHRENHEIT, TemperatureUnit.fromPreference("fahrenheit"));
+        assertEquals(TemperatureUnit.CELSIUS, TemperatureUnit.fromPreference("celsius"));
+        assertEquals(TemperatureUnit.CELSIUS, TemperatureUnit.fromPreference(null));
+    }
+
+    @Test
+    public void windAndPrecipitation_convertFromCanonicalUnits() {
+        assertEquals(10.0, UnitConverter.fromKmh(36, WindSpeedUnit.MS), 1e-9);
+        assertEquals(62.1371, UnitConverter.fromKmh(100, WindSpeedUnit.MPH), 1e-4);
+        assertEquals(1.0, UnitConverter.fromMm(25.4, PrecipitationUnit.INCH), 1e-9);
+    }
+}